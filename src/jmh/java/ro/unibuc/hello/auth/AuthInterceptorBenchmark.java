@@ -0,0 +1,97 @@
+package ro.unibuc.hello.auth;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ro.unibuc.hello.service.SessionCache;
+import ro.unibuc.hello.service.SessionsService;
+
+/**
+ * {@link AuthInterceptor#preHandle} for a public endpoint, a database session already in the session cache and
+ * a signed token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuthInterceptorBenchmark {
+
+    private static final String SESSION_ID = "5b1e9e0c-3f0c-4f7e-9d8a-0c2b6f3f1a11";
+
+    private final AuthInterceptor databaseInterceptor = new AuthInterceptor();
+    private final AuthInterceptor tokenInterceptor = new AuthInterceptor();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    private HandlerMethod publicHandler;
+    private HandlerMethod privateHandler;
+    private MockHttpServletRequest sessionRequest;
+    private MockHttpServletRequest tokenRequest;
+
+    @Setup
+    public void setUp() throws Exception {
+        publicHandler = new HandlerMethod(new Endpoints(), Endpoints.class.getMethod("publicEndpoint"));
+        privateHandler = new HandlerMethod(new Endpoints(), Endpoints.class.getMethod("privateEndpoint"));
+
+        SessionCache sessionCache = new SessionCache();
+        ReflectionTestUtils.setField(sessionCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(sessionCache, "maxSize", 10000L);
+        ReflectionTestUtils.setField(sessionCache, "maxTtlSeconds", 3600L);
+        sessionCache.start();
+        sessionCache.put(SESSION_ID, "11", LocalDateTime.now().plusHours(1));
+
+        SessionsService databaseSessions = new SessionsService();
+        ReflectionTestUtils.setField(databaseSessions, "sessionCache", sessionCache);
+        ReflectionTestUtils.setField(databaseSessions, "sessionMode", SessionMode.DATABASE);
+        ReflectionTestUtils.setField(databaseInterceptor, "sessionService", databaseSessions);
+
+        SessionTokens sessionTokens = new SessionTokens();
+        ReflectionTestUtils.setField(sessionTokens, "secret", "benchmark-secret-benchmark-secret");
+        ReflectionTestUtils.setField(sessionTokens, "sessionMode", SessionMode.TOKEN);
+        sessionTokens.start();
+        SessionsService tokenSessions = new SessionsService();
+        ReflectionTestUtils.setField(tokenSessions, "sessionTokens", sessionTokens);
+        ReflectionTestUtils.setField(tokenSessions, "sessionMode", SessionMode.TOKEN);
+        ReflectionTestUtils.setField(tokenInterceptor, "sessionService", tokenSessions);
+
+        sessionRequest = new MockHttpServletRequest("POST", "/auctions/1/place-bid");
+        sessionRequest.addHeader("X-Session-Id", SESSION_ID);
+        tokenRequest = new MockHttpServletRequest("POST", "/auctions/1/place-bid");
+        tokenRequest.addHeader("X-Session-Id", sessionTokens.issue("11", Instant.now().plusSeconds(3600)));
+    }
+
+    @Benchmark
+    public boolean publicEndpoint() throws Exception {
+        return databaseInterceptor.preHandle(sessionRequest, response, publicHandler);
+    }
+
+    @Benchmark
+    public boolean cachedSession() throws Exception {
+        return databaseInterceptor.preHandle(sessionRequest, response, privateHandler);
+    }
+
+    @Benchmark
+    public boolean signedToken() throws Exception {
+        return tokenInterceptor.preHandle(tokenRequest, response, privateHandler);
+    }
+
+    public static class Endpoints {
+
+        @PublicEndpoint
+        public void publicEndpoint() {}
+
+        public void privateEndpoint() {}
+    }
+}
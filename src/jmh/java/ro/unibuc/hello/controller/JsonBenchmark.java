@@ -0,0 +1,66 @@
+package ro.unibuc.hello.controller;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ro.unibuc.hello.dto.AuctionWithAuctioneerAndItem;
+import ro.unibuc.hello.dto.BidWithBidder;
+import ro.unibuc.hello.dto.Item;
+import ro.unibuc.hello.dto.User;
+
+/**
+ * Serializing list responses the way the JSON message converter does, one page of the given size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    // Configured like the application's ObjectMapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private List<AuctionWithAuctioneerAndItem> auctions;
+    private List<BidWithBidder> bids;
+
+    @Setup
+    public void setUp() {
+        auctions = new ArrayList<>(pageSize);
+        bids = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            User user = new User("1" + i, "user " + i);
+            AuctionWithAuctioneerAndItem auction = new AuctionWithAuctioneerAndItem("a" + i, "Auction " + i, "Description " + i,
+                10 + i, i % 2 == 0 ? "open" : "closed", user, new Item("2" + i, "Item " + i, "description " + i));
+            auction.setEndsAt(LocalDateTime.of(2030, 1, 1, 12, 0).plusMinutes(i));
+            auctions.add(auction);
+            bids.add(new BidWithBidder("3" + i, 100 + i, user));
+        }
+    }
+
+    @Benchmark
+    public byte[] auctionsPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(auctions);
+    }
+
+    @Benchmark
+    public byte[] bidsPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bids);
+    }
+}
@@ -0,0 +1,43 @@
+package ro.unibuc.hello.data;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory stand-ins for the Spring Data repositories, so benchmarks measure our code and not Mongo.
+ *
+ * The implementation is any object with public methods of the same name and (erased) parameter types as the
+ * repository methods it fakes, a call to a method it doesn't have fails loudly.
+ */
+public final class Fakes {
+
+    private Fakes() {}
+
+    public static <T> T repository(Class<T> type, Object implementation) {
+        Map<Method, Method> targets = new ConcurrentHashMap<>();
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (self, method, args) -> {
+            Method target = method.getDeclaringClass() == Object.class
+                ? method
+                : targets.computeIfAbsent(method, called -> find(type, implementation, called));
+            try {
+                return target.invoke(implementation, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        });
+        return type.cast(proxy);
+    }
+
+    private static Method find(Class<?> type, Object implementation, Method called) {
+        try {
+            Method method = implementation.getClass().getMethod(called.getName(), called.getParameterTypes());
+            method.setAccessible(true);
+            return method;
+        } catch (NoSuchMethodException ex) {
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + called.getName() + " is not faked");
+        }
+    }
+}
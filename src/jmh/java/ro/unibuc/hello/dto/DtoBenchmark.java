@@ -0,0 +1,67 @@
+package ro.unibuc.hello.dto;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ro.unibuc.hello.data.AuctionEntity;
+import ro.unibuc.hello.data.BidEntity;
+import ro.unibuc.hello.data.ItemEntity;
+import ro.unibuc.hello.data.UserEntity;
+
+/**
+ * Building the response DTOs, from entities (single reads) and from the documents list pages are read as.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DtoBenchmark {
+
+    private AuctionEntity auctionEntity;
+    private BidEntity bidEntity;
+    private Document auctionDocument;
+    private Document bidDocument;
+
+    @Setup
+    public void setUp() {
+        UserEntity auctioneer = new UserEntity("11", "user 1", "username1", "password1");
+        UserEntity bidder = new UserEntity("12", "user 2", "username2", "password2");
+        ItemEntity item = new ItemEntity("21", "Item 1", "description 1", auctioneer);
+        auctionEntity = new AuctionEntity("1", "Auction 1", "Description 1", 100, true, item, auctioneer);
+        bidEntity = new BidEntity("31", 120, bidder, auctionEntity);
+
+        Document user1 = new Document("_id", "11").append("name", "user 1");
+        Document user2 = new Document("_id", "12").append("name", "user 2");
+        Document item1 = new Document("_id", "21").append("name", "Item 1").append("description", "description 1");
+        auctionDocument = new Document("_id", "1").append("title", "Auction 1").append("description", "Description 1")
+            .append("startPrice", 100).append("open", true).append("item", item1).append("auctioneer", user1);
+        bidDocument = new Document("_id", "31").append("price", 120).append("bidder", user2);
+    }
+
+    @Benchmark
+    public AuctionWithAuctioneerAndItem auctionFromEntity() {
+        return new AuctionWithAuctioneerAndItem(auctionEntity);
+    }
+
+    @Benchmark
+    public AuctionWithAuctioneerAndItem auctionFromDocument() {
+        return new AuctionWithAuctioneerAndItem(auctionDocument);
+    }
+
+    @Benchmark
+    public BidWithBidder bidFromEntity() {
+        return new BidWithBidder(bidEntity);
+    }
+
+    @Benchmark
+    public BidWithBidder bidFromDocument() {
+        return new BidWithBidder(bidDocument);
+    }
+}
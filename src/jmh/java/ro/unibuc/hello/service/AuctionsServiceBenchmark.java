@@ -0,0 +1,209 @@
+package ro.unibuc.hello.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ro.unibuc.hello.bidding.BidWriteBehind;
+import ro.unibuc.hello.bidding.BiddingEngine;
+import ro.unibuc.hello.bidding.LiveBids;
+import ro.unibuc.hello.cache.ResponseCache;
+import ro.unibuc.hello.data.AuctionEntity;
+import ro.unibuc.hello.data.AuctionRepository;
+import ro.unibuc.hello.data.BidEntity;
+import ro.unibuc.hello.data.BidRepository;
+import ro.unibuc.hello.data.Fakes;
+import ro.unibuc.hello.data.ItemEntity;
+import ro.unibuc.hello.data.MaxBidEntity;
+import ro.unibuc.hello.data.MaxBidRepository;
+import ro.unibuc.hello.data.UserEntity;
+import ro.unibuc.hello.data.UserRepository;
+import ro.unibuc.hello.dto.AuctionPlaceBidRequest;
+import ro.unibuc.hello.dto.BidWithBidder;
+import ro.unibuc.hello.monitoring.BusinessMetrics;
+
+/**
+ * The bid path and the highest bid read of {@link AuctionsService}, with the real bidding engine and caches but
+ * in-memory repositories and a write-behind that returns right away.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AuctionsServiceBenchmark {
+
+    private static final String BIDDING_AUCTION = "1";
+    private static final String CLOSED_AUCTION = "2";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AuctionsService auctionsService = new AuctionsService();
+    private final BiddingEngine biddingEngine = new BiddingEngine();
+
+    private int price;
+
+    @Setup
+    public void setUp() {
+        UserEntity auctioneer = new UserEntity("11", "user 1", "username1", "password1");
+        UserEntity bidder = new UserEntity("12", "user 2", "username2", "password2");
+        ItemEntity item = new ItemEntity("21", "Item 1", "description 1", auctioneer);
+
+        AuctionEntity bidding = new AuctionEntity(BIDDING_AUCTION, "Auction 1", "Description 1", 1, true, item, auctioneer);
+        AuctionEntity closed = new AuctionEntity(CLOSED_AUCTION, "Auction 2", "Description 2", 1, false, item, auctioneer);
+        closed.setHighestBidId("31");
+        closed.setHighestBidPrice(100);
+        closed.setHighestBidder(bidder);
+
+        AuctionStore auctions = new AuctionStore(Map.of(BIDDING_AUCTION, bidding, CLOSED_AUCTION, closed));
+        UserStore users = new UserStore(Map.of(auctioneer.getId(), auctioneer, bidder.getId(), bidder));
+        AuctionRepository auctionRepository = Fakes.repository(AuctionRepository.class, auctions);
+        UserRepository userRepository = Fakes.repository(UserRepository.class, users);
+        BidRepository bidRepository = Fakes.repository(BidRepository.class, new NoBids());
+        MaxBidRepository maxBidRepository = Fakes.repository(MaxBidRepository.class, new NoMaxBids());
+
+        ReflectionTestUtils.setField(biddingEngine, "auctionRepository", auctionRepository);
+        ReflectionTestUtils.setField(biddingEngine, "bidRepository", bidRepository);
+        ReflectionTestUtils.setField(biddingEngine, "maxBidRepository", maxBidRepository);
+        biddingEngine.start();
+
+        LiveBids liveBids = new LiveBids();
+        ReflectionTestUtils.setField(liveBids, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(liveBids, "bufferSize", 256);
+        liveBids.start();
+
+        AuctionVersionCache auctionVersionCache = new AuctionVersionCache();
+        ReflectionTestUtils.setField(auctionVersionCache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(auctionVersionCache, "maxSize", 1000L);
+        ReflectionTestUtils.setField(auctionVersionCache, "ttlMs", 2000L);
+        auctionVersionCache.start();
+
+        ResponseCache responseCache = new ResponseCache();
+        ReflectionTestUtils.setField(responseCache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(responseCache, "maxBytes", 1_000_000L);
+        ReflectionTestUtils.setField(responseCache, "ttlSeconds", 10L);
+        ReflectionTestUtils.setField(responseCache, "gzipMinBytes", 1024);
+        responseCache.start();
+
+        BusinessMetrics businessMetrics = new BusinessMetrics();
+        ReflectionTestUtils.setField(businessMetrics, "meterRegistry", meterRegistry);
+        businessMetrics.start();
+
+        ReflectionTestUtils.setField(auctionsService, "auctionRepository", auctionRepository);
+        ReflectionTestUtils.setField(auctionsService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(auctionsService, "bidRepository", bidRepository);
+        ReflectionTestUtils.setField(auctionsService, "maxBidRepository", maxBidRepository);
+        ReflectionTestUtils.setField(auctionsService, "biddingEngine", biddingEngine);
+        ReflectionTestUtils.setField(auctionsService, "bidWriteBehind", new ImmediateWriteBehind());
+        ReflectionTestUtils.setField(auctionsService, "liveBids", liveBids);
+        ReflectionTestUtils.setField(auctionsService, "auctionVersionCache", auctionVersionCache);
+        ReflectionTestUtils.setField(auctionsService, "responseCache", responseCache);
+        ReflectionTestUtils.setField(auctionsService, "businessMetrics", businessMetrics);
+    }
+
+    @TearDown
+    public void tearDown() {
+        biddingEngine.stop();
+    }
+
+    @Benchmark
+    public BidWithBidder placeBid() {
+        // Every bid beats the previous one, so every call takes the accepted path
+        return auctionsService.placeBid(BIDDING_AUCTION, "12", new AuctionPlaceBidRequest(++price));
+    }
+
+    @Benchmark
+    public BidWithBidder getAuctionHighestBid() {
+        return auctionsService.getAuctionHighestBid(CLOSED_AUCTION);
+    }
+
+    public static class AuctionStore {
+
+        private final Map<String, AuctionEntity> auctions;
+
+        AuctionStore(Map<String, AuctionEntity> auctions) {
+            this.auctions = new ConcurrentHashMap<>(auctions);
+        }
+
+        public Optional<AuctionEntity> findById(Object id) {
+            return Optional.ofNullable(auctions.get(id));
+        }
+
+        public boolean existsById(Object id) {
+            return auctions.containsKey(id);
+        }
+
+        public Long findVersionById(String id) {
+            AuctionEntity auction = auctions.get(id);
+            return auction != null ? auction.getVersion() : null;
+        }
+
+        // Same condition as the Mongo update, without the end time
+        public synchronized Document recordHighestBid(String auctionId, String bidId, int price, UserEntity bidder) {
+            AuctionEntity auction = auctions.get(auctionId);
+            if (auction == null || !auction.isOpen()) {
+                return null;
+            }
+            Integer highest = auction.getHighestBidPrice();
+            if (highest != null ? price <= highest : price < auction.getStartPrice()) {
+                return null;
+            }
+            Document previous = new Document("highestBidId", auction.getHighestBidId()).append("highestBidPrice", highest);
+            auction.setHighestBidId(bidId);
+            auction.setHighestBidPrice(price);
+            auction.setHighestBidder(bidder);
+            return previous;
+        }
+    }
+
+    public static class UserStore {
+
+        private final Map<String, UserEntity> users;
+
+        UserStore(Map<String, UserEntity> users) {
+            this.users = users;
+        }
+
+        public Optional<UserEntity> findById(Object id) {
+            return Optional.ofNullable(users.get(id));
+        }
+
+        public boolean existsById(Object id) {
+            return users.containsKey(id);
+        }
+    }
+
+    public static class NoBids {
+
+        public Optional<BidEntity> findFirstByAuctionOrderByPriceDesc(AuctionEntity auction) {
+            return Optional.empty();
+        }
+    }
+
+    public static class NoMaxBids {
+
+        public List<MaxBidEntity> findByAuctionId(String auctionId) {
+            return List.of();
+        }
+    }
+
+    private static class ImmediateWriteBehind extends BidWriteBehind {
+
+        @Override
+        public BidEntity insert(BidEntity bid) {
+            return bid;
+        }
+    }
+}
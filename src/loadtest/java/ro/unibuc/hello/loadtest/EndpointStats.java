@@ -0,0 +1,61 @@
+package ro.unibuc.hello.loadtest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies and status codes of one request template, in microseconds.
+ */
+public class EndpointStats {
+
+    // Status recorded for requests that got no response at all
+    public static final int FAILED = -1;
+
+    private final String name;
+
+    // Measured from the time the request was due, so a stalled server is charged for every request it held up
+    private final Histogram responseTime = new ConcurrentHistogram(3);
+
+    // Measured from the time the request was sent, what a closed-loop tool would report
+    private final Histogram serviceTime = new ConcurrentHistogram(3);
+
+    private final Map<Integer, LongAdder> statuses = new ConcurrentSkipListMap<>();
+
+    public EndpointStats(String name) {
+        this.name = name;
+    }
+
+    public void record(long dueAtNanos, long sentAtNanos, long doneAtNanos, int status) {
+        responseTime.recordValue(TimeUnit.NANOSECONDS.toMicros(doneAtNanos - dueAtNanos));
+        serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(doneAtNanos - sentAtNanos));
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Histogram getResponseTime() {
+        return responseTime;
+    }
+
+    public Histogram getServiceTime() {
+        return serviceTime;
+    }
+
+    public long getErrors() {
+        return statuses.entrySet().stream()
+            .filter(status -> status.getKey() == FAILED || status.getKey() >= 400)
+            .mapToLong(status -> status.getValue().sum())
+            .sum();
+    }
+
+    public Map<Integer, LongAdder> getStatuses() {
+        return statuses;
+    }
+}
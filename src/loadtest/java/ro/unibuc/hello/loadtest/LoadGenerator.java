@@ -0,0 +1,279 @@
+package ro.unibuc.hello.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Replays a {@link Scenario} against a running instance at a fixed open-loop rate.
+ *
+ * Requests are started on their own virtual thread when they are due, whether or not earlier requests have
+ * finished, and their latency is measured from the time they were due. A server that stalls for a second is
+ * charged for every request that should have been sent during that second, instead of for the single request
+ * a closed-loop client would have had in flight (coordinated omission).
+ *
+ * Usage: LoadGenerator [scenario.jsonl] [results directory]
+ */
+public class LoadGenerator {
+
+    private static final String SESSION_HEADER = "X-Session-Id";
+
+    private final Scenario scenario;
+    private final ObjectMapper mapper;
+    private final HttpClient client;
+
+    private final List<String> sessions = new ArrayList<>();
+    private final Map<String, List<String>> pools = new HashMap<>();
+    private final AtomicLong price;
+
+    public LoadGenerator(Scenario scenario, ObjectMapper mapper) {
+        this.scenario = scenario;
+        this.mapper = mapper;
+        this.client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(scenario.timeout())
+            .build();
+        this.price = new AtomicLong(scenario.startPrice());
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path scenarioFile = Path.of(args.length > 0 ? args[0] : "loadtest/scenario.jsonl");
+        Path resultsDir = Path.of(args.length > 1 ? args[1] : "build/results/loadtest");
+
+        ObjectMapper mapper = new ObjectMapper();
+        LoadGenerator generator = new LoadGenerator(Scenario.read(scenarioFile, mapper), mapper);
+        generator.prepare();
+        List<EndpointStats> stats = generator.run();
+        generator.report(stats, System.out, resultsDir);
+    }
+
+    /**
+     * Signs up and logs in every user of the scenario and fills the variable pools.
+     */
+    public void prepare() throws IOException, InterruptedException {
+        for (Scenario.Login login : scenario.logins()) {
+            login(login);
+        }
+
+        // Bids are rate limited per user, usernames are unique per run so the scenario can be replayed
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        for (Scenario.Users users : scenario.users()) {
+            for (int i = 0; i < users.count(); i++) {
+                String username = "loadtest-" + run + "-" + i;
+                String body = mapper.writeValueAsString(Map.of("name", username, "username", username, "password", users.password()));
+                HttpResponse<String> response = send(HttpRequest.newBuilder(resolve("/users"))
+                    .header("Content-Type", "application/json")
+                    .POST(BodyPublishers.ofString(body)));
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Sign up of " + username + " failed with " + response.statusCode() + ": " + response.body());
+                }
+                login(new Scenario.Login(username, users.password()));
+            }
+        }
+
+        for (Scenario.Vars vars : scenario.vars()) {
+            HttpResponse<String> response = send(HttpRequest.newBuilder(resolve(vars.from())).GET());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("GET " + vars.from() + " failed with " + response.statusCode());
+            }
+
+            List<String> values = new ArrayList<>();
+            for (JsonNode element : mapper.readTree(response.body())) {
+                if (element.hasNonNull(vars.field())) {
+                    values.add(element.get(vars.field()).asText());
+                }
+            }
+            if (values.isEmpty()) {
+                throw new IllegalStateException("No values for {" + vars.name() + "} in " + vars.from());
+            }
+            pools.put(vars.name(), values);
+        }
+    }
+
+    /**
+     * Sends requests at the scenario rate for the warmup and the duration, returns the stats of the requests
+     * due after the warmup.
+     */
+    public List<EndpointStats> run() throws InterruptedException {
+        List<RequestTemplate> templates = scenario.requests();
+        List<Set<String>> variables = templates.stream().map(RequestTemplate::variables).toList();
+        List<EndpointStats> stats = templates.stream().map(template -> new EndpointStats(template.name())).toList();
+
+        int[] cumulativeWeights = new int[templates.size()];
+        int totalWeight = 0;
+        for (int i = 0; i < templates.size(); i++) {
+            totalWeight += templates.get(i).weight();
+            cumulativeWeights[i] = totalWeight;
+        }
+
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / scenario.ratePerSecond();
+        long start = System.nanoTime();
+        long measureFrom = start + scenario.warmup().toNanos();
+        long end = measureFrom + scenario.duration().toNanos();
+
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long dueAt = start + (long) (i * intervalNanos);
+                if (dueAt >= end) {
+                    break;
+                }
+                waitUntil(dueAt);
+
+                int pick = pick(cumulativeWeights, ThreadLocalRandom.current().nextInt(totalWeight));
+                RequestTemplate template = templates.get(pick);
+                HttpRequest request = build(template, variables.get(pick), i);
+                EndpointStats endpoint = dueAt >= measureFrom ? stats.get(pick) : null;
+
+                requests.submit(() -> execute(request, dueAt, endpoint));
+            }
+            // Closing the executor waits for the requests still in flight
+        }
+        return stats;
+    }
+
+    public void report(List<EndpointStats> stats, PrintStream out, Path resultsDir) throws IOException {
+        double seconds = scenario.duration().toMillis() / 1000.0;
+        out.printf("%nTarget rate %.0f/s for %.0fs, latencies in ms measured from the time each request was due%n%n", scenario.ratePerSecond(), seconds);
+        out.printf("%-24s %8s %8s %8s %9s %9s %9s %9s %9s %12s%n",
+            "endpoint", "count", "errors", "rate/s", "p50", "p90", "p99", "p99.9", "max", "service p99");
+
+        Files.createDirectories(resultsDir);
+        for (EndpointStats endpoint : stats) {
+            Histogram latency = endpoint.getResponseTime();
+            out.printf("%-24s %8d %8d %8.1f %9.2f %9.2f %9.2f %9.2f %9.2f %12.2f%n",
+                endpoint.getName(),
+                latency.getTotalCount(),
+                endpoint.getErrors(),
+                latency.getTotalCount() / seconds,
+                millis(latency.getValueAtPercentile(50)),
+                millis(latency.getValueAtPercentile(90)),
+                millis(latency.getValueAtPercentile(99)),
+                millis(latency.getValueAtPercentile(99.9)),
+                millis(latency.getMaxValue()),
+                millis(endpoint.getServiceTime().getValueAtPercentile(99)));
+
+            // Full distribution, plot it with the HdrHistogram plotter to compare runs
+            Path file = resultsDir.resolve(endpoint.getName().replaceAll("[^A-Za-z0-9]+", "-") + ".hgrm");
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(file))) {
+                latency.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+
+        out.printf("%nStatus codes (%d = no response)%n", EndpointStats.FAILED);
+        for (EndpointStats endpoint : stats) {
+            out.printf("%-24s %s%n", endpoint.getName(), endpoint.getStatuses());
+        }
+        out.printf("%nPercentile distributions written to %s%n", resultsDir.toAbsolutePath());
+    }
+
+    private HttpRequest build(RequestTemplate template, Set<String> names, long sequence) {
+        Map<String, String> values = new HashMap<>();
+        for (String name : names) {
+            values.put(name, value(name));
+        }
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(resolve(template.renderPath(values)))
+            .timeout(scenario.timeout());
+        String body = template.renderBody(values);
+        if (body != null) {
+            builder.header("Content-Type", "application/json");
+        }
+        if (!sessions.isEmpty()) {
+            builder.header(SESSION_HEADER, sessions.get((int) (sequence % sessions.size())));
+        }
+        return builder
+            .method(template.method(), body != null ? BodyPublishers.ofString(body) : BodyPublishers.noBody())
+            .build();
+    }
+
+    private String value(String name) {
+        if (name.equals("price")) {
+            return Long.toString(price.getAndIncrement());
+        }
+
+        List<String> pool = pools.get(name);
+        if (pool == null) {
+            throw new IllegalStateException("No vars line for {" + name + "}");
+        }
+        return pool.get(ThreadLocalRandom.current().nextInt(pool.size()));
+    }
+
+    private void execute(HttpRequest request, long dueAt, EndpointStats endpoint) {
+        long sentAt = System.nanoTime();
+        int status;
+        try {
+            status = client.send(request, BodyHandlers.discarding()).statusCode();
+        } catch (IOException ex) {
+            status = EndpointStats.FAILED;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        if (endpoint != null) {
+            endpoint.record(dueAt, sentAt, System.nanoTime(), status);
+        }
+    }
+
+    private void login(Scenario.Login login) throws IOException, InterruptedException {
+        String body = mapper.writeValueAsString(Map.of("username", login.username(), "password", login.password()));
+        HttpResponse<String> response = send(HttpRequest.newBuilder(resolve("/session/login"))
+            .header("Content-Type", "application/json")
+            .POST(BodyPublishers.ofString(body)));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login of " + login.username() + " failed with " + response.statusCode() + ": " + response.body());
+        }
+        sessions.add(mapper.readTree(response.body()).path("sessionId").asText());
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.timeout(scenario.timeout()).build(), BodyHandlers.ofString());
+    }
+
+    private URI resolve(String path) {
+        return scenario.baseUrl().resolve(path);
+    }
+
+    private static int pick(int[] cumulativeWeights, int roll) {
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return i;
+            }
+        }
+        return cumulativeWeights.length - 1;
+    }
+
+    private static void waitUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,67 @@
+package ro.unibuc.hello.loadtest;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One kind of request of a scenario. The body is JSON text, a placeholder that is a whole JSON string, like
+ * "{price}", becomes a number when its value is one.
+ */
+public record RequestTemplate(String name, String method, String path, String body, int weight) {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{(\\w+)\\}");
+    private static final Pattern NUMBER = Pattern.compile("-?\\d+(\\.\\d+)?");
+
+    public RequestTemplate {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Weight of " + name + " must be positive");
+        }
+    }
+
+    /**
+     * Names of the placeholders in the path and body.
+     */
+    public Set<String> variables() {
+        Set<String> names = new LinkedHashSet<>();
+        collect(path, names);
+        collect(body, names);
+        return names;
+    }
+
+    public String renderPath(Map<String, String> values) {
+        String rendered = path;
+        for (Map.Entry<String, String> value : values.entrySet()) {
+            rendered = rendered.replace("{" + value.getKey() + "}", value.getValue());
+        }
+        return rendered;
+    }
+
+    public String renderBody(Map<String, String> values) {
+        if (body == null) {
+            return null;
+        }
+
+        String rendered = body;
+        for (Map.Entry<String, String> value : values.entrySet()) {
+            String placeholder = "{" + value.getKey() + "}";
+            if (NUMBER.matcher(value.getValue()).matches()) {
+                rendered = rendered.replace("\"" + placeholder + "\"", value.getValue());
+            }
+            rendered = rendered.replace(placeholder, value.getValue());
+        }
+        return rendered;
+    }
+
+    private static void collect(String text, Set<String> names) {
+        if (text == null) {
+            return;
+        }
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        while (matcher.find()) {
+            names.add(matcher.group(1));
+        }
+    }
+}
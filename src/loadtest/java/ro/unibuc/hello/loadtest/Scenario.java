@@ -0,0 +1,97 @@
+package ro.unibuc.hello.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A load test read from a JSONL file. Every line is an object whose "type" is one of:
+ * <ul>
+ * <li>config: baseUrl, ratePerSecond, warmupSeconds, durationSeconds, timeoutMs and startPrice</li>
+ * <li>login: username and password of a user whose session is sent with the requests</li>
+ * <li>users: count users signed up for this run with the given password, whose sessions are sent with the
+ * requests like those of login lines</li>
+ * <li>vars: a named pool of values read from the "field" of every element of a JSON array endpoint</li>
+ * <li>request: a weighted request template, "{name}" in its path or body is replaced by a value of the pool
+ * with that name, or by a price that grows with every bid for "{price}"</li>
+ * </ul>
+ */
+public record Scenario(
+    URI baseUrl,
+    double ratePerSecond,
+    Duration warmup,
+    Duration duration,
+    Duration timeout,
+    long startPrice,
+    List<Login> logins,
+    List<Users> users,
+    List<Vars> vars,
+    List<RequestTemplate> requests) {
+
+    public record Login(String username, String password) {}
+
+    public record Users(int count, String password) {}
+
+    public record Vars(String name, String from, String field) {}
+
+    public static Scenario read(Path file, ObjectMapper mapper) throws IOException {
+        JsonNode config = mapper.createObjectNode();
+        List<Login> logins = new ArrayList<>();
+        List<Users> users = new ArrayList<>();
+        List<Vars> vars = new ArrayList<>();
+        List<RequestTemplate> requests = new ArrayList<>();
+
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(file)) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            JsonNode node = mapper.readTree(line);
+            switch (node.path("type").asText()) {
+                case "config" -> config = node;
+                case "login" -> logins.add(new Login(required(node, "username"), required(node, "password")));
+                case "users" -> users.add(new Users(Integer.parseInt(required(node, "count")), required(node, "password")));
+                case "vars" -> vars.add(new Vars(required(node, "name"), required(node, "from"), required(node, "field")));
+                case "request" -> requests.add(new RequestTemplate(
+                    required(node, "name"),
+                    node.path("method").asText("GET"),
+                    required(node, "path"),
+                    node.has("body") ? mapper.writeValueAsString(node.get("body")) : null,
+                    node.path("weight").asInt(1)));
+                default -> throw new IllegalArgumentException(file + ":" + lineNumber + ": unknown line type " + node.path("type"));
+            }
+        }
+
+        if (requests.isEmpty()) {
+            throw new IllegalArgumentException(file + " has no request lines");
+        }
+
+        return new Scenario(
+            URI.create(config.path("baseUrl").asText("http://localhost:8080")),
+            config.path("ratePerSecond").asDouble(100),
+            Duration.ofSeconds(config.path("warmupSeconds").asLong(10)),
+            Duration.ofSeconds(config.path("durationSeconds").asLong(60)),
+            Duration.ofMillis(config.path("timeoutMs").asLong(5000)),
+            config.path("startPrice").asLong(1),
+            logins,
+            users,
+            vars,
+            requests);
+    }
+
+    private static String required(JsonNode node, String field) {
+        if (!node.hasNonNull(field)) {
+            throw new IllegalArgumentException("Missing \"" + field + "\" in " + node);
+        }
+        return node.get(field).asText();
+    }
+}
@@ -14,6 +14,7 @@ import ro.unibuc.hello.data.BidEntity;
 import ro.unibuc.hello.data.BidRepository;
 import ro.unibuc.hello.data.ItemEntity;
 import ro.unibuc.hello.data.ItemRepository;
+import ro.unibuc.hello.data.MaxBidRepository;
 import ro.unibuc.hello.data.UserEntity;
 import ro.unibuc.hello.data.UserRepository;
 
@@ -40,6 +41,9 @@ public class AuctionsApplication {
     @Autowired
     private BidRepository bidRepository;
 
+    @Autowired
+    private MaxBidRepository maxBidRepository;
+
     public static void main(String[] args) {
         SpringApplication.run(AuctionsApplication.class, args);
     }
@@ -65,9 +69,14 @@ public class AuctionsApplication {
         auction1 = auctionRepository.save(auction1);
 
         bidRepository.deleteAll();
+        maxBidRepository.deleteAll();
         BidEntity bid1 = new BidEntity("67d81d8a22dff66530467a49", 1000, user, auction1);
         bid1 = bidRepository.save(bid1);
 
+        auction1.setHighestBidId(bid1.getId());
+        auction1.setHighestBidPrice(bid1.getPrice());
+        auction1.setHighestBidder(user);
+        auction1.setBidCount(1);
         auction1 = auctionRepository.save(auction1);
 
         // userRepository.deleteAll();
@@ -8,7 +8,6 @@ import org.springframework.web.servlet.HandlerInterceptor;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import ro.unibuc.hello.data.SessionEntity;
 import ro.unibuc.hello.exception.InvalidSessionException;
 import ro.unibuc.hello.service.SessionsService;
 
@@ -40,8 +39,7 @@ public class AuthInterceptor implements HandlerInterceptor {
             throw new InvalidSessionException("Missing session id");
         }
 
-        SessionEntity session = sessionService.getValidSession(sessionId);
-        request.setAttribute("authenticatedUserId", session.getUser().getId());
+        request.setAttribute("authenticatedUserId", sessionService.authenticate(sessionId));
         return true;
     }
 }
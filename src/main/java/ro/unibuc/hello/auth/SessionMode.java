@@ -0,0 +1,11 @@
+package ro.unibuc.hello.auth;
+
+/**
+ * How sessions handed out by {@code /session/login} are validated, see {@code auth.session.mode}.
+ */
+public enum SessionMode {
+    // Random session ids stored in Mongo
+    DATABASE,
+    // Self-contained signed tokens, validated without any I/O
+    TOKEN
+}
@@ -0,0 +1,140 @@
+package ro.unibuc.hello.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import ro.unibuc.hello.exception.InvalidSessionException;
+
+/**
+ * Stateless session tokens: {@code base64url(userId:expiresAt:tokenId).base64url(HMAC-SHA256)}.
+ *
+ * Checking a token only costs a MAC computation. Logged out tokens are remembered in a revocation list until
+ * they expire; the list lives in this process, so with several replicas a logout only applies to the node
+ * that served it.
+ */
+@Component
+public class SessionTokens {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    @Value("${auth.token.secret:}")
+    private String secret;
+
+    @Value("${auth.session.mode:database}")
+    private SessionMode sessionMode = SessionMode.DATABASE;
+
+    private SecretKeySpec key;
+
+    // Token id -> expiry in epoch seconds
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void start() {
+        if (sessionMode != SessionMode.TOKEN) {
+            return;
+        }
+        // A random key per process would reject every token issued by another replica or before a restart
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("auth.token.secret must be set when auth.session.mode is token");
+        }
+        key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    public String issue(String userId, Instant expiresAt) {
+        String payload = userId + ":" + expiresAt.getEpochSecond() + ":" + UUID.randomUUID();
+        return encode(payload.getBytes(StandardCharsets.UTF_8)) + "." + encode(sign(payload));
+    }
+
+    /**
+     * Returns the id of the token's user, or throws if the token is forged, expired or revoked.
+     */
+    public String verify(String token) {
+        Claims claims = parse(token);
+        if (claims.expiresAt() < Instant.now().getEpochSecond()) {
+            throw new InvalidSessionException("Expired session");
+        }
+        if (revoked.containsKey(claims.tokenId())) {
+            throw new InvalidSessionException("Invalid session");
+        }
+        return claims.userId();
+    }
+
+    /**
+     * Revokes a valid token, returns false if the token was not valid to begin with.
+     */
+    public boolean revoke(String token) {
+        try {
+            verify(token);
+        } catch (InvalidSessionException ex) {
+            return false;
+        }
+        Claims claims = parse(token);
+        revoked.put(claims.tokenId(), claims.expiresAt());
+        return true;
+    }
+
+    // Expired tokens are rejected anyway, no need to remember them
+    @Scheduled(fixedRate = 60000)
+    public void purgeRevoked() {
+        long now = Instant.now().getEpochSecond();
+        revoked.values().removeIf(expiresAt -> expiresAt < now);
+    }
+
+    private Claims parse(String token) {
+        int dot = token.indexOf('.');
+        if (dot < 0) {
+            throw new InvalidSessionException("Invalid session");
+        }
+
+        String payload;
+        byte[] signature;
+        try {
+            payload = new String(Base64.getUrlDecoder().decode(token.substring(0, dot)), StandardCharsets.UTF_8);
+            signature = Base64.getUrlDecoder().decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidSessionException("Invalid session");
+        }
+
+        if (!MessageDigest.isEqual(sign(payload), signature)) {
+            throw new InvalidSessionException("Invalid session");
+        }
+
+        String[] parts = payload.split(":");
+        if (parts.length != 3) {
+            throw new InvalidSessionException("Invalid session");
+        }
+        return new Claims(parts[0], Long.parseLong(parts[1]), parts[2]);
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            // Mac instances are not thread safe, creating one is cheap next to a database round trip
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException | InvalidKeyException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private record Claims(String userId, long expiresAt, String tokenId) {}
+}
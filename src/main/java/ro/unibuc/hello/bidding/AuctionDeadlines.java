@@ -0,0 +1,194 @@
+package ro.unibuc.hello.bidding;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import ro.unibuc.hello.data.CursorReadRepository;
+
+/**
+ * Closes auctions when their end time comes.
+ *
+ * End times are kept in a {@link TimingWheel} filled from the open auctions once the application is up and
+ * added to as auctions are created, so nothing polls the database. A ticker thread advances the wheel and hands
+ * the due auctions to a bounded pool of settlement workers running the handler set with {@link #onDeadline}.
+ * When the workers fall behind the ticker settles the auction itself, which slows the wheel down instead of
+ * dropping closes.
+ *
+ * Only the node that creates an auction schedules it; other nodes learn about it when they start. If that node
+ * goes down first, a periodic catch-up scan still settles the auction: it picks up the open auctions whose end
+ * time passed more than {@code auctions.deadlines.catch-up-ms} ago. Settling must be safe to run more than once.
+ */
+@Component
+public class AuctionDeadlines {
+
+    private static final Logger log = LoggerFactory.getLogger(AuctionDeadlines.class);
+
+    @Autowired
+    private CursorReadRepository cursorReadRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auctions.deadlines.tick-ms:100}")
+    private long tickMs;
+
+    @Value("${auctions.deadlines.wheel-size:512}")
+    private int wheelSize;
+
+    @Value("${auctions.deadlines.settlement-threads:4}")
+    private int settlementThreads;
+
+    @Value("${auctions.deadlines.settlement-queue:10000}")
+    private int settlementQueue;
+
+    @Value("${auctions.deadlines.retry-delay-ms:5000}")
+    private long retryDelayMs;
+
+    @Value("${auctions.deadlines.catch-up-ms:60000}")
+    private long catchUpMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicInteger pending = new AtomicInteger();
+    private TimingWheel<String> wheel;
+    private ScheduledExecutorService ticker;
+    private ThreadPoolExecutor settlement;
+    private volatile Consumer<String> handler = auctionId -> { };
+
+    @PostConstruct
+    public void start() {
+        wheel = new TimingWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+        settlement = new ThreadPoolExecutor(settlementThreads, settlementThreads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(settlementQueue),
+            Thread.ofPlatform().name("auction-settlement-", 0).daemon(true).factory(),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        ticker = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("auction-deadlines").daemon(true).factory());
+        ticker.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("auctions.deadlines.pending", pending, AtomicInteger::get)
+            .description("Auctions waiting for their end time")
+            .register(meterRegistry);
+        Gauge.builder("auctions.deadlines.settlement.queue", settlement, executor -> executor.getQueue().size())
+            .description("Ended auctions waiting to be settled")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+        settlement.shutdown();
+    }
+
+    /**
+     * Sets what runs for an auction whose end time has come.
+     */
+    public void onDeadline(Consumer<String> handler) {
+        this.handler = handler;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOpenAuctions() {
+        int loaded = 0;
+        try (Stream<Document> deadlines = cursorReadRepository.streamOpenAuctionDeadlines()) {
+            for (Document deadline : (Iterable<Document>) deadlines::iterator) {
+                schedule(deadline.get("_id").toString(), deadline.getDate("endsAt").toInstant());
+                loaded++;
+            }
+        }
+        log.info("Scheduled the end of {} open auctions", loaded);
+    }
+
+    /**
+     * Settles the open auctions whose end time passed more than one catch-up interval ago. These should have
+     * been closed by now, most likely by a node that went down before their end time.
+     */
+    @Scheduled(fixedDelayString = "${auctions.deadlines.catch-up-ms:60000}", initialDelayString = "${auctions.deadlines.catch-up-ms:60000}")
+    public void catchUp() {
+        int overdue = 0;
+        try (Stream<Document> auctions = cursorReadRepository.streamOverdueAuctions(Date.from(Instant.now().minusMillis(catchUpMs)))) {
+            for (Document auction : (Iterable<Document>) auctions::iterator) {
+                settle(auction.get("_id").toString());
+                overdue++;
+            }
+        }
+        if (overdue > 0) {
+            log.info("Caught up with the end of {} overdue auctions", overdue);
+        }
+    }
+
+    /**
+     * Schedules the auction to be settled at {@code endsAt}, right away if that has already passed.
+     */
+    public void schedule(String auctionId, Instant endsAt) {
+        boolean scheduled;
+        lock.lock();
+        try {
+            scheduled = wheel.add(auctionId, endsAt.toEpochMilli());
+        } finally {
+            lock.unlock();
+        }
+
+        if (scheduled) {
+            pending.incrementAndGet();
+        } else {
+            settle(auctionId);
+        }
+    }
+
+    /**
+     * Runs the handler for the auction again after a delay, for an auction whose handling failed.
+     */
+    public void retry(String auctionId) {
+        schedule(auctionId, Instant.now().plusMillis(retryDelayMs));
+    }
+
+    // Runs on the ticker thread
+    void tick() {
+        List<String> due = new ArrayList<>();
+        lock.lock();
+        try {
+            wheel.advance(System.currentTimeMillis(), due::add);
+        } finally {
+            lock.unlock();
+        }
+
+        pending.addAndGet(-due.size());
+        due.forEach(this::settle);
+    }
+
+    private void settle(String auctionId) {
+        settlement.execute(() -> {
+            try {
+                handler.accept(auctionId);
+            } catch (RuntimeException ex) {
+                log.warn("Failed to settle auction {}, retrying", auctionId, ex);
+                retry(auctionId);
+            }
+        });
+    }
+}
@@ -0,0 +1,134 @@
+package ro.unibuc.hello.bidding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Striped locks keyed by auction id, held while an auction is closed and settled so this node never closes or
+ * settles the same auction twice at once. Bids don't take them: the {@link BiddingEngine} already serializes
+ * them per auction and the conditional update in the database turns down a bid that was overtaken on its way
+ * there.
+ *
+ * The auction id picks one of a fixed number of locks, nothing is allocated per auction. Two auctions may share
+ * a stripe, which only costs them a little waiting. Contended acquisitions are counted and timed, and the
+ * stripes that waited most in the last interval are published as {@code bidding.locks.hot} and logged with the
+ * last auction that waited on them.
+ */
+@Component
+public class AuctionLocks {
+
+    private static final Logger log = LoggerFactory.getLogger(AuctionLocks.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Rounded up to a power of two
+    @Value("${bidding.locks.stripes:1024}")
+    private int stripeCount;
+
+    @Value("${bidding.locks.hot-stripes:10}")
+    private int hotStripes;
+
+    private ReentrantLock[] stripes;
+    private int mask;
+
+    // Contended acquisitions per stripe since the last publish, and the last auction that waited on it
+    private AtomicLongArray contention;
+    private AtomicReferenceArray<String> lastContended;
+
+    private Counter contended;
+    private Timer waitTime;
+    private MultiGauge hot;
+
+    @PostConstruct
+    public void start() {
+        int count = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        mask = count - 1;
+        contention = new AtomicLongArray(count);
+        lastContended = new AtomicReferenceArray<>(count);
+
+        contended = Counter.builder("bidding.locks.contended")
+            .description("Auction lock acquisitions that had to wait")
+            .register(meterRegistry);
+        waitTime = Timer.builder("bidding.locks.wait")
+            .description("Time spent waiting for a contended auction lock")
+            .register(meterRegistry);
+        hot = MultiGauge.builder("bidding.locks.hot")
+            .description("Contended lock acquisitions of the most contended stripes in the last interval")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Runs the action holding the auction's lock. The lock is reentrant.
+     */
+    public <T> T withLock(String auctionId, Supplier<T> action) {
+        int stripe = stripeOf(auctionId);
+        ReentrantLock lock = stripes[stripe];
+        if (!lock.tryLock()) {
+            contended.increment();
+            contention.incrementAndGet(stripe);
+            lastContended.lazySet(stripe, auctionId);
+            long start = System.nanoTime();
+            lock.lock();
+            waitTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the hot stripes gauge with the most contended stripes since the last call and starts counting
+     * again. The gauge is tagged by stripe, the auction ids only go to the log.
+     */
+    @Scheduled(fixedRateString = "${bidding.locks.hot-interval-ms:10000}")
+    public void publishHotStripes() {
+        List<long[]> counts = new ArrayList<>();
+        for (int stripe = 0; stripe < stripes.length; stripe++) {
+            long count = contention.getAndSet(stripe, 0);
+            if (count > 0) {
+                counts.add(new long[] {stripe, count});
+            }
+        }
+        counts.sort((a, b) -> Long.compare(b[1], a[1]));
+
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        for (long[] entry : counts.subList(0, Math.min(hotStripes, counts.size()))) {
+            int stripe = (int) entry[0];
+            rows.add(MultiGauge.Row.of(Tags.of("stripe", Integer.toString(stripe)), entry[1]));
+            log.info("Auction lock stripe {} waited {} times, last for auction {}", stripe, entry[1], lastContended.get(stripe));
+        }
+        hot.register(rows, true);
+    }
+
+    private int stripeOf(String auctionId) {
+        int hash = auctionId.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,180 @@
+package ro.unibuc.hello.bidding;
+
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import ro.unibuc.hello.data.AuctionEntity;
+import ro.unibuc.hello.data.BidEntity;
+import ro.unibuc.hello.data.MaxBidEntity;
+
+/**
+ * In-memory state of an auction, only ever touched by the shard thread that owns the auction.
+ */
+final class AuctionState {
+
+    private static final AuctionState MISSING = new AuctionState(false, false, 0, null, null, null, null);
+
+    private final boolean exists;
+    private boolean open;
+    private final int startPrice;
+    private final String auctioneerId;
+    // Epoch millis after which no bid is accepted, null when the auction has no end time
+    private final Long endsAt;
+    private Integer highestPrice;
+    private String highestBidderId;
+
+    // Max bids, highest ceiling first and the earliest of equal ceilings before the later ones
+    private final TreeSet<Proxy> proxies = new TreeSet<>(
+        Comparator.comparingInt(Proxy::maxPrice).reversed().thenComparingLong(Proxy::seq));
+    private final Map<String, Proxy> proxiesByBidder = new HashMap<>();
+    private long nextSeq;
+
+    private AuctionState(boolean exists, boolean open, int startPrice, String auctioneerId, Long endsAt,
+                         Integer highestPrice, String highestBidderId) {
+        this.exists = exists;
+        this.open = open;
+        this.startPrice = startPrice;
+        this.auctioneerId = auctioneerId;
+        this.endsAt = endsAt;
+        this.highestPrice = highestPrice;
+        this.highestBidderId = highestBidderId;
+    }
+
+    static AuctionState missing() {
+        return MISSING;
+    }
+
+    // A deleted auctioneer or highest bidder resolves to null, the auction still takes bids
+    static AuctionState of(AuctionEntity entity, BidEntity highestBid, List<MaxBidEntity> maxBids) {
+        AuctionState state = new AuctionState(
+            true,
+            entity.isOpen(),
+            entity.getStartPrice(),
+            entity.getAuctioneer() != null ? entity.getAuctioneer().getId() : null,
+            entity.getEndsAt() != null ? entity.getEndsAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : null,
+            highestBid != null ? highestBid.getPrice() : null,
+            highestBid != null && highestBid.getBidder() != null ? highestBid.getBidder().getId() : null
+        );
+        maxBids.stream()
+            .sorted(Comparator.comparing(MaxBidEntity::getPlacedAt, Comparator.nullsFirst(Comparator.naturalOrder())))
+            .forEach(maxBid -> state.setMaxBid(maxBid.getBidderId(), maxBid.getMaxPrice()));
+        return state;
+    }
+
+    BidOutcome check(String bidderId, int price) {
+        if (!exists) {
+            return BidOutcome.AUCTION_NOT_FOUND;
+        }
+        if (!acceptsBids()) {
+            return BidOutcome.AUCTION_CLOSED;
+        }
+        if (bidderId.equals(auctioneerId)) {
+            return BidOutcome.OWN_AUCTION;
+        }
+        if (highestPrice == null) {
+            return price < startPrice ? BidOutcome.BELOW_START_PRICE : BidOutcome.ACCEPTED;
+        }
+        return price <= highestPrice ? BidOutcome.NOT_HIGHER : BidOutcome.ACCEPTED;
+    }
+
+    void acceptBid(String bidderId, int price) {
+        highestPrice = price;
+        highestBidderId = bidderId;
+    }
+
+    // A max bid must also beat the bidder's own previous one
+    BidOutcome checkMaxBid(String bidderId, int maxPrice) {
+        BidOutcome outcome = check(bidderId, maxPrice);
+        Proxy current = proxiesByBidder.get(bidderId);
+        if (outcome == BidOutcome.ACCEPTED && current != null && maxPrice <= current.maxPrice()) {
+            return BidOutcome.NOT_HIGHER;
+        }
+        return outcome;
+    }
+
+    void setMaxBid(String bidderId, int maxPrice) {
+        Proxy previous = proxiesByBidder.remove(bidderId);
+        if (previous != null) {
+            proxies.remove(previous);
+        }
+        Proxy proxy = new Proxy(bidderId, maxPrice, nextSeq++);
+        proxies.add(proxy);
+        proxiesByBidder.put(bidderId, proxy);
+    }
+
+    /**
+     * Lets the max bids compete and makes the winner the highest bidder at the lowest price that beats everyone
+     * else: one step above the runner-up, capped at its own ceiling. Returns that bid, or null when the
+     * current highest bid stands.
+     */
+    ProxyBid resolveProxies() {
+        if (!exists || !acceptsBids() || proxies.isEmpty()) {
+            return null;
+        }
+
+        Proxy top = proxies.first();
+        Proxy runnerUp = proxies.higher(top);
+        boolean leading = top.bidderId().equals(highestBidderId);
+
+        // The best offer from anyone else: the next ceiling, or the visible bid if someone else holds it
+        Integer competing = runnerUp != null ? runnerUp.maxPrice() : null;
+        if (!leading && highestPrice != null) {
+            competing = competing != null ? Math.max(competing, highestPrice) : highestPrice;
+        }
+
+        int price;
+        if (leading) {
+            if (competing == null || competing <= highestPrice) {
+                return null;
+            }
+            price = Math.min(top.maxPrice(), competing + 1);
+        } else {
+            int minimum = highestPrice != null ? highestPrice + 1 : startPrice;
+            if (top.maxPrice() < minimum) {
+                return null;
+            }
+            price = competing != null ? Math.max(minimum, Math.min(top.maxPrice(), competing + 1)) : minimum;
+        }
+
+        acceptBid(top.bidderId(), price);
+        return new ProxyBid(top.bidderId(), price);
+    }
+
+    CloseOutcome close() {
+        if (!exists) {
+            return CloseOutcome.AUCTION_NOT_FOUND;
+        }
+        if (!open) {
+            return CloseOutcome.ALREADY_CLOSED;
+        }
+        if (highestPrice == null) {
+            return CloseOutcome.NO_BIDS;
+        }
+        open = false;
+        return CloseOutcome.CLOSED;
+    }
+
+    // Past its end time the auction only waits to be settled
+    private boolean acceptsBids() {
+        return open && (endsAt == null || System.currentTimeMillis() < endsAt);
+    }
+
+    boolean isOpen() {
+        return open;
+    }
+
+    Integer getHighestPrice() {
+        return highestPrice;
+    }
+
+    String getHighestBidderId() {
+        return highestBidderId;
+    }
+
+    private record Proxy(String bidderId, int maxPrice, long seq) {
+    }
+}
@@ -0,0 +1,10 @@
+package ro.unibuc.hello.bidding;
+
+public enum BidOutcome {
+    ACCEPTED,
+    AUCTION_NOT_FOUND,
+    AUCTION_CLOSED,
+    OWN_AUCTION,
+    BELOW_START_PRICE,
+    NOT_HIGHER
+}
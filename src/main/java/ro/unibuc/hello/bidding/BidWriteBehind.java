@@ -0,0 +1,212 @@
+package ro.unibuc.hello.bidding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.bulk.BulkWriteError;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import ro.unibuc.hello.data.BidEntity;
+
+/**
+ * Group commit for accepted bids.
+ *
+ * Callers hand their bid to a single writer thread that gathers bids for up to a few milliseconds (or until the
+ * batch is full) and stores the whole batch with one unordered bulk insert. Each caller blocks until the batch
+ * holding its bid is acknowledged, so a successful return still means the bid is durable.
+ *
+ * A caller waits at most {@code bidding.write-behind.timeout-ms} for room in the queue and again for the write.
+ * A timed out bid may never be written, or only afterwards; the caller puts back the auction's previous highest
+ * bid and evicts the auction from the bidding engine, which then reloads it from what was actually stored.
+ */
+@Component
+public class BidWriteBehind {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${bidding.write-behind.window-ms:5}")
+    private long windowMs;
+
+    @Value("${bidding.write-behind.max-batch:256}")
+    private int maxBatch;
+
+    @Value("${bidding.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${bidding.write-behind.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private BlockingQueue<PendingBid> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    private DistributionSummary batchSize;
+    private Timer flushLatency;
+
+    @PostConstruct
+    public void start() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("bidding.writebehind.queue.depth", queue, BlockingQueue::size)
+            .description("Accepted bids waiting to be written")
+            .register(meterRegistry);
+        batchSize = DistributionSummary.builder("bidding.writebehind.batch.size")
+            .description("Bids written per bulk insert")
+            .register(meterRegistry);
+        flushLatency = Timer.builder("bidding.writebehind.flush")
+            .description("Time to write one batch of bids")
+            .register(meterRegistry);
+
+        running = true;
+        writer = Thread.ofPlatform().name("bid-write-behind").daemon(true).start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(timeoutMs);
+        failPending();
+    }
+
+    /**
+     * Queues the bid for the next batch and waits until that batch is written.
+     */
+    public BidEntity insert(BidEntity bid) {
+        if (!running) {
+            throw new IllegalStateException("Bid writer stopped");
+        }
+
+        PendingBid pending = new PendingBid(bid);
+        try {
+            if (!queue.offer(pending, timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Too many bids waiting to be written");
+            }
+            // Stopped while queueing, the writer's last drain may already have run
+            if (!running && queue.remove(pending)) {
+                throw new IllegalStateException("Bid writer stopped");
+            }
+            return pending.result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new IllegalStateException("Timed out waiting for bid to be written", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for bid to be written", ex);
+        }
+    }
+
+    private void run() {
+        List<PendingBid> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                collect(batch);
+            } catch (InterruptedException ex) {
+                break;
+            }
+            flush(batch);
+            batch.clear();
+        }
+
+        batch.forEach(pending -> pending.result.completeExceptionally(new IllegalStateException("Bid writer stopped")));
+        failPending();
+    }
+
+    // Fails whatever is left so no caller waits for a writer that is gone
+    private void failPending() {
+        List<PendingBid> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.forEach(pending -> pending.result.completeExceptionally(new IllegalStateException("Bid writer stopped")));
+    }
+
+    // Fills the batch until it is full or the batch window has passed
+    private void collect(List<PendingBid> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMs);
+        while (batch.size() < maxBatch) {
+            if (queue.drainTo(batch, maxBatch - batch.size()) > 0) {
+                continue;
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+
+            PendingBid next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingBid> batch) {
+        List<BidEntity> bids = batch.stream().map(pending -> pending.bid).toList();
+        boolean[] failed = new boolean[batch.size()];
+        RuntimeException error = null;
+
+        long start = System.nanoTime();
+        try {
+            mongoTemplate.bulkOps(BulkMode.UNORDERED, BidEntity.class)
+                .insert(bids)
+                .execute();
+        } catch (BulkOperationException ex) {
+            // Unordered: only the reported bids failed, the others were written
+            error = ex;
+            for (BulkWriteError writeError : ex.getErrors()) {
+                failed[writeError.getIndex()] = true;
+            }
+        } catch (RuntimeException ex) {
+            error = ex;
+            Arrays.fill(failed, true);
+        }
+        flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSize.record(batch.size());
+
+        for (int i = 0; i < batch.size(); i++) {
+            PendingBid pending = batch.get(i);
+            if (failed[i]) {
+                pending.result.completeExceptionally(error);
+            } else {
+                pending.result.complete(pending.bid);
+            }
+        }
+    }
+
+    private static final class PendingBid {
+        private final BidEntity bid;
+        private final CompletableFuture<BidEntity> result = new CompletableFuture<>();
+
+        private PendingBid(BidEntity bid) {
+            this.bid = bid;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package ro.unibuc.hello.bidding;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import ro.unibuc.hello.data.AuctionEntity;
+import ro.unibuc.hello.data.AuctionRepository;
+import ro.unibuc.hello.data.BidEntity;
+import ro.unibuc.hello.data.BidRepository;
+import ro.unibuc.hello.data.MaxBidRepository;
+
+/**
+ * Decides bids and closes in memory before anything is written to the database.
+ *
+ * Every auction id is hashed to one of N single-threaded shards. The shard thread is the only writer of the
+ * auction's state, so bids on the same auction are serialized without locks while bids on different auctions
+ * run in parallel. Only open auctions are kept in memory, and only as many as
+ * {@code bidding.state-cache.max-size}: the least recently used ones and those idle for
+ * {@code bidding.state-cache.idle-ms} are dropped and reloaded from the database on their next request.
+ *
+ * The database stays the source of truth: callers persist accepted decisions with conditional updates and
+ * {@link #evict(String)} the auction when the database disagrees, so the next request reloads it.
+ *
+ * Max bids live in the same state. Competing ceilings are resolved on the shard in one step, so a bidding war
+ * between proxies ends in a single visible bid instead of one request and one insert per step.
+ */
+@Component
+public class BiddingEngine {
+
+    // Returned from the shard when the auction's state has to be loaded first
+    private static final Object RELOAD = new Object();
+
+    @Autowired
+    private AuctionRepository auctionRepository;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private MaxBidRepository maxBidRepository;
+
+    // 0 means one shard per available core
+    @Value("${bidding.shards:0}")
+    private int shardCount;
+
+    @Value("${bidding.state-cache.max-size:100000}")
+    private long maxAuctions = 100000;
+
+    @Value("${bidding.state-cache.idle-ms:600000}")
+    private long idleMs = 600000;
+
+    private Cache<String, AuctionState> auctions;
+    private ExecutorService[] shards;
+
+    @PostConstruct
+    public void start() {
+        auctions = Caffeine.newBuilder()
+            .maximumSize(maxAuctions)
+            .expireAfterAccess(Duration.ofMillis(idleMs))
+            .build();
+
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        shards = new ExecutorService[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = Executors.newSingleThreadExecutor(
+                Thread.ofPlatform().name("bidding-shard-" + i).daemon(true).factory());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (ExecutorService shard : shards) {
+            shard.shutdown();
+        }
+    }
+
+    /**
+     * Checks the bid against the in-memory state and, if it wins, makes it the highest bid.
+     */
+    public BidOutcome placeBid(String auctionId, String bidderId, int price) {
+        return withState(auctionId, state -> {
+            BidOutcome outcome = state.check(bidderId, price);
+            if (outcome == BidOutcome.ACCEPTED) {
+                state.acceptBid(bidderId, price);
+            }
+            return outcome;
+        });
+    }
+
+    /**
+     * Checks the bid against the in-memory state without changing it.
+     */
+    public BidOutcome checkBid(String auctionId, String bidderId, int price) {
+        return withState(auctionId, state -> state.check(bidderId, price));
+    }
+
+    /**
+     * Registers the bidder's max bid, {@link #resolveProxies(String)} then lets it compete.
+     */
+    public MaxBidOutcome placeMaxBid(String auctionId, String bidderId, int maxPrice) {
+        return withState(auctionId, state -> {
+            BidOutcome outcome = state.checkMaxBid(bidderId, maxPrice);
+            if (outcome != BidOutcome.ACCEPTED) {
+                return MaxBidOutcome.rejected(outcome);
+            }
+            state.setMaxBid(bidderId, maxPrice);
+            return new MaxBidOutcome(outcome, state.getHighestBidderId(), state.getHighestPrice());
+        });
+    }
+
+    /**
+     * Lets the max bids compete with each other and the current highest bid. Returns the bid placed for the
+     * winning max bid, or null if the highest bid stands.
+     */
+    public ProxyBid resolveProxies(String auctionId) {
+        return withState(auctionId, AuctionState::resolveProxies);
+    }
+
+    /**
+     * Marks the auction as closed if it is open and has at least one bid, and drops it from memory.
+     */
+    public CloseOutcome close(String auctionId) {
+        return withState(auctionId, state -> {
+            CloseOutcome outcome = state.close();
+            if (outcome == CloseOutcome.CLOSED) {
+                auctions.invalidate(auctionId);
+            }
+            return outcome;
+        });
+    }
+
+    /**
+     * Forgets the in-memory state of the auction, the next request reloads it from the database.
+     */
+    public void evict(String auctionId) {
+        onShard(auctionId, () -> {
+            auctions.invalidate(auctionId);
+            return null;
+        });
+    }
+
+    /**
+     * Runs the action on the auction's shard with its state. Cold auctions are loaded on the caller thread, and
+     * if the state is dropped from memory between that check and the shard picking the action up, the caller
+     * loads it and tries again, so shard threads never block on the database.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T withState(String auctionId, Function<AuctionState, T> action) {
+        while (true) {
+            AuctionState preloaded = auctions.getIfPresent(auctionId) != null ? null : load(auctionId);
+            Object result = onShard(auctionId, () -> {
+                AuctionState state = stateOf(auctionId, preloaded);
+                return state != null ? action.apply(state) : RELOAD;
+            });
+            if (result != RELOAD) {
+                return (T) result;
+            }
+        }
+    }
+
+    // Runs on the shard thread, returns null when the state is neither in memory nor preloaded
+    private AuctionState stateOf(String auctionId, AuctionState preloaded) {
+        AuctionState state = auctions.getIfPresent(auctionId);
+        if (state == null && preloaded != null) {
+            state = preloaded;
+            if (state.isOpen()) {
+                auctions.put(auctionId, state);
+            }
+        }
+        return state;
+    }
+
+    private AuctionState load(String auctionId) {
+        return auctionRepository.findById(auctionId)
+            .map(entity -> AuctionState.of(entity, highestBid(entity), maxBidRepository.findByAuctionId(auctionId)))
+            .orElse(AuctionState.missing());
+    }
+
+    private BidEntity highestBid(AuctionEntity entity) {
+        if (entity.getHighestBidId() != null) {
+            return new BidEntity(entity.getHighestBidId(), entity.getHighestBidPrice(), entity.getHighestBidder(), entity);
+        }
+
+        // Auctions stored before the highest bid was tracked on the document
+        return bidRepository.findFirstByAuctionOrderByPriceDesc(entity).orElse(null);
+    }
+
+    private <T> T onShard(String auctionId, Callable<T> task) {
+        ExecutorService shard = shards[Math.floorMod(auctionId.hashCode(), shards.length)];
+        try {
+            return shard.submit(task).get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for bidding shard", ex);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package ro.unibuc.hello.bidding;
+
+public enum CloseOutcome {
+    CLOSED,
+    AUCTION_NOT_FOUND,
+    ALREADY_CLOSED,
+    NO_BIDS
+}
@@ -0,0 +1,149 @@
+package ro.unibuc.hello.bidding;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import ro.unibuc.hello.dto.BidWithBidder;
+
+/**
+ * Fans accepted bids and the close of an auction out to everyone watching it.
+ *
+ * Each watched auction has one multicast sink. Every subscriber reads it through its own bounded buffer; a
+ * subscriber that falls more than a buffer behind gets an error and is disconnected instead of holding memory
+ * or slowing down the others. The sink is dropped when its last subscriber leaves.
+ */
+@Component
+public class LiveBids {
+
+    public static final String BID_EVENT = "bid";
+    public static final String CLOSED_EVENT = "closed";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${bidding.stream.buffer-size:256}")
+    private int bufferSize;
+
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private Counter evicted;
+
+    @PostConstruct
+    public void start() {
+        Gauge.builder("bidding.stream.auctions", channels, Map::size)
+            .description("Auctions with at least one live bid subscriber")
+            .register(meterRegistry);
+        evicted = Counter.builder("bidding.stream.evicted")
+            .description("Subscribers disconnected for falling behind")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Streams the events published for the auction from the moment of subscription.
+     */
+    public Flux<ServerSentEvent<BidWithBidder>> subscribe(String auctionId) {
+        return subscribe(auctionId, Optional::empty);
+    }
+
+    /**
+     * Streams the events published for the auction from the moment of subscription. Once the subscriber is in
+     * place {@code lateClose} is asked for the close event of an auction that has already ended; a close published
+     * before the subscription reached no one, so the returned event is sent here instead and the stream ends.
+     * {@code lateClose} may block, it is called on the bounded elastic scheduler.
+     */
+    public Flux<ServerSentEvent<BidWithBidder>> subscribe(String auctionId,
+            Supplier<Optional<ServerSentEvent<BidWithBidder>>> lateClose) {
+        return Flux.defer(() -> {
+            Channel channel = channels.compute(auctionId, (id, existing) -> (existing != null ? existing : new Channel()).retain());
+            Flux<ServerSentEvent<BidWithBidder>> events = channel.sink.asFlux()
+                .onBackpressureBuffer(bufferSize, dropped -> evicted.increment(), BufferOverflowStrategy.ERROR)
+                .doFinally(signal -> channels.computeIfPresent(auctionId, (id, current) ->
+                    current == channel && current.release() ? null : current));
+            // Ends the channel for everyone who joined it late; a close that did reach it already completed it
+            return events.mergeWith(Mono.<ServerSentEvent<BidWithBidder>>fromRunnable(() -> lateClose.get().ifPresent(event -> {
+                channels.remove(auctionId, channel);
+                channel.emit(Integer.MAX_VALUE, event, true);
+            })).subscribeOn(Schedulers.boundedElastic()));
+        });
+    }
+
+    /**
+     * Sends an accepted bid to the auction's subscribers. Bids that are not higher than the last one sent are
+     * skipped, so a bid persisted late never makes the price go down for watchers.
+     */
+    public void publishBid(String auctionId, BidWithBidder bid) {
+        Channel channel = channels.get(auctionId);
+        if (channel != null) {
+            channel.emit(bid.getPrice(), ServerSentEvent.builder(bid).id(bid.getId()).event(BID_EVENT).build(), false);
+        }
+    }
+
+    /**
+     * Sends the close event with the winning bid, if any, and ends the auction's stream.
+     */
+    public void publishClose(String auctionId, BidWithBidder winner) {
+        Channel channel = channels.remove(auctionId);
+        if (channel != null) {
+            channel.emit(Integer.MAX_VALUE, ServerSentEvent.<BidWithBidder>builder().data(winner).event(CLOSED_EVENT).build(), true);
+        }
+    }
+
+    /**
+     * Ends the auction's stream without a close event, e.g. when the auction is deleted.
+     */
+    public void complete(String auctionId) {
+        Channel channel = channels.remove(auctionId);
+        if (channel != null) {
+            channel.emit(Integer.MAX_VALUE, null, true);
+        }
+    }
+
+    // Subscriber count is only changed inside ConcurrentHashMap.compute for the auction
+    private static final class Channel {
+        private final Sinks.Many<ServerSentEvent<BidWithBidder>> sink = Sinks.many().multicast().directBestEffort();
+        private final ReentrantLock lock = new ReentrantLock();
+        private int subscribers;
+        private int lastPrice = Integer.MIN_VALUE;
+
+        private Channel retain() {
+            subscribers++;
+            return this;
+        }
+
+        private boolean release() {
+            return --subscribers == 0;
+        }
+
+        // Sinks reject concurrent emissions, bids arrive from many request threads
+        private void emit(int price, ServerSentEvent<BidWithBidder> event, boolean last) {
+            lock.lock();
+            try {
+                if (event != null && price > lastPrice) {
+                    lastPrice = price;
+                    sink.tryEmitNext(event);
+                }
+                if (last) {
+                    sink.tryEmitComplete();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package ro.unibuc.hello.bidding;
+
+/**
+ * Result of registering a max bid: whether it was accepted and the highest bid at that moment.
+ */
+public record MaxBidOutcome(BidOutcome outcome, String highestBidderId, Integer highestPrice) {
+
+    static MaxBidOutcome rejected(BidOutcome outcome) {
+        return new MaxBidOutcome(outcome, null, null);
+    }
+}
@@ -0,0 +1,7 @@
+package ro.unibuc.hello.bidding;
+
+/**
+ * A visible bid the engine placed on behalf of the bidder holding the highest max bid.
+ */
+public record ProxyBid(String bidderId, int price) {
+}
@@ -0,0 +1,85 @@
+package ro.unibuc.hello.bidding;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel for deadlines in epoch milliseconds. Not thread safe.
+ *
+ * The wheel has {@code wheelSize} buckets of {@code tickMs} each. Deadlines further away than one turn go to an
+ * overflow wheel whose tick is a whole turn of the wheel below, created the first time it is needed. Adding a
+ * deadline is O(1), and a tick only empties the bucket it reaches: entries of a coarser wheel are moved down
+ * once, when their bucket comes up, so the cost of a tick does not grow with the number of deadlines.
+ */
+final class TimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long span;
+    private final ArrayDeque<Entry<T>>[] buckets;
+
+    // Start of the current tick
+    private long currentTime;
+    private TimingWheel<T> overflow;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.span = tickMs * wheelSize;
+        this.currentTime = startMs - startMs % tickMs;
+        this.buckets = new ArrayDeque[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Schedules the task, returns false if its deadline has already been reached, meaning it is due now.
+     */
+    boolean add(T task, long deadlineMs) {
+        // Rounded up to the end of its tick so a task never fires before its deadline
+        return add(new Entry<>(task, deadlineMs + tickMs - 1));
+    }
+
+    /**
+     * Moves the wheel tick by tick up to {@code nowMs}, handing every task whose deadline has come to {@code due}.
+     */
+    void advance(long nowMs, Consumer<T> due) {
+        while (currentTime + tickMs <= nowMs) {
+            tick(currentTime + tickMs, this, due);
+        }
+    }
+
+    private boolean add(Entry<T> entry) {
+        if (entry.deadline < currentTime + tickMs) {
+            return false;
+        }
+        if (entry.deadline < currentTime + span) {
+            buckets[(int) ((entry.deadline / tickMs) % wheelSize)].add(entry);
+            return true;
+        }
+        if (overflow == null) {
+            overflow = new TimingWheel<>(span, wheelSize, currentTime);
+        }
+        return overflow.add(entry);
+    }
+
+    private void tick(long time, TimingWheel<T> root, Consumer<T> due) {
+        currentTime = time;
+        // A tick of the overflow wheel is a whole turn of this one
+        if (overflow != null && time % span == 0) {
+            overflow.tick(time, root, due);
+        }
+
+        ArrayDeque<Entry<T>> bucket = buckets[(int) ((time / tickMs) % wheelSize)];
+        Entry<T> entry;
+        while ((entry = bucket.poll()) != null) {
+            if (!root.add(entry)) {
+                due.accept(entry.task);
+            }
+        }
+    }
+
+    private record Entry<T>(T task, long deadline) {}
+}
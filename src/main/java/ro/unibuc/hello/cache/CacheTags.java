@@ -0,0 +1,58 @@
+package ro.unibuc.hello.cache;
+
+/**
+ * What cached responses depend on. Controllers name the tags in {@link CachedResponse}, with the path variable
+ * still in them, and writes invalidate the tags of what they changed.
+ */
+public final class CacheTags {
+
+    // Pages of GET /auctions, also the auctions shown in GET /users/{id}/bids
+    public static final String AUCTIONS = "auctions";
+    // Pages of GET /items
+    public static final String ITEMS = "items";
+    // Pages of GET /users
+    public static final String USERS = "users";
+
+    // GET /auctions/{id} with its highest bid and bids
+    public static final String AUCTION = "auction:{id}";
+    // GET /items/{id}
+    public static final String ITEM = "item:{id}";
+    // GET /users/{id}
+    public static final String USER = "user:{id}";
+    // GET /users/{id}/items
+    public static final String USER_ITEMS = "user-items:{id}";
+    // GET /users/{id}/auctions
+    public static final String USER_AUCTIONS = "user-auctions:{id}";
+    // GET /users/{id}/bids
+    public static final String USER_BIDS = "user-bids:{id}";
+
+    private CacheTags() {}
+
+    public static String auction(String id) {
+        return of(AUCTION, id);
+    }
+
+    public static String item(String id) {
+        return of(ITEM, id);
+    }
+
+    public static String user(String id) {
+        return of(USER, id);
+    }
+
+    public static String userItems(String id) {
+        return of(USER_ITEMS, id);
+    }
+
+    public static String userAuctions(String id) {
+        return of(USER_AUCTIONS, id);
+    }
+
+    public static String userBids(String id) {
+        return of(USER_BIDS, id);
+    }
+
+    private static String of(String tag, String id) {
+        return tag.replace("{id}", id);
+    }
+}
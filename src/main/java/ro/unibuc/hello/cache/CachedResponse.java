@@ -0,0 +1,19 @@
+package ro.unibuc.hello.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Keeps the serialized JSON body of a public GET in the {@link ResponseCache}.
+ *
+ * The values are the {@link CacheTags} the response depends on, {@code {name}} placeholders are filled from the
+ * path variables. A write that invalidates any of them drops the response.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CachedResponse {
+
+    String[] value();
+}
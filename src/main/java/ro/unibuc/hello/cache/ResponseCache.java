@@ -0,0 +1,143 @@
+package ro.unibuc.hello.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Serialized bodies of public GETs, with a gzipped copy of the larger ones, so a hit is written as raw bytes
+ * without querying Mongo or running Jackson.
+ *
+ * Every entry remembers its tags and the logical time its request started. Invalidating a tag stamps it with the
+ * next logical time, which makes every entry started before that stale, including one whose request was still
+ * reading the old data while the write happened. Entries of this node are dropped right away by its writes,
+ * writes of other nodes show up once the entry expires after {@code response-cache.ttl-seconds}.
+ */
+@Component
+public class ResponseCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${response-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${response-cache.ttl-seconds:10}")
+    private long ttlSeconds;
+
+    // Smaller bodies are not worth compressing
+    @Value("${response-cache.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong allInvalidatedAt = new AtomicLong();
+
+    private Cache<String, Entry> responses;
+    private Cache<String, Long> invalidatedAt;
+
+    @PostConstruct
+    public void start() {
+        responses = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((String key, Entry entry) -> entry.weight())
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "responses");
+
+        // Kept longer than any entry lives, an entry older than a forgotten stamp has expired anyway
+        invalidatedAt = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofSeconds(2 * ttlSeconds))
+            .build();
+    }
+
+    /**
+     * The logical time to pass to {@link #put}, read before the response is computed.
+     */
+    public long begin() {
+        return clock.get();
+    }
+
+    /**
+     * Returns the cached response, or null if there is none or a write made it stale.
+     */
+    public Entry get(String key) {
+        Entry entry = responses.getIfPresent(key);
+        if (entry != null && isStale(entry)) {
+            responses.invalidate(key);
+            return null;
+        }
+        return entry;
+    }
+
+    public void put(String key, List<String> tags, long startedAt, String contentType, Map<String, String> headers, byte[] body) {
+        byte[] gzipped = body.length >= gzipMinBytes ? gzip(body) : null;
+        Entry entry = new Entry(tags, startedAt, contentType, headers, body, gzipped);
+        // A write that happened while the response was computed already made it stale
+        if (!isStale(entry)) {
+            responses.put(key, entry);
+        }
+    }
+
+    public void invalidate(String... tags) {
+        long now = clock.incrementAndGet();
+        for (String tag : tags) {
+            invalidatedAt.asMap().merge(tag, now, Math::max);
+        }
+    }
+
+    /**
+     * For writes that change what too many responses embed to track, like a user's name.
+     */
+    public void invalidateAll() {
+        allInvalidatedAt.accumulateAndGet(clock.incrementAndGet(), Math::max);
+        responses.invalidateAll();
+    }
+
+    private boolean isStale(Entry entry) {
+        if (allInvalidatedAt.get() > entry.startedAt()) {
+            return true;
+        }
+        for (String tag : entry.tags()) {
+            Long stamp = invalidatedAt.getIfPresent(tag);
+            if (stamp != null && stamp > entry.startedAt()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    public record Entry(List<String> tags, long startedAt, String contentType, Map<String, String> headers,
+                        byte[] body, byte[] gzipped) {
+
+        private int weight() {
+            return body.length + (gzipped != null ? gzipped.length : 0);
+        }
+    }
+}
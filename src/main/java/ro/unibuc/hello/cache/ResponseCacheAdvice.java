@@ -0,0 +1,78 @@
+package ro.unibuc.hello.cache;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Stores the JSON body of a {@link CachedResponse} GET that missed the cache, serialized with the same
+ * ObjectMapper the message converter uses.
+ */
+@ControllerAdvice
+public class ResponseCacheAdvice implements ResponseBodyAdvice<Object> {
+
+    // Response headers that are part of the cached response
+    private static final List<String> CACHED_HEADERS = List.of(HttpHeaders.ETAG, "X-Next-Cursor");
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public boolean supports(@NonNull MethodParameter returnType, @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return MappingJackson2HttpMessageConverter.class.isAssignableFrom(converterType)
+            && returnType.hasMethodAnnotation(CachedResponse.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, @NonNull MethodParameter returnType, @NonNull MediaType contentType,
+                                  @NonNull Class<? extends HttpMessageConverter<?>> converterType,
+                                  @NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response) {
+        if (body == null
+            || !(request instanceof ServletServerHttpRequest servletRequest)
+            || !(response instanceof ServletServerHttpResponse servletResponse)
+            || servletResponse.getServletResponse().getStatus() != HttpServletResponse.SC_OK) {
+            return body;
+        }
+        Object pending = servletRequest.getServletRequest().getAttribute(ResponseCacheInterceptor.PENDING_ATTRIBUTE);
+        if (!(pending instanceof ResponseCacheInterceptor.Pending miss)) {
+            return body;
+        }
+
+        Map<String, String> headers = new HashMap<>();
+        for (String name : CACHED_HEADERS) {
+            String value = response.getHeaders().getFirst(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        }
+
+        try {
+            responseCache.put(miss.key(), miss.tags(), miss.startedAt(), contentType.toString(), headers, objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException ex) {
+            // The converter will fail on the same body and report it
+        }
+        return body;
+    }
+}
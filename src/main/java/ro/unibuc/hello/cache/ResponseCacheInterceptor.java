@@ -0,0 +1,106 @@
+package ro.unibuc.hello.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Answers {@link CachedResponse} GETs from the {@link ResponseCache}, gzipped when the client accepts it. On a
+ * miss it marks the request so {@link ResponseCacheAdvice} stores the body the controller returns.
+ */
+@Component
+public class ResponseCacheInterceptor implements HandlerInterceptor {
+
+    static final String PENDING_ATTRIBUTE = ResponseCacheInterceptor.class.getName() + ".pending";
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Value("${response-cache.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) throws Exception {
+        if (!enabled || !HttpMethod.GET.matches(request.getMethod()) || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        CachedResponse cached = handlerMethod.getMethodAnnotation(CachedResponse.class);
+        if (cached == null) {
+            return true;
+        }
+        // A later hit may be gzipped, so shared caches must key every response of this endpoint on the encoding
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        String key = request.getQueryString() == null
+            ? request.getRequestURI()
+            : request.getRequestURI() + "?" + request.getQueryString();
+        ResponseCache.Entry entry = responseCache.get(key);
+        if (entry == null) {
+            request.setAttribute(PENDING_ATTRIBUTE, new Pending(key, tags(cached, request), responseCache.begin()));
+            return true;
+        }
+
+        write(entry, request, response);
+        return false;
+    }
+
+    private static void write(ResponseCache.Entry entry, HttpServletRequest request, HttpServletResponse response) throws Exception {
+        entry.headers().forEach(response::setHeader);
+
+        String etag = entry.headers().get(HttpHeaders.ETAG);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        // If-None-Match compares weakly, "3" matches W/"3"
+        if (etag != null && etag.startsWith("W/")) {
+            etag = etag.substring(2);
+        }
+        if (etag != null && ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] body = entry.body();
+        if (entry.gzipped() != null && acceptsGzip(request)) {
+            body = entry.gzipped();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(entry.contentType());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> tags(CachedResponse cached, HttpServletRequest request) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        List<String> tags = new ArrayList<>(cached.value().length);
+        for (String tag : cached.value()) {
+            if (variables != null) {
+                for (Map.Entry<String, String> variable : variables.entrySet()) {
+                    tag = tag.replace("{" + variable.getKey() + "}", variable.getValue());
+                }
+            }
+            tags.add(tag);
+        }
+        return tags;
+    }
+
+    record Pending(String key, List<String> tags, long startedAt) {}
+}
@@ -7,6 +7,8 @@ import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import ro.unibuc.hello.auth.AuthInterceptor;
+import ro.unibuc.hello.cache.ResponseCacheInterceptor;
+import ro.unibuc.hello.ratelimit.RateLimitInterceptor;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
@@ -14,9 +16,18 @@ public class WebConfig implements WebMvcConfigurer {
     @Autowired
     private AuthInterceptor authInterceptor;
 
+    @Autowired
+    private RateLimitInterceptor rateLimitInterceptor;
+
+    @Autowired
+    private ResponseCacheInterceptor responseCacheInterceptor;
+
     @Override
     public void addInterceptors(@NonNull InterceptorRegistry registry) {
         registry.addInterceptor(authInterceptor);
+        // Needs the user id set by the auth interceptor
+        registry.addInterceptor(rateLimitInterceptor);
+        registry.addInterceptor(responseCacheInterceptor);
     }
 }
 
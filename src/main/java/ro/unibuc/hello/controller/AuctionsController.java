@@ -3,6 +3,9 @@ package ro.unibuc.hello.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,18 +13,28 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
 import jakarta.servlet.http.HttpServletRequest;
+import reactor.core.publisher.Flux;
 import ro.unibuc.hello.auth.AuthUtil;
 import ro.unibuc.hello.auth.PublicEndpoint;
+import ro.unibuc.hello.cache.CacheTags;
+import ro.unibuc.hello.cache.CachedResponse;
+import ro.unibuc.hello.dto.AuctionBulkResult;
 import ro.unibuc.hello.dto.AuctionPlaceBidRequest;
 import ro.unibuc.hello.dto.AuctionPost;
 import ro.unibuc.hello.dto.AuctionPut;
 import ro.unibuc.hello.dto.AuctionWithAuctioneerAndItem;
 import ro.unibuc.hello.dto.BidWithBidder;
+import ro.unibuc.hello.dto.MaxBid;
 import ro.unibuc.hello.permissions.AuctionPermissionChecker;
+import ro.unibuc.hello.ratelimit.RateLimited;
+import ro.unibuc.hello.ratelimit.RouteClass;
 import ro.unibuc.hello.service.AuctionsService;
+import ro.unibuc.hello.service.ReactiveReadsService;
 
 
 @Controller
@@ -30,35 +43,91 @@ public class AuctionsController {
     @Autowired
     private AuctionsService auctionsService;
 
+    @Autowired
+    private ReactiveReadsService reactiveReadsService;
+
     @Autowired
     private AuctionPermissionChecker permissionChecker;
 
     @PublicEndpoint
+    @CachedResponse(CacheTags.AUCTIONS)
     @GetMapping("/auctions")
     @ResponseBody
-    public List<AuctionWithAuctioneerAndItem> getAll() {
-        return auctionsService.getAllAuctions();
+    public ResponseEntity<List<AuctionWithAuctioneerAndItem>> getAll(@RequestParam(required = false) String after, @RequestParam(required = false) Integer limit) {
+        return Paging.page(auctionsService.getAllAuctions(after, limit), AuctionWithAuctioneerAndItem::getId);
     }
 
     @PublicEndpoint
+    @GetMapping(value = "/auctions", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseBody
+    public Flux<AuctionWithAuctioneerAndItem> streamAll() {
+        return reactiveReadsService.streamAllAuctions();
+    }
+
+    @PublicEndpoint
+    @CachedResponse(CacheTags.AUCTION)
     @GetMapping("/auctions/{id}")
     @ResponseBody
-    public AuctionWithAuctioneerAndItem getAuctionById(@PathVariable String id) {
-        return auctionsService.getAuctionById(id);
+    public ResponseEntity<AuctionWithAuctioneerAndItem> getAuctionById(@PathVariable String id,
+                                                                       @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        // Polling clients mostly get a 304 straight from the cached version
+        if (ifNoneMatch != null) {
+            Long version = auctionsService.getAuctionVersion(id);
+            if (ETags.ifNoneMatch(ifNoneMatch, version)) {
+                return ETags.notModified(version);
+            }
+        }
+
+        AuctionWithAuctioneerAndItem auction = auctionsService.getAuctionById(id);
+        return ETags.weaklyTagged(auction, auction.getVersion());
     }
 
     @PublicEndpoint
+    @GetMapping(value = "/auctions/{id}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseBody
+    public Flux<AuctionWithAuctioneerAndItem> streamAuctionById(@PathVariable String id) {
+        return reactiveReadsService.getAuctionById(id).flux();
+    }
+
+    @PublicEndpoint
+    @CachedResponse(CacheTags.AUCTION)
     @GetMapping("/auctions/{id}/highest-bid")
     @ResponseBody
-    public BidWithBidder getAuctionHighestBid(@PathVariable String id) {
-        return auctionsService.getAuctionHighestBid(id);
+    public ResponseEntity<BidWithBidder> getAuctionHighestBid(@PathVariable String id,
+                                                              @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        // Read before the bid, so the tag is never newer than the body
+        Long version = auctionsService.getAuctionVersion(id);
+        if (ETags.ifNoneMatch(ifNoneMatch, version)) {
+            return ETags.notModified(version);
+        }
+        return ETags.weaklyTagged(auctionsService.getAuctionHighestBid(id), version);
     }
 
     @PublicEndpoint
+    @CachedResponse(CacheTags.AUCTION)
     @GetMapping("/auctions/{id}/bids")
     @ResponseBody
-    public List<BidWithBidder> getAuctionBids(@PathVariable String id) {
-        return auctionsService.getAuctionBids(id);
+    public ResponseEntity<List<BidWithBidder>> getAuctionBids(@PathVariable String id, @RequestParam(required = false) String after, @RequestParam(required = false) Integer limit,
+                                                              @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        Long version = auctionsService.getAuctionVersion(id);
+        if (ETags.ifNoneMatch(ifNoneMatch, version)) {
+            return ETags.notModified(version);
+        }
+        return ETags.weaklyTagged(Paging.page(auctionsService.getAuctionBids(id, after, limit), BidWithBidder::getId), version);
+    }
+
+    @PublicEndpoint
+    @GetMapping(value = "/auctions/{id}/bids", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseBody
+    public Flux<BidWithBidder> streamAuctionBids(@PathVariable String id) {
+        return reactiveReadsService.streamAuctionBids(id);
+    }
+
+    @PublicEndpoint
+    @GetMapping(value = "/auctions/{id}/bids/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public Flux<ServerSentEvent<BidWithBidder>> watchAuctionBids(@PathVariable String id) {
+        return auctionsService.streamAuctionBids(id);
     }
 
     @PostMapping("/auctions")
@@ -68,14 +137,24 @@ public class AuctionsController {
         return auctionsService.saveAuction(userId, auction);
     }
 
+    @PostMapping("/auctions/bulk")
+    @ResponseBody
+    public List<AuctionBulkResult> createBulk(HttpServletRequest request, @RequestBody List<AuctionPost> auctions) {
+        String userId = AuthUtil.getAuthenticatedUserId(request);
+        return auctionsService.saveAll(userId, auctions);
+    }
+
     @PutMapping("/auctions/{id}")
     @ResponseBody
-    public AuctionWithAuctioneerAndItem updateAuction(HttpServletRequest request, @PathVariable String id, @RequestBody AuctionPut auction) {
+    public ResponseEntity<AuctionWithAuctioneerAndItem> updateAuction(HttpServletRequest request, @PathVariable String id, @RequestBody AuctionPut auction,
+                                                                      @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         String userId = AuthUtil.getAuthenticatedUserId(request);
         permissionChecker.checkOwnership(userId, id);
-        return auctionsService.updateAuction(id, auction);
+        AuctionWithAuctioneerAndItem updated = auctionsService.updateAuction(id, auction, ETags.ifMatch(ifMatch));
+        return ETags.weaklyTagged(updated, updated.getVersion());
     }
 
+    @RateLimited(RouteClass.BIDS)
     @PostMapping("/auctions/{id}/place-bid")
     @ResponseBody
     public BidWithBidder placeBid(HttpServletRequest request, @PathVariable String id, @RequestBody AuctionPlaceBidRequest bid) {
@@ -83,6 +162,14 @@ public class AuctionsController {
         return auctionsService.placeBid(id, userId, bid);
     }
 
+    @RateLimited(RouteClass.BIDS)
+    @PostMapping("/auctions/{id}/max-bid")
+    @ResponseBody
+    public MaxBid placeMaxBid(HttpServletRequest request, @PathVariable String id, @RequestBody AuctionPlaceBidRequest maxBid) {
+        String userId = AuthUtil.getAuthenticatedUserId(request);
+        return auctionsService.placeMaxBid(id, userId, maxBid);
+    }
+
     @PostMapping("/auctions/{id}/close")
     @ResponseBody
     public void closeAuction(HttpServletRequest request, @PathVariable String id) {
@@ -0,0 +1,92 @@
+package ro.unibuc.hello.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import ro.unibuc.hello.exception.PreconditionFailedException;
+
+/**
+ * The document version as an entity tag: single resources are sent with {@code ETag: "<version>"} and a PUT
+ * with a matching {@code If-Match} only applies if nobody changed the resource in between. A GET with a
+ * matching {@code If-None-Match} is answered with 304 Not Modified and no body. DTOs carry the version as a
+ * {@code @JsonIgnore} field, it only ever goes out in the header.
+ *
+ * Bodies that also show referenced documents (an auction's auctioneer and item, an item's owner, bidders) get a
+ * weak tag {@code W/"<version>"}: renaming a user doesn't bump the versions of the auctions and items that show
+ * it, so the same tag can go out with the old and the new name until the resource itself is written again.
+ * {@code If-Match} still accepts the weak form, the version guards the resource's own fields.
+ */
+final class ETags {
+
+    private ETags() {}
+
+    static <T> ResponseEntity<T> tagged(T body, Long version) {
+        if (version == null) {
+            return ResponseEntity.ok().body(body);
+        }
+        return ResponseEntity.ok().eTag(String.valueOf(version)).body(body);
+    }
+
+    static <T> ResponseEntity<T> weaklyTagged(T body, Long version) {
+        if (version == null) {
+            return ResponseEntity.ok().body(body);
+        }
+        return ResponseEntity.ok().eTag(weak(version)).body(body);
+    }
+
+    static <T> ResponseEntity<T> notModified(Long version) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .eTag(weak(version))
+            .build();
+    }
+
+    /**
+     * Whether an If-None-Match header lists the current version, so the client's copy is still current.
+     */
+    static boolean ifNoneMatch(String header, Long version) {
+        if (header == null || version == null) {
+            return false;
+        }
+
+        String current = String.valueOf(version);
+        for (String tag : header.split(",")) {
+            // If-None-Match compares weakly, W/"5" matches "5"
+            String value = unquote(tag);
+            if (value.equals("*") || value.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the expected version from an If-Match header, null when the header is missing or {@code *}.
+     */
+    static Long ifMatch(String header) {
+        if (header == null || header.isBlank() || header.trim().equals("*")) {
+            return null;
+        }
+
+        try {
+            return Long.valueOf(unquote(header));
+        } catch (NumberFormatException ex) {
+            // Not a tag this server handed out, it can't match
+            throw new PreconditionFailedException("If-Match doesn't match the current version");
+        }
+    }
+
+    private static String weak(Long version) {
+        return "W/\"" + version + "\"";
+    }
+
+    private static String unquote(String header) {
+        String tag = header.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        return tag;
+    }
+}
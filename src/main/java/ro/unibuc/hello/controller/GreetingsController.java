@@ -13,6 +13,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
 import ro.unibuc.hello.auth.PublicEndpoint;
 import ro.unibuc.hello.dto.Greeting;
 import ro.unibuc.hello.exception.EntityNotFoundException;
@@ -31,12 +33,17 @@ public class GreetingsController {
         return greetingsService.hello(name);
     }
 
+    // hello_info_* drive the throughput alerts and the dashboard
+    @Timed("hello.info.time")
+    @Counted("hello.info.count")
     @GetMapping("/info")
     @ResponseBody
     public Greeting info(@RequestParam(name="title", required=false, defaultValue="Overview") String title) throws EntityNotFoundException {
         return greetingsService.buildGreetingFromInfo(title);
     }
 
+    @Timed("hello.greeting.time")
+    @Counted("hello.greeting.count")
     @GetMapping("/greetings")
     @ResponseBody
     public List<Greeting> getAllGreetings() {
@@ -3,6 +3,8 @@ package ro.unibuc.hello.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,15 +12,21 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
 import jakarta.servlet.http.HttpServletRequest;
+import reactor.core.publisher.Flux;
 import ro.unibuc.hello.auth.AuthUtil;
 import ro.unibuc.hello.auth.PublicEndpoint;
+import ro.unibuc.hello.cache.CacheTags;
+import ro.unibuc.hello.cache.CachedResponse;
 import ro.unibuc.hello.dto.ItemPostRequest;
 import ro.unibuc.hello.dto.ItemWithOwner;
 import ro.unibuc.hello.permissions.ItemPermissionChecker;
 import ro.unibuc.hello.service.ItemsService;
+import ro.unibuc.hello.service.ReactiveReadsService;
 
 @Controller
 public class ItemsController {
@@ -26,21 +34,34 @@ public class ItemsController {
     @Autowired
     private ItemsService itemsService;
 
+    @Autowired
+    private ReactiveReadsService reactiveReadsService;
+
     @Autowired
     private ItemPermissionChecker permissionChecker;
 
     @PublicEndpoint
+    @CachedResponse(CacheTags.ITEMS)
     @GetMapping("/items")
     @ResponseBody
-    public List<ItemWithOwner> getAllItems() {
-        return itemsService.getAllItems();
+    public ResponseEntity<List<ItemWithOwner>> getAllItems(@RequestParam(required = false) String after, @RequestParam(required = false) Integer limit) {
+        return Paging.page(itemsService.getAllItems(after, limit), ItemWithOwner::getId);
+    }
+
+    @PublicEndpoint
+    @GetMapping(value = "/items", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseBody
+    public Flux<ItemWithOwner> streamAllItems() {
+        return reactiveReadsService.streamAllItems();
     }
 
     @PublicEndpoint
+    @CachedResponse(CacheTags.ITEM)
     @GetMapping("/items/{id}")
     @ResponseBody
-    public ItemWithOwner getItemById(@PathVariable String id) {
-        return itemsService.getItemById(id);
+    public ResponseEntity<ItemWithOwner> getItemById(@PathVariable String id) {
+        ItemWithOwner item = itemsService.getItemById(id);
+        return ETags.weaklyTagged(item, item.getVersion());
     }
 
     @PostMapping("/items")
@@ -52,10 +73,12 @@ public class ItemsController {
 
     @PutMapping("/items/{id}")
     @ResponseBody
-    public ItemWithOwner updateItem(HttpServletRequest request, @PathVariable String id, @RequestBody ItemPostRequest item) {
+    public ResponseEntity<ItemWithOwner> updateItem(HttpServletRequest request, @PathVariable String id, @RequestBody ItemPostRequest item,
+                                                    @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         String userId = AuthUtil.getAuthenticatedUserId(request);
         permissionChecker.checkOwnership(userId, id);
-        return itemsService.updateItem(id, item);
+        ItemWithOwner updated = itemsService.updateItem(id, item, ETags.ifMatch(ifMatch));
+        return ETags.weaklyTagged(updated, updated.getVersion());
     }
 
     @DeleteMapping("/items/{id}")
@@ -0,0 +1,27 @@
+package ro.unibuc.hello.controller;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Window;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Writes a page of a list endpoint: the elements as the usual JSON array and, when there are more, the cursor
+ * of the next page in the {@value #NEXT_CURSOR_HEADER} header. Pass it back as {@code after} to continue.
+ */
+final class Paging {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private Paging() {}
+
+    static <T> ResponseEntity<List<T>> page(Window<T> window, Function<T, String> idOf) {
+        List<T> content = window.getContent();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (window.hasNext() && !content.isEmpty()) {
+            response.header(NEXT_CURSOR_HEADER, idOf.apply(content.get(content.size() - 1)));
+        }
+        return response.body(content);
+    }
+}
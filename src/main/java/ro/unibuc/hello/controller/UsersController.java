@@ -3,6 +3,8 @@ package ro.unibuc.hello.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,17 +12,23 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
 import jakarta.servlet.http.HttpServletRequest;
+import reactor.core.publisher.Flux;
 import ro.unibuc.hello.auth.AuthUtil;
 import ro.unibuc.hello.auth.PublicEndpoint;
+import ro.unibuc.hello.cache.CacheTags;
+import ro.unibuc.hello.cache.CachedResponse;
 import ro.unibuc.hello.dto.AuctionWithItem;
 import ro.unibuc.hello.dto.BidWithAuction;
 import ro.unibuc.hello.dto.Item;
 import ro.unibuc.hello.dto.User;
 import ro.unibuc.hello.dto.UserPostRequest;
 import ro.unibuc.hello.permissions.UserPermissionChecker;
+import ro.unibuc.hello.service.ReactiveReadsService;
 import ro.unibuc.hello.service.UsersService;
 
 
@@ -30,42 +38,72 @@ public class UsersController {
     @Autowired
     private UsersService userService;
 
+    @Autowired
+    private ReactiveReadsService reactiveReadsService;
+
     @Autowired
     private UserPermissionChecker permissionChecker;
 
     @PublicEndpoint
+    @CachedResponse(CacheTags.USERS)
     @GetMapping("/users")
     @ResponseBody
-    public List<User> getAllUsers() {
-        return userService.getAllUsers();
+    public ResponseEntity<List<User>> getAllUsers(@RequestParam(required = false) String after, @RequestParam(required = false) Integer limit) {
+        return Paging.page(userService.getAllUsers(after, limit), User::getId);
     }
 
     @PublicEndpoint
+    @GetMapping(value = "/users", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseBody
+    public Flux<User> streamAllUsers() {
+        return reactiveReadsService.streamAllUsers();
+    }
+
+    @PublicEndpoint
+    @CachedResponse(CacheTags.USER)
     @GetMapping("/users/{id}")
     @ResponseBody
-    public User getUserById(@PathVariable String id) {
-        return userService.getUserById(id);
+    public ResponseEntity<User> getUserById(@PathVariable String id) {
+        User user = userService.getUserById(id);
+        return ETags.tagged(user, user.getVersion());
     }
 
     @PublicEndpoint
+    @CachedResponse(CacheTags.USER_ITEMS)
     @GetMapping("/users/{id}/items")
     @ResponseBody
-    public List<Item> getUserItems(@PathVariable String id) {
-        return userService.getUserItems(id);
+    public ResponseEntity<List<Item>> getUserItems(@PathVariable String id, @RequestParam(required = false) String after, @RequestParam(required = false) Integer limit) {
+        return Paging.page(userService.getUserItems(id, after, limit), Item::getId);
+    }
+
+    @PublicEndpoint
+    @GetMapping(value = "/users/{id}/items", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseBody
+    public Flux<Item> streamUserItems(@PathVariable String id) {
+        return reactiveReadsService.streamUserItems(id);
     }
 
     @PublicEndpoint
+    @CachedResponse(CacheTags.USER_AUCTIONS)
     @GetMapping("/users/{id}/auctions")
     @ResponseBody
-    public List<AuctionWithItem> getUserAuctions(@PathVariable String id) {
-        return userService.getUserAuctions(id);
+    public ResponseEntity<List<AuctionWithItem>> getUserAuctions(@PathVariable String id, @RequestParam(required = false) String after, @RequestParam(required = false) Integer limit) {
+        return Paging.page(userService.getUserAuctions(id, after, limit), AuctionWithItem::getId);
     }
 
     @PublicEndpoint
+    @CachedResponse({CacheTags.USER_BIDS, CacheTags.AUCTIONS})
     @GetMapping("/users/{id}/bids")
     @ResponseBody
-    public List<BidWithAuction> getUserBids(@PathVariable String id) {
-        return userService.getUserBids(id);
+    public ResponseEntity<List<BidWithAuction>> getUserBids(@PathVariable String id, @RequestParam(required = false) String after, @RequestParam(required = false) Integer limit) {
+        return Paging.page(userService.getUserBids(id, after, limit), BidWithAuction::getId);
+    }
+
+    @PublicEndpoint
+    @GetMapping(value = "/users/{id}/bids", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseBody
+    public Flux<BidWithAuction> streamUserBids(@PathVariable String id) {
+        return reactiveReadsService.streamUserBids(id);
     }
 
     @PublicEndpoint
@@ -77,10 +115,12 @@ public class UsersController {
 
     @PutMapping("/users/{id}")
     @ResponseBody
-    public User updateUser(HttpServletRequest request, @PathVariable String id, @RequestBody UserPostRequest user) {
+    public ResponseEntity<User> updateUser(HttpServletRequest request, @PathVariable String id, @RequestBody UserPostRequest user,
+                                           @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         String userId = AuthUtil.getAuthenticatedUserId(request);
         permissionChecker.checkOwnership(userId, id);
-        return userService.updateUser(id, user);
+        User updated = userService.updateUser(id, user, ETags.ifMatch(ifMatch));
+        return ETags.tagged(updated, updated.getVersion());
     }
 
     @DeleteMapping("/users/{id}")
@@ -1,10 +1,20 @@
 package ro.unibuc.hello.data;
 
+import java.time.LocalDateTime;
+
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DocumentReference;
 
 @Document
+// Pages of a user's auctions
+@CompoundIndex(name = "auctioneer_id", def = "{'auctioneer': 1, '_id': 1}")
+// Open auctions of an item
+@CompoundIndex(name = "item_open", def = "{'item': 1, 'open': 1}")
+// End times of open auctions, for scheduling and catching up on their close
+@CompoundIndex(name = "open_ends_at", def = "{'open': 1, 'endsAt': 1}")
 public class AuctionEntity {
 
     @Id
@@ -14,12 +24,32 @@ public class AuctionEntity {
     private int startPrice;
     private boolean open;
 
+    // Closed automatically at this time, null when only the auctioneer closes it
+    private LocalDateTime endsAt;
+
     @DocumentReference
     private ItemEntity item;
 
     @DocumentReference
     private UserEntity auctioneer;
 
+    // Current highest bid, kept on the auction so a bid can be checked and accepted
+    // with a single conditional update instead of scanning every bid
+    private Integer highestBidPrice;
+    private String highestBidId;
+    private int bidCount;
+
+    @DocumentReference
+    private UserEntity highestBidder;
+
+    // Set once a closed auction's item is handed over and its max bids are dropped, so a failed settlement
+    // can be finished later
+    private boolean settled;
+
+    // Bumped by every write, including the atomic updates in AuctionRepositoryCustomImpl
+    @Version
+    private Long version;
+
     public AuctionEntity() {}
 
     public AuctionEntity(String title, String description, int startPrice, boolean open, ItemEntity item, UserEntity auctioneer) {
@@ -81,6 +111,22 @@ public class AuctionEntity {
         this.open = open;
     }
 
+    public LocalDateTime getEndsAt() {
+        return endsAt;
+    }
+
+    public void setEndsAt(LocalDateTime endsAt) {
+        this.endsAt = endsAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public ItemEntity getItem() {
         return item;
     }
@@ -97,6 +143,46 @@ public class AuctionEntity {
         this.auctioneer = auctioneer;
     }
 
+    public Integer getHighestBidPrice() {
+        return highestBidPrice;
+    }
+
+    public void setHighestBidPrice(Integer highestBidPrice) {
+        this.highestBidPrice = highestBidPrice;
+    }
+
+    public String getHighestBidId() {
+        return highestBidId;
+    }
+
+    public void setHighestBidId(String highestBidId) {
+        this.highestBidId = highestBidId;
+    }
+
+    public UserEntity getHighestBidder() {
+        return highestBidder;
+    }
+
+    public void setHighestBidder(UserEntity highestBidder) {
+        this.highestBidder = highestBidder;
+    }
+
+    public int getBidCount() {
+        return bidCount;
+    }
+
+    public void setBidCount(int bidCount) {
+        this.bidCount = bidCount;
+    }
+
+    public boolean isSettled() {
+        return settled;
+    }
+
+    public void setSettled(boolean settled) {
+        this.settled = settled;
+    }
+
     @Override
     public String toString() {
         return "Auction {" +
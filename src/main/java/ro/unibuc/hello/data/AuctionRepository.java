@@ -11,7 +11,7 @@ import org.springframework.stereotype.Repository;
  * Spring Data MongoDB automatically creates a class it implementing the interface when you run the application.
  */
 @Repository
-public interface AuctionRepository extends MongoRepository<AuctionEntity, String> {
+public interface AuctionRepository extends MongoRepository<AuctionEntity, String>, AuctionRepositoryCustom {
 
     List<AuctionEntity> findByAuctioneer(UserEntity auctioneer);
     List<AuctionEntity> findByItem(ItemEntity item);
@@ -0,0 +1,84 @@
+package ro.unibuc.hello.data;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.bson.Document;
+
+/**
+ * Atomic, single round trip updates on auctions. Every update also bumps the {@code @Version} field so
+ * read-modify-save writers notice it.
+ * Implemented by {@link AuctionRepositoryCustomImpl} and mixed into {@link AuctionRepository} by Spring Data.
+ */
+public interface AuctionRepositoryCustom {
+
+    /**
+     * Records a new highest bid only if the auction is still open and the price beats the current highest bid
+     * (or reaches the start price when there is no bid yet).
+     *
+     * @return the raw {@code highestBidId}, {@code highestBidPrice} and {@code highestBidder} fields the bid
+     *         replaced (absent when there was no bid), or null if the auction is closed, missing or already has a
+     *         higher bid
+     */
+    Document recordHighestBid(String auctionId, String bidId, int price, UserEntity bidder);
+
+    /**
+     * Puts back the highest bid that {@link #recordHighestBid} replaced, only while the given bid is still the
+     * highest. Undoes the claim of a bid that could not be stored.
+     *
+     * @return true if the previous bid was put back, false if a later bid already replaced the given one
+     */
+    boolean restoreHighestBid(String auctionId, String bidId, Document previous);
+
+    /**
+     * Closes the auction only if it is still open.
+     *
+     * @return the closed auction, or null if it was already closed or doesn't exist
+     */
+    AuctionEntity closeIfOpen(String auctionId);
+
+    /**
+     * Finds the auction if it is closed but was not settled yet.
+     *
+     * @return the auction, or null if it is open, settled or doesn't exist
+     */
+    AuctionEntity findClosedUnsettled(String auctionId);
+
+    /**
+     * Marks a closed auction as settled.
+     *
+     * @return the settled auction, or null if it doesn't exist
+     */
+    AuctionEntity markSettled(String auctionId);
+
+    /**
+     * Updates the editable fields without overwriting the bid state of the auction. When an expected version is
+     * given the update only applies if the auction is still at that version.
+     *
+     * @return the updated auction, or null if it doesn't exist or is at another version
+     */
+    AuctionEntity updateDetails(String auctionId, Long expectedVersion, String title, String description);
+
+    /**
+     * Reads only the version of the auction.
+     *
+     * @return the version, or null if the auction doesn't exist
+     */
+    Long findVersionById(String auctionId);
+
+    /**
+     * Finds which of the items are in an open auction, with one query for all of them.
+     *
+     * @return the ids of the items that are
+     */
+    Set<String> findItemsInOpenAuctions(Collection<String> itemIds);
+
+    /**
+     * Inserts the auctions with one unordered bulk write, a failed insert doesn't stop the others. The auctions
+     * must already have their ids, new ones get version 0 like a repository insert.
+     *
+     * @return the positions in {@code auctions} of the inserts that failed
+     */
+    Set<Integer> insertAll(List<AuctionEntity> auctions);
+}
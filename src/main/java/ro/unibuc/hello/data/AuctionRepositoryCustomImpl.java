@@ -0,0 +1,157 @@
+package ro.unibuc.hello.data;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.bulk.BulkWriteError;
+
+public class AuctionRepositoryCustomImpl implements AuctionRepositoryCustom {
+
+    private static final String[] HIGHEST_BID_FIELDS = {"highestBidId", "highestBidPrice", "highestBidder"};
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public Document recordHighestBid(String auctionId, String bidId, int price, UserEntity bidder) {
+        Criteria beatsCurrentBid = new Criteria().orOperator(
+            where("highestBidPrice").lt(price),
+            where("highestBidPrice").is(null).and("startPrice").lte(price)
+        );
+        Criteria beforeEnd = new Criteria().orOperator(
+            where("endsAt").is(null),
+            where("endsAt").gt(LocalDateTime.now())
+        );
+        Criteria criteria = where("_id").is(Lookups.id(auctionId)).and("open").is(true).andOperator(beatsCurrentBid, beforeEnd);
+        Query query = query(criteria);
+        query.fields().include(HIGHEST_BID_FIELDS);
+
+        // On raw documents, so the replaced bidder comes back as its id instead of being loaded
+        Update update = new Update()
+            .set("highestBidPrice", price)
+            .set("highestBidId", bidId)
+            .set("highestBidder", Lookups.id(bidder.getId()))
+            .inc("bidCount", 1)
+            .inc("version", 1);
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(false), Document.class, Lookups.AUCTIONS);
+    }
+
+    @Override
+    public boolean restoreHighestBid(String auctionId, String bidId, Document previous) {
+        Update update = new Update().inc("bidCount", -1).inc("version", 1);
+        for (String field : HIGHEST_BID_FIELDS) {
+            if (previous.get(field) != null) {
+                update.set(field, previous.get(field));
+            } else {
+                update.unset(field);
+            }
+        }
+
+        Query query = query(where("_id").is(Lookups.id(auctionId)).and("highestBidId").is(bidId));
+        return mongoTemplate.updateFirst(query, update, Lookups.AUCTIONS).getModifiedCount() == 1;
+    }
+
+    @Override
+    public AuctionEntity closeIfOpen(String auctionId) {
+        return mongoTemplate.findAndModify(
+            query(where("id").is(auctionId).and("open").is(true)),
+            new Update().set("open", false).inc("version", 1),
+            FindAndModifyOptions.options().returnNew(true),
+            AuctionEntity.class
+        );
+    }
+
+    @Override
+    public AuctionEntity findClosedUnsettled(String auctionId) {
+        return mongoTemplate.findOne(query(where("id").is(auctionId).and("open").is(false).and("settled").ne(true)), AuctionEntity.class);
+    }
+
+    @Override
+    public AuctionEntity markSettled(String auctionId) {
+        return mongoTemplate.findAndModify(
+            query(where("id").is(auctionId)),
+            new Update().set("settled", true).inc("version", 1),
+            FindAndModifyOptions.options().returnNew(true),
+            AuctionEntity.class
+        );
+    }
+
+    @Override
+    public AuctionEntity updateDetails(String auctionId, Long expectedVersion, String title, String description) {
+        Criteria criteria = where("id").is(auctionId);
+        if (expectedVersion != null) {
+            criteria = criteria.and("version").is(expectedVersion);
+        }
+
+        return mongoTemplate.findAndModify(
+            query(criteria),
+            new Update().set("title", title).set("description", description).inc("version", 1),
+            FindAndModifyOptions.options().returnNew(true),
+            AuctionEntity.class
+        );
+    }
+
+    @Override
+    public Long findVersionById(String auctionId) {
+        Query query = query(where("id").is(auctionId));
+        query.fields().include("version");
+
+        Document auction = mongoTemplate.findOne(query, Document.class, Lookups.AUCTIONS);
+        if (auction == null) {
+            return null;
+        }
+        // Documents written before versioning count as version 0, like a first save would
+        Number version = auction.get("version", Number.class);
+        return version != null ? version.longValue() : 0L;
+    }
+
+    @Override
+    public Set<String> findItemsInOpenAuctions(Collection<String> itemIds) {
+        List<Object> ids = itemIds.stream().map(Lookups::id).toList();
+        Set<String> inOpenAuctions = new HashSet<>();
+        mongoTemplate.findDistinct(query(where("item").in(ids).and("open").is(true)), "item", Lookups.AUCTIONS, Object.class)
+            .forEach(id -> inOpenAuctions.add(id.toString()));
+        return inOpenAuctions;
+    }
+
+    @Override
+    public Set<Integer> insertAll(List<AuctionEntity> auctions) {
+        Set<Integer> failed = new HashSet<>();
+        if (auctions.isEmpty()) {
+            return failed;
+        }
+
+        // Bulk inserts don't initialize the version like repository saves do
+        auctions.stream()
+            .filter(auction -> auction.getVersion() == null)
+            .forEach(auction -> auction.setVersion(0L));
+
+        try {
+            mongoTemplate.bulkOps(BulkMode.UNORDERED, AuctionEntity.class)
+                .insert(auctions)
+                .execute();
+        } catch (BulkOperationException ex) {
+            for (BulkWriteError error : ex.getErrors()) {
+                failed.add(error.getIndex());
+            }
+        }
+        return failed;
+    }
+}
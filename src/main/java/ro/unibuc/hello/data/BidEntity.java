@@ -1,10 +1,20 @@
 package ro.unibuc.hello.data;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DocumentReference;
 
 @Document
+@CompoundIndexes({
+    // Bids of an auction and its top bid without a collection scan
+    @CompoundIndex(name = "auction_price", def = "{'auction': 1, 'price': -1}"),
+    // Pages of an auction's bids
+    @CompoundIndex(name = "auction_id", def = "{'auction': 1, '_id': 1}"),
+    // Bids of a user in insertion order
+    @CompoundIndex(name = "bidder_id", def = "{'bidder': 1, '_id': 1}")
+})
 public class BidEntity {
 
     @Id
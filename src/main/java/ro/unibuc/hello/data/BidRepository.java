@@ -1,6 +1,7 @@
 package ro.unibuc.hello.data;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
@@ -13,5 +14,6 @@ import org.springframework.stereotype.Repository;
 public interface BidRepository extends MongoRepository<BidEntity, String> {
 
     List<BidEntity> findByAuction(AuctionEntity auction);
+    Optional<BidEntity> findFirstByAuctionOrderByPriceDesc(AuctionEntity auction);
     List<BidEntity> findByBidder(UserEntity bidder);
 }
@@ -0,0 +1,41 @@
+package ro.unibuc.hello.data;
+
+import java.util.Date;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Whole-collection reads that walk a Mongo cursor instead of loading a list. The streams hold an open cursor
+ * and must be closed, use them in try-with-resources.
+ */
+@Repository
+public class CursorReadRepository {
+
+    // Documents fetched per round trip, this is all that is held in memory at a time
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // Only the id and end time, the rest of the auction is read when it is settled
+    public Stream<Document> streamOpenAuctionDeadlines() {
+        Query query = Query.query(Criteria.where("open").is(true).and("endsAt").ne(null))
+            .cursorBatchSize(BATCH_SIZE);
+        query.fields().include("endsAt");
+        return mongoTemplate.stream(query, Document.class, Lookups.AUCTIONS);
+    }
+
+    // Only the ids of the open auctions whose end time is before the given one
+    public Stream<Document> streamOverdueAuctions(Date endedBefore) {
+        Query query = Query.query(Criteria.where("open").is(true).and("endsAt").lt(endedBefore))
+            .cursorBatchSize(BATCH_SIZE);
+        query.fields().include("_id");
+        return mongoTemplate.stream(query, Document.class, Lookups.AUCTIONS);
+    }
+}
@@ -1,10 +1,14 @@
 package ro.unibuc.hello.data;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DocumentReference;
 
 @Document
+// Pages of a user's items
+@CompoundIndex(name = "owner_id", def = "{'owner': 1, '_id': 1}")
 public class ItemEntity {
 
     @Id
@@ -16,6 +20,9 @@ public class ItemEntity {
     @DocumentReference
     private UserEntity owner;
 
+    @Version
+    private Long version;
+
     public ItemEntity() {}
 
     public ItemEntity(String name, String description, UserEntity owner) {
@@ -63,6 +70,14 @@ public class ItemEntity {
         return owner;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Item name : " + name + "\nItem description : " + description + "\n";
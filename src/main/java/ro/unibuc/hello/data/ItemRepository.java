@@ -10,7 +10,7 @@ import org.springframework.stereotype.Repository;
  * Spring Data MongoDB automatically creates a class it implementing the interface when you run the application.
  */
 @Repository
-public interface ItemRepository extends MongoRepository<ItemEntity, String> {
+public interface ItemRepository extends MongoRepository<ItemEntity, String>, ItemRepositoryCustom {
 
     List<ItemEntity> findByOwner(UserEntity owner);
 }
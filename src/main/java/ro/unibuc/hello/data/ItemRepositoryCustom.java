@@ -0,0 +1,19 @@
+package ro.unibuc.hello.data;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Set-based item reads.
+ * Implemented by {@link ItemRepositoryCustomImpl} and mixed into {@link ItemRepository} by Spring Data.
+ */
+public interface ItemRepositoryCustom {
+
+    /**
+     * Loads the items with one query without resolving their owners: the owner of each returned item only
+     * has its id set.
+     *
+     * @return the items found, by id
+     */
+    Map<String, ItemEntity> findAllByIdWithOwnerId(Collection<String> itemIds);
+}
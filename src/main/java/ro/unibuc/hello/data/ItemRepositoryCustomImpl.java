@@ -0,0 +1,38 @@
+package ro.unibuc.hello.data;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public Map<String, ItemEntity> findAllByIdWithOwnerId(Collection<String> itemIds) {
+        List<Object> ids = itemIds.stream().map(Lookups::id).toList();
+        Query query = query(where("_id").in(ids));
+        query.fields().include("name", "description", "owner");
+
+        Map<String, ItemEntity> items = new HashMap<>();
+        for (Document document : mongoTemplate.find(query, Document.class, Lookups.ITEMS)) {
+            UserEntity owner = new UserEntity();
+            Object ownerId = document.get("owner");
+            owner.setId(ownerId != null ? ownerId.toString() : null);
+
+            String id = document.get("_id").toString();
+            items.put(id, new ItemEntity(id, document.getString("name"), document.getString("description"), owner));
+        }
+        return items;
+    }
+}
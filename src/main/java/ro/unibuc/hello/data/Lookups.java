@@ -0,0 +1,85 @@
+package ro.unibuc.hello.data;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.limit;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.lookup;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.sort;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.unwind;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+/**
+ * Aggregations that join the referenced documents with {@code $lookup} instead of resolving every
+ * {@code @DocumentReference} with its own query.
+ *
+ * The pipelines work on raw documents, so ids in criteria must be given as stored, see {@link #id(String)}.
+ *
+ * A reference to a deleted document joins nothing. The row is kept with the field missing, and the DTOs show
+ * it as null, the same as {@link ReferenceLoader} does for the paged reads.
+ */
+public final class Lookups {
+
+    public static final String USERS = "userEntity";
+    public static final String ITEMS = "itemEntity";
+    public static final String AUCTIONS = "auctionEntity";
+    public static final String BIDS = "bidEntity";
+
+    private Lookups() {}
+
+    /**
+     * Returns the id the way Spring Data stores it: valid hex strings as ObjectId, anything else as is.
+     */
+    public static Object id(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    public static Aggregation auctionsWithAuctioneerAndItem(Criteria criteria) {
+        return join(criteria, 0,
+            lookup(USERS, "auctioneer", "_id", "auctioneer"),
+            unwind("auctioneer", true),
+            lookup(ITEMS, "item", "_id", "item"),
+            unwind("item", true));
+    }
+
+    public static Aggregation itemsWithOwner(Criteria criteria) {
+        return join(criteria, 0,
+            lookup(USERS, "owner", "_id", "owner"),
+            unwind("owner", true));
+    }
+
+    public static Aggregation bidsWithBidder(Criteria criteria) {
+        return join(criteria, 0,
+            lookup(USERS, "bidder", "_id", "bidder"),
+            unwind("bidder", true));
+    }
+
+    public static Aggregation bidsWithAuction(Criteria criteria) {
+        return bidsWithAuction(criteria, 0);
+    }
+
+    public static Aggregation bidsWithAuction(Criteria criteria, long limit) {
+        return join(criteria, limit,
+            lookup(AUCTIONS, "auction", "_id", "auction"),
+            unwind("auction", true));
+    }
+
+    // Matches and sorts by id, then joins only the documents that survive the limit (0 means no limit)
+    private static Aggregation join(Criteria criteria, long limit, AggregationOperation... lookups) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        stages.add(match(criteria));
+        stages.add(sort(Sort.Direction.ASC, "_id"));
+        if (limit > 0) {
+            stages.add(limit(limit));
+        }
+        stages.addAll(List.of(lookups));
+        return newAggregation(stages);
+    }
+}
@@ -0,0 +1,79 @@
+package ro.unibuc.hello.data;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.format.annotation.DateTimeFormat;
+
+/**
+ * The most a bidder is willing to pay for an auction. Never shown to other users, the bidding engine bids on the
+ * bidder's behalf up to this ceiling.
+ */
+@Document
+@CompoundIndex(name = "auction_bidder", def = "{'auctionId': 1, 'bidderId': 1}", unique = true)
+public class MaxBidEntity {
+
+    @Id
+    private String id;
+
+    // Plain ids, the engine never needs the referenced documents
+    private String auctionId;
+    private String bidderId;
+
+    private int maxPrice;
+
+    // Breaks ties between equal ceilings, the earlier one wins
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime placedAt;
+
+    public MaxBidEntity() {}
+
+    public MaxBidEntity(String auctionId, String bidderId, int maxPrice, LocalDateTime placedAt) {
+        this.auctionId = auctionId;
+        this.bidderId = bidderId;
+        this.maxPrice = maxPrice;
+        this.placedAt = placedAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getAuctionId() {
+        return auctionId;
+    }
+
+    public void setAuctionId(String auctionId) {
+        this.auctionId = auctionId;
+    }
+
+    public String getBidderId() {
+        return bidderId;
+    }
+
+    public void setBidderId(String bidderId) {
+        this.bidderId = bidderId;
+    }
+
+    public int getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(int maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public LocalDateTime getPlacedAt() {
+        return placedAt;
+    }
+
+    public void setPlacedAt(LocalDateTime placedAt) {
+        this.placedAt = placedAt;
+    }
+}
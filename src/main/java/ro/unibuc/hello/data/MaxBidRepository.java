@@ -0,0 +1,15 @@
+package ro.unibuc.hello.data;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MaxBidRepository extends MongoRepository<MaxBidEntity, String> {
+
+    List<MaxBidEntity> findByAuctionId(String auctionId);
+    Optional<MaxBidEntity> findByAuctionIdAndBidderId(String auctionId, String bidderId);
+    void deleteByAuctionId(String auctionId);
+}
@@ -3,6 +3,7 @@ package ro.unibuc.hello.data;
 import java.util.Collection;
 import java.util.Collections;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.config.AbstractMongoClientConfiguration;
@@ -15,12 +16,30 @@ import com.mongodb.client.MongoClients;
 @Configuration
 public class MongoConfig extends AbstractMongoClientConfiguration {
 
+    public static final String DATABASE_NAME = "test";
+
+    // The driver's own default, enough for a bounded pool of request threads
+    static final int DEFAULT_POOL_SIZE = 100;
+
+    // With virtual threads nothing else caps the requests waiting on Mongo at once, the pool is the limit
+    static final int VIRTUAL_THREADS_POOL_SIZE = 500;
+
     @Value("${mongodb.connection.url}")
     private String connectionURL;
 
+    // 0 sizes the pool for the threading mode
+    @Value("${mongodb.pool.max-size:0}")
+    private int maxPoolSize;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private MongoMetrics mongoMetrics;
+
     @Override
     protected String getDatabaseName() {
-        return "test";
+        return DATABASE_NAME;
     }
 
     @Override
@@ -30,9 +49,10 @@ public class MongoConfig extends AbstractMongoClientConfiguration {
 
     @Override
     public MongoClient mongoClient() {
-        MongoClientSettings mongoClientSettings = MongoClientSettings.builder()
+        MongoClientSettings.Builder settings = MongoClientSettings.builder()
                 .applyConnectionString(new ConnectionString(connectionURL))
-                .build();
+                .applyToConnectionPoolSettings(pool -> pool.maxSize(poolSize(maxPoolSize, virtualThreads)));
+        MongoClientSettings mongoClientSettings = mongoMetrics.instrument(settings, "sync").build();
 
         return MongoClients.create(mongoClientSettings);
     }
@@ -41,4 +61,11 @@ public class MongoConfig extends AbstractMongoClientConfiguration {
     public Collection<String> getMappingBasePackages() {
         return Collections.singleton("ro.unibuc.hello.data");
     }
+
+    static int poolSize(int configured, boolean virtualThreads) {
+        if (configured > 0) {
+            return configured;
+        }
+        return virtualThreads ? VIRTUAL_THREADS_POOL_SIZE : DEFAULT_POOL_SIZE;
+    }
 }
@@ -0,0 +1,111 @@
+package ro.unibuc.hello.data;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.event.CommandEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.mongodb.DefaultMongoCommandTagsProvider;
+import io.micrometer.core.instrument.binder.mongodb.DefaultMongoConnectionPoolTagsProvider;
+import io.micrometer.core.instrument.binder.mongodb.MongoCommandTagsProvider;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsCommandListener;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsConnectionPoolListener;
+
+/**
+ * Driver metrics for the Mongo clients, tagged with the client they come from:
+ * <ul>
+ * <li>mongodb.driver.commands: a timer per command and collection</li>
+ * <li>mongodb.driver.pool.size, checkedout and waitqueuesize: gauges per pool</li>
+ * <li>mongodb.driver.pool.checkout: how long requests waited for a connection, by outcome</li>
+ * </ul>
+ * Slow commands with short checkouts mean Mongo is slow, long checkouts with fast commands mean the pool is too
+ * small for the load.
+ */
+@Component
+public class MongoMetrics {
+
+    public static final String CHECKOUT_TIMER = "mongodb.driver.pool.checkout";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Adds the command and connection pool listeners to the settings of a client.
+     */
+    public MongoClientSettings.Builder instrument(MongoClientSettings.Builder settings, String client) {
+        DefaultMongoConnectionPoolTagsProvider poolTags = new DefaultMongoConnectionPoolTagsProvider();
+        return settings
+            .addCommandListener(new MongoMetricsCommandListener(meterRegistry, new ClientCommandTags(client)))
+            .applyToConnectionPoolSettings(pool -> pool
+                .addConnectionPoolListener(new MongoMetricsConnectionPoolListener(meterRegistry,
+                    event -> Tags.of("client", client).and(poolTags.connectionPoolTags(event))))
+                .addConnectionPoolListener(new CheckoutTimer(client)));
+    }
+
+    // The default tags remember the collection of each started command, so both callbacks are passed on
+    private static final class ClientCommandTags implements MongoCommandTagsProvider {
+
+        private final MongoCommandTagsProvider defaults = new DefaultMongoCommandTagsProvider();
+        private final Tag client;
+
+        private ClientCommandTags(String client) {
+            this.client = Tag.of("client", client);
+        }
+
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            defaults.commandStarted(event);
+        }
+
+        @Override
+        public Iterable<Tag> commandTags(CommandEvent event) {
+            return Tags.of(client).and(defaults.commandTags(event));
+        }
+    }
+
+    private final class CheckoutTimer implements ConnectionPoolListener {
+
+        private final Timer checkedOut;
+        private final Map<ConnectionCheckOutFailedEvent.Reason, Timer> failed = new EnumMap<>(ConnectionCheckOutFailedEvent.Reason.class);
+
+        private CheckoutTimer(String client) {
+            checkedOut = timer(client, "ok");
+            for (ConnectionCheckOutFailedEvent.Reason reason : ConnectionCheckOutFailedEvent.Reason.values()) {
+                failed.put(reason, timer(client, reason.name().toLowerCase(Locale.ROOT)));
+            }
+        }
+
+        @Override
+        public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+            checkedOut.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+            failed.get(event.getReason()).record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        }
+
+        private Timer timer(String client, String outcome) {
+            return Timer.builder(CHECKOUT_TIMER)
+                .description("Time spent waiting for a pooled connection")
+                .tag("client", client)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ro.unibuc.hello.data;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Keyset pages for the list endpoints, read as raw documents to be mapped into the DTOs.
+ *
+ * Loading the entities instead resolves every {@code @DocumentReference} with its own query, so a page of
+ * auctions would cost up to three extra round trips per auction. Users and items are resolved per page with the
+ * {@link ReferenceLoader}, auctions of bids are joined with a {@link Lookups} aggregation. {@code after} is the id
+ * of the last document of the previous page, null for the first page.
+ */
+@Repository
+public class PageReadRepository {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public Window<Document> findAuctions(Criteria criteria, String after, Limit limit) {
+        return find(criteria, after, limit, Lookups.AUCTIONS);
+    }
+
+    public Window<Document> findUsers(Criteria criteria, String after, Limit limit) {
+        // Only what the DTO shows, the password never leaves the database
+        return find(criteria, after, limit, Lookups.USERS, "name");
+    }
+
+    public Window<Document> findItems(Criteria criteria, String after, Limit limit) {
+        return find(criteria, after, limit, Lookups.ITEMS);
+    }
+
+    public Window<Document> findBids(Criteria criteria, String after, Limit limit) {
+        return find(criteria, after, limit, Lookups.BIDS);
+    }
+
+    public Window<Document> findBidsWithAuction(Criteria criteria, String after, Limit limit) {
+        // One extra document tells whether there is a next page
+        Aggregation pipeline = Lookups.bidsWithAuction(afterCursor(criteria, after), limit.max() + 1);
+        return window(mongoTemplate.aggregate(pipeline, Lookups.BIDS, Document.class).getMappedResults(), limit);
+    }
+
+    // References are left as ids, resolve the ones the DTO needs with the ReferenceLoader
+    private Window<Document> find(Criteria criteria, String after, Limit limit, String collection, String... fields) {
+        Query query = Query.query(afterCursor(criteria, after))
+            .with(Sort.by(Sort.Direction.ASC, "_id"))
+            .limit(limit.max() + 1);
+        query.fields().include(fields);
+        return window(mongoTemplate.find(query, Document.class, collection), limit);
+    }
+
+    private static Criteria afterCursor(Criteria criteria, String after) {
+        if (after == null || after.isBlank()) {
+            return criteria;
+        }
+        return new Criteria().andOperator(criteria, where("_id").gt(Lookups.id(after)));
+    }
+
+    private static Window<Document> window(List<Document> documents, Limit limit) {
+        boolean hasNext = documents.size() > limit.max();
+        List<Document> content = hasNext ? documents.subList(0, limit.max()) : documents;
+        return Window.from(content,
+            index -> ScrollPosition.forward(Map.of("_id", content.get(index).get("_id").toString())),
+            hasNext);
+    }
+}
@@ -0,0 +1,45 @@
+package ro.unibuc.hello.data;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+
+/**
+ * Non-blocking client for the read-only endpoints, pointing at the same database as {@link MongoConfig}.
+ */
+@Configuration
+public class ReactiveMongoConfig {
+
+    @Value("${mongodb.connection.url}")
+    private String connectionURL;
+
+    @Value("${mongodb.pool.max-size:0}")
+    private int maxPoolSize;
+
+    @Autowired
+    private MongoMetrics mongoMetrics;
+
+    @Bean
+    public MongoClient reactiveMongoClient() {
+        MongoClientSettings.Builder settings = MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(connectionURL))
+                // Operations don't hold a thread here, so the threading mode doesn't change what the pool needs
+                .applyToConnectionPoolSettings(pool -> pool.maxSize(MongoConfig.poolSize(maxPoolSize, false)));
+        MongoClientSettings mongoClientSettings = mongoMetrics.instrument(settings, "reactive").build();
+
+        return MongoClients.create(mongoClientSettings);
+    }
+
+    @Bean
+    public ReactiveMongoTemplate reactiveMongoTemplate(MongoClient reactiveMongoClient) {
+        return new ReactiveMongoTemplate(new SimpleReactiveMongoDatabaseFactory(reactiveMongoClient, MongoConfig.DATABASE_NAME));
+    }
+}
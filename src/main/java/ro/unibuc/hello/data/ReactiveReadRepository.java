@@ -0,0 +1,56 @@
+package ro.unibuc.hello.data;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads for the public endpoints.
+ *
+ * Reactive repositories can't resolve {@code @DocumentReference} fields, so the references are joined in the
+ * database with the {@link Lookups} pipelines and the results are returned as raw documents.
+ */
+@Repository
+public class ReactiveReadRepository {
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public Flux<Document> findAuctionsWithAuctioneerAndItem(Criteria criteria) {
+        return reactiveMongoTemplate.aggregate(Lookups.auctionsWithAuctioneerAndItem(criteria), Lookups.AUCTIONS, Document.class);
+    }
+
+    public Flux<Document> findItemsWithOwner(Criteria criteria) {
+        return reactiveMongoTemplate.aggregate(Lookups.itemsWithOwner(criteria), Lookups.ITEMS, Document.class);
+    }
+
+    public Flux<Document> findBidsWithBidder(Criteria criteria) {
+        return reactiveMongoTemplate.aggregate(Lookups.bidsWithBidder(criteria), Lookups.BIDS, Document.class);
+    }
+
+    public Flux<Document> findBidsWithAuction(Criteria criteria) {
+        return reactiveMongoTemplate.aggregate(Lookups.bidsWithAuction(criteria), Lookups.BIDS, Document.class);
+    }
+
+    public Flux<Document> findItems(Criteria criteria) {
+        Query query = Query.query(criteria).with(Sort.by(Sort.Direction.ASC, "_id"));
+        return reactiveMongoTemplate.find(query, Document.class, Lookups.ITEMS);
+    }
+
+    public Flux<Document> findUsers() {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id"));
+        query.fields().include("name");
+        return reactiveMongoTemplate.find(query, Document.class, Lookups.USERS);
+    }
+
+    public Mono<Boolean> exists(String collection, String id) {
+        return reactiveMongoTemplate.exists(Query.query(Criteria.where("_id").is(Lookups.id(id))), collection);
+    }
+}
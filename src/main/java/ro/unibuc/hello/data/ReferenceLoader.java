@@ -0,0 +1,69 @@
+package ro.unibuc.hello.data;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * Batches the resolution of user and item references for the current request.
+ *
+ * The ids referenced by a whole page are collected first and every id not seen yet in this request is loaded
+ * with a single {@code $in} query per collection, so a bidder appearing on 500 bids is read once. Only the
+ * fields the DTOs show are fetched. A reference to a deleted document resolves to null.
+ */
+@Component
+@RequestScope
+public class ReferenceLoader {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final Map<Object, Document> users = new HashMap<>();
+    private final Map<Object, Document> items = new HashMap<>();
+
+    /**
+     * Replaces the user id stored in {@code field} of every document with the user document.
+     */
+    public Window<Document> withUsers(Window<Document> page, String field) {
+        return resolve(page, field, Lookups.USERS, users, "name");
+    }
+
+    /**
+     * Replaces the item id stored in {@code field} of every document with the item document.
+     */
+    public Window<Document> withItems(Window<Document> page, String field) {
+        return resolve(page, field, Lookups.ITEMS, items, "name", "description");
+    }
+
+    private Window<Document> resolve(Window<Document> page, String field, String collection,
+                                     Map<Object, Document> loaded, String... fields) {
+        Set<Object> missing = new HashSet<>();
+        for (Document document : page) {
+            Object id = document.get(field);
+            if (id != null && !loaded.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Query query = Query.query(where("_id").in(missing));
+            query.fields().include(fields);
+            for (Document referenced : mongoTemplate.find(query, Document.class, collection)) {
+                loaded.put(referenced.get("_id"), referenced);
+            }
+        }
+
+        return page.map(document -> new Document(document).append(field, loaded.get(document.get(field))));
+    }
+}
@@ -1,20 +1,26 @@
 package ro.unibuc.hello.data;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document
 public class UserEntity {
 
+    public static final String USERNAME_INDEX = "username";
+
     @Id
     private String id;
     private String name;
     private String password;
 
-    @Indexed(unique = true)    
+    @Indexed(name = USERNAME_INDEX, unique = true)
     private String username;
 
+    @Version
+    private Long version;
+
     public UserEntity() {}
 
     public UserEntity(String name, String password, String username) {
@@ -35,6 +41,7 @@ public class UserEntity {
         this.name = other.name;
         this.password = other.password;
         this.username = other.username;
+        this.version = other.version;
     }
 
     public String getPassword() {
@@ -69,6 +76,14 @@ public class UserEntity {
         this.name = name;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         StringBuilder print = new StringBuilder("Users: " + "Name: " + name + " Username: " + username);
@@ -0,0 +1,41 @@
+package ro.unibuc.hello.data;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives documents written before versioning version 0, like a first save would.
+ *
+ * Spring Data inserts an entity whose {@code @Version} is null, so saving such a document after reading it would
+ * fail on its {@code _id} instead of updating it.
+ */
+@Component
+public class VersionBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(VersionBackfill.class);
+
+    private static final String[] VERSIONED = {Lookups.USERS, Lookups.ITEMS, Lookups.AUCTIONS};
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        for (String collection : VERSIONED) {
+            long updated = mongoTemplate.updateMulti(query(where("version").exists(false)), new Update().set("version", 0L), collection)
+                .getModifiedCount();
+            if (updated > 0) {
+                log.info("Set version 0 on {} documents of {}", updated, collection);
+            }
+        }
+    }
+}
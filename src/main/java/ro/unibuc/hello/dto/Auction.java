@@ -1,5 +1,7 @@
 package ro.unibuc.hello.dto;
 
+import org.bson.Document;
+
 import ro.unibuc.hello.data.AuctionEntity;
 
 public class Auction {
@@ -30,6 +32,24 @@ public class Auction {
         );
     }
 
+    public Auction(Document document) {
+        this(
+            document.get("_id").toString(),
+            document.getString("title"),
+            document.getString("description"),
+            document.getInteger("startPrice", 0),
+            document.getBoolean("open", false) ? "open" : "closed"
+        );
+    }
+
+    public static Auction fromReference(AuctionEntity entity) {
+        return entity != null ? new Auction(entity) : null;
+    }
+
+    public static Auction fromReference(Document document) {
+        return document != null ? new Auction(document) : null;
+    }
+
     public String getId() {
         return id;
     }
@@ -0,0 +1,51 @@
+package ro.unibuc.hello.dto;
+
+/**
+ * Outcome of one row of a bulk auction creation: the created auction, or why the row was rejected.
+ */
+public class AuctionBulkResult {
+
+    private int index;
+    private AuctionWithAuctioneerAndItem auction;
+    private String error;
+
+    public AuctionBulkResult() {}
+
+    public AuctionBulkResult(int index, AuctionWithAuctioneerAndItem auction, String error) {
+        this.index = index;
+        this.auction = auction;
+        this.error = error;
+    }
+
+    public static AuctionBulkResult created(int index, AuctionWithAuctioneerAndItem auction) {
+        return new AuctionBulkResult(index, auction, null);
+    }
+
+    public static AuctionBulkResult failed(int index, String error) {
+        return new AuctionBulkResult(index, null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public AuctionWithAuctioneerAndItem getAuction() {
+        return auction;
+    }
+
+    public void setAuction(AuctionWithAuctioneerAndItem auction) {
+        this.auction = auction;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -1,11 +1,14 @@
 package ro.unibuc.hello.dto;
 
+import java.time.LocalDateTime;
+
 public class AuctionPost {
 
     private String title;
     private String description;
     private int startPrice;
     private String itemId;
+    private LocalDateTime endsAt;
 
     public AuctionPost(String title, String description, int startPrice, String itemId) {
         this.title = title;
@@ -45,4 +48,12 @@ public class AuctionPost {
     public void setItemId(String itemId) {
         this.itemId = itemId;
     }
+
+    public LocalDateTime getEndsAt() {
+        return endsAt;
+    }
+
+    public void setEndsAt(LocalDateTime endsAt) {
+        this.endsAt = endsAt;
+    }
 }
@@ -1,5 +1,13 @@
 package ro.unibuc.hello.dto;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+import org.bson.Document;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import ro.unibuc.hello.data.AuctionEntity;
 
 public class AuctionWithAuctioneerAndItem {
@@ -11,6 +19,10 @@ public class AuctionWithAuctioneerAndItem {
     private String status;
     private User auctioneer;
     private Item item;
+    private LocalDateTime endsAt;
+
+    @JsonIgnore
+    private Long version;
 
     public AuctionWithAuctioneerAndItem() {}
 
@@ -31,9 +43,26 @@ public class AuctionWithAuctioneerAndItem {
             entity.getDescription(),
             entity.getStartPrice(),
             entity.isOpen() ? "open" : "closed",
-            new User(entity.getAuctioneer()),
-            new Item(entity.getItem())
+            User.fromReference(entity.getAuctioneer()),
+            Item.fromReference(entity.getItem())
+        );
+        this.endsAt = entity.getEndsAt();
+        this.version = entity.getVersion();
+    }
+
+    public AuctionWithAuctioneerAndItem(Document document) {
+        this(
+            document.get("_id").toString(),
+            document.getString("title"),
+            document.getString("description"),
+            document.getInteger("startPrice", 0),
+            document.getBoolean("open", false) ? "open" : "closed",
+            User.fromReference(document.get("auctioneer", Document.class)),
+            Item.fromReference(document.get("item", Document.class))
         );
+        Date endsAt = document.getDate("endsAt");
+        // Stored the way Spring Data writes a LocalDateTime, in the system time zone
+        this.endsAt = endsAt != null ? LocalDateTime.ofInstant(endsAt.toInstant(), ZoneId.systemDefault()) : null;
     }
 
     public String getId() {
@@ -91,4 +120,20 @@ public class AuctionWithAuctioneerAndItem {
     public void setStatus(String status) {
         this.status = status;
     }
+
+    public LocalDateTime getEndsAt() {
+        return endsAt;
+    }
+
+    public void setEndsAt(LocalDateTime endsAt) {
+        this.endsAt = endsAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -1,5 +1,7 @@
 package ro.unibuc.hello.dto;
 
+import org.bson.Document;
+
 import ro.unibuc.hello.data.AuctionEntity;
 
 public class AuctionWithItem {
@@ -29,7 +31,18 @@ public class AuctionWithItem {
             entity.getDescription(),
             entity.getStartPrice(),
             entity.isOpen() ? "open" : "closed",
-            new Item(entity.getItem())
+            Item.fromReference(entity.getItem())
+        );
+    }
+
+    public AuctionWithItem(Document document) {
+        this(
+            document.get("_id").toString(),
+            document.getString("title"),
+            document.getString("description"),
+            document.getInteger("startPrice", 0),
+            document.getBoolean("open", false) ? "open" : "closed",
+            Item.fromReference(document.get("item", Document.class))
         );
     }
 
@@ -1,5 +1,7 @@
 package ro.unibuc.hello.dto;
 
+import org.bson.Document;
+
 import ro.unibuc.hello.data.BidEntity;
 
 public class BidWithAuction {
@@ -20,7 +22,15 @@ public class BidWithAuction {
         this(
             entity.getId(),
             entity.getPrice(),
-            new Auction(entity.getAuction())
+            Auction.fromReference(entity.getAuction())
+        );
+    }
+
+    public BidWithAuction(Document document) {
+        this(
+            document.get("_id").toString(),
+            document.getInteger("price", 0),
+            Auction.fromReference(document.get("auction", Document.class))
         );
     }
 
@@ -1,5 +1,7 @@
 package ro.unibuc.hello.dto;
 
+import org.bson.Document;
+
 import ro.unibuc.hello.data.BidEntity;
 
 public class BidWithBidder {
@@ -20,7 +22,15 @@ public class BidWithBidder {
         this(
             entity.getId(),
             entity.getPrice(),
-            new User(entity.getBidder())
+            User.fromReference(entity.getBidder())
+        );
+    }
+
+    public BidWithBidder(Document document) {
+        this(
+            document.get("_id").toString(),
+            document.getInteger("price", 0),
+            User.fromReference(document.get("bidder", Document.class))
         );
     }
 
@@ -1,5 +1,7 @@
 package ro.unibuc.hello.dto;
 
+import org.bson.Document;
+
 import ro.unibuc.hello.data.ItemEntity;
 
 public class Item {
@@ -23,6 +25,22 @@ public class Item {
         );
     }
 
+    public Item(Document document) {
+        this(
+            document.get("_id").toString(),
+            document.getString("name"),
+            document.getString("description")
+        );
+    }
+
+    public static Item fromReference(ItemEntity entity) {
+        return entity != null ? new Item(entity) : null;
+    }
+
+    public static Item fromReference(Document document) {
+        return document != null ? new Item(document) : null;
+    }
+
     public String getId() {
         return id;
     }
@@ -1,5 +1,9 @@
 package ro.unibuc.hello.dto;
 
+import org.bson.Document;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import ro.unibuc.hello.data.ItemEntity;
 
 public class ItemWithOwner {
@@ -8,6 +12,9 @@ public class ItemWithOwner {
     private String description;
     private User owner;
 
+    @JsonIgnore
+    private Long version;
+
     public ItemWithOwner(){}
 
     public ItemWithOwner(String id, String name, String description, User owner) {
@@ -22,7 +29,17 @@ public class ItemWithOwner {
             entity.getId(),
             entity.getName(),
             entity.getDescription(),
-            new User(entity.getOwner())
+            User.fromReference(entity.getOwner())
+        );
+        this.version = entity.getVersion();
+    }
+
+    public ItemWithOwner(Document document) {
+        this(
+            document.get("_id").toString(),
+            document.getString("name"),
+            document.getString("description"),
+            User.fromReference(document.get("owner", Document.class))
         );
     }
 
@@ -57,4 +74,12 @@ public class ItemWithOwner {
     public void setOwner(User owner) {
         this.owner = owner;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,53 @@
+package ro.unibuc.hello.dto;
+
+/**
+ * The caller's max bid on an auction and where it stands, other bidders' ceilings are never shown.
+ */
+public class MaxBid {
+
+    private String auctionId;
+    private int maxPrice;
+    private boolean leading;
+    private Integer currentPrice;
+
+    public MaxBid() {}
+
+    public MaxBid(String auctionId, int maxPrice, boolean leading, Integer currentPrice) {
+        this.auctionId = auctionId;
+        this.maxPrice = maxPrice;
+        this.leading = leading;
+        this.currentPrice = currentPrice;
+    }
+
+    public String getAuctionId() {
+        return auctionId;
+    }
+
+    public void setAuctionId(String auctionId) {
+        this.auctionId = auctionId;
+    }
+
+    public int getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(int maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public boolean isLeading() {
+        return leading;
+    }
+
+    public void setLeading(boolean leading) {
+        this.leading = leading;
+    }
+
+    public Integer getCurrentPrice() {
+        return currentPrice;
+    }
+
+    public void setCurrentPrice(Integer currentPrice) {
+        this.currentPrice = currentPrice;
+    }
+}
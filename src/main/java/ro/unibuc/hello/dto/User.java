@@ -1,5 +1,9 @@
 package ro.unibuc.hello.dto;
 
+import org.bson.Document;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import ro.unibuc.hello.data.UserEntity;
 
 public class User {
@@ -7,6 +11,9 @@ public class User {
     private String id;
     private String name;
 
+    @JsonIgnore
+    private Long version;
+
     public User() {}
 
     public User(String id, String name) {
@@ -16,6 +23,19 @@ public class User {
 
     public User(UserEntity entity) {
         this(entity.getId(), entity.getName());
+        this.version = entity.getVersion();
+    }
+
+    public User(Document document) {
+        this(document.get("_id").toString(), document.getString("name"));
+    }
+
+    public static User fromReference(UserEntity entity) {
+        return entity != null ? new User(entity) : null;
+    }
+
+    public static User fromReference(Document document) {
+        return document != null ? new User(document) : null;
     }
 
     public String getId() {
@@ -34,6 +54,14 @@ public class User {
         this.name = name;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         StringBuilder print = new StringBuilder(
@@ -3,6 +3,8 @@ package ro.unibuc.hello.exception;
 import java.time.LocalDateTime;
 import java.util.Map;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
@@ -40,6 +42,25 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Map<String, Object>> handlePreconditionFailedException(PreconditionFailedException ex) {
+        return buildErrorResponse(ex.getMessage(), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    // Concurrent writes kept winning until the retries ran out
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        return buildErrorResponse("The resource was changed concurrently, try again", HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Map<String, Object>> handleTooManyRequestsException(TooManyRequestsException ex) {
+        ResponseEntity<Map<String, Object>> response = buildErrorResponse(ex.getMessage(), HttpStatus.TOO_MANY_REQUESTS);
+        return ResponseEntity.status(response.getStatusCode())
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(response.getBody());
+    }
+
     // Handle non-existent routes (404)
     @ExceptionHandler(NoHandlerFoundException.class)
     public ResponseEntity<Map<String, Object>> handleNoHandlerFoundException(NoHandlerFoundException ex) {
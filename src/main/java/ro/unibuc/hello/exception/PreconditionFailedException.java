@@ -0,0 +1,11 @@
+package ro.unibuc.hello.exception;
+
+/**
+ * The client's If-Match version is no longer the stored one, someone else changed the document first.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
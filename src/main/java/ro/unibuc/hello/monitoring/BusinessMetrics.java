@@ -0,0 +1,95 @@
+package ro.unibuc.hello.monitoring;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import ro.unibuc.hello.bidding.BidOutcome;
+
+/**
+ * Counters for what happens in the auctions rather than how long it takes: bids by source and outcome, closed
+ * auctions and logins. Every combination is registered up front so the series exist at 0 before the first event.
+ */
+@Component
+public class BusinessMetrics {
+
+    public enum BidSource {
+        // Placed by the bidder
+        BID,
+        // A max bid registered by the bidder
+        MAX_BID,
+        // Placed by the engine on behalf of a max bid
+        PROXY
+    }
+
+    public enum CloseReason {
+        MANUAL,
+        EXPIRED
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<BidSource, Map<BidOutcome, Counter>> bids = new EnumMap<>(BidSource.class);
+    private final Map<CloseReason, Counter> closes = new EnumMap<>(CloseReason.class);
+    private Counter loginsSucceeded;
+    private Counter loginsFailed;
+
+    @PostConstruct
+    public void start() {
+        for (BidSource source : BidSource.values()) {
+            Map<BidOutcome, Counter> outcomes = new EnumMap<>(BidOutcome.class);
+            for (BidOutcome outcome : BidOutcome.values()) {
+                outcomes.put(outcome, Counter.builder("auctions.bids")
+                    .description("Bids by source and outcome, only accepted bids are stored")
+                    .tag("source", tagValue(source))
+                    .tag("outcome", tagValue(outcome))
+                    .register(meterRegistry));
+            }
+            bids.put(source, outcomes);
+        }
+
+        for (CloseReason reason : CloseReason.values()) {
+            closes.put(reason, Counter.builder("auctions.closed")
+                .description("Auctions closed by their auctioneer or at their end time")
+                .tag("reason", tagValue(reason))
+                .register(meterRegistry));
+        }
+
+        loginsSucceeded = loginCounter("ok");
+        loginsFailed = loginCounter("failed");
+    }
+
+    public void bid(BidSource source, BidOutcome outcome) {
+        bids.get(source).get(outcome).increment();
+    }
+
+    public void auctionClosed(CloseReason reason) {
+        closes.get(reason).increment();
+    }
+
+    public void loginSucceeded() {
+        loginsSucceeded.increment();
+    }
+
+    public void loginFailed() {
+        loginsFailed.increment();
+    }
+
+    private Counter loginCounter(String outcome) {
+        return Counter.builder("sessions.logins")
+            .description("Login attempts by outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,91 @@
+package ro.unibuc.hello.monitoring;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread, e.g. while blocking inside a synchronized
+ * block on the Mongo driver path. Pinned threads hold a carrier for the whole blocking call, which silently caps
+ * concurrency at the number of carriers.
+ *
+ * Only active when virtual threads are enabled (spring.threads.virtual.enabled=true).
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class PinnedThreadMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${diagnostics.pinning.threshold-ms:20}")
+    private long thresholdMs;
+
+    @Value("${diagnostics.pinning.stack-depth:8}")
+    private int stackDepth;
+
+    private RecordingStream recording;
+    private Timer pinnedTime;
+
+    @PostConstruct
+    public void start() {
+        pinnedTime = Timer.builder("jvm.threads.virtual.pinned")
+            .description("Time virtual threads spent pinned to their carrier thread")
+            .register(meterRegistry);
+
+        recording = new RecordingStream();
+        recording.enable(PINNED_EVENT)
+            .withThreshold(Duration.ofMillis(thresholdMs))
+            .withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        recording.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedTime.record(event.getDuration());
+
+        if (log.isWarnEnabled()) {
+            log.warn("Virtual thread pinned for {} ms in {}\n{}",
+                event.getDuration().toMillis(),
+                event.getThread() != null ? event.getThread().getJavaName() : "unknown thread",
+                topFrames(event));
+        }
+    }
+
+    private String topFrames(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "\t(no stack trace)";
+        }
+
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        return frames.stream()
+            .limit(stackDepth)
+            .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + " line " + frame.getLineNumber())
+            .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,90 @@
+package ro.unibuc.hello.monitoring;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import ro.unibuc.hello.exception.EntityNotFoundException;
+import ro.unibuc.hello.exception.InvalidDataException;
+import ro.unibuc.hello.exception.InvalidSessionException;
+import ro.unibuc.hello.exception.LoginFailedException;
+import ro.unibuc.hello.exception.PreconditionFailedException;
+import ro.unibuc.hello.exception.UnauthorizedException;
+
+/**
+ * Times every public method of the services called through their Spring proxy, tagged by service, method and
+ * outcome. The timers publish percentile histograms, so latency percentiles and SLOs can be aggregated across
+ * instances in Prometheus.
+ *
+ * Methods returning a Flux are timed until the Flux is returned, not until it completes.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    public static final String TIMER = "service.calls";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    @Around("execution(public * ro.unibuc.hello.service.AuctionsService.*(..))"
+        + " || execution(public * ro.unibuc.hello.service.UsersService.*(..))"
+        + " || execution(public * ro.unibuc.hello.service.ItemsService.*(..))"
+        + " || execution(public * ro.unibuc.hello.service.SessionsService.*(..))"
+        + " || execution(public * ro.unibuc.hello.service.GreetingsService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        String outcome = "ok";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            outcome = outcomeOf(ex);
+            throw ex;
+        } finally {
+            Signature method = joinPoint.getSignature();
+            TimerKey key = new TimerKey(method.getDeclaringType().getSimpleName(), method.getName(), outcome);
+            timers.computeIfAbsent(key, this::register).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    static String outcomeOf(Throwable ex) {
+        if (ex instanceof EntityNotFoundException) {
+            return "not_found";
+        }
+        if (ex instanceof InvalidDataException || ex instanceof PreconditionFailedException) {
+            return "invalid";
+        }
+        if (ex instanceof LoginFailedException || ex instanceof InvalidSessionException || ex instanceof UnauthorizedException) {
+            return "unauthorized";
+        }
+        return "error";
+    }
+
+    private Timer register(TimerKey key) {
+        return Timer.builder(TIMER)
+            .description("Time spent in service methods")
+            .tag("service", key.service())
+            .tag("method", key.method())
+            .tag("outcome", key.outcome())
+            .publishPercentileHistogram()
+            // Exact buckets for the SLOs on the dashboard
+            .serviceLevelObjectives(Duration.ofMillis(100), Duration.ofMillis(500))
+            .minimumExpectedValue(Duration.ofMillis(1))
+            .maximumExpectedValue(Duration.ofSeconds(10))
+            .register(meterRegistry);
+    }
+
+    private record TimerKey(String service, String method, String outcome) {}
+}
@@ -0,0 +1,129 @@
+package ro.unibuc.hello.ratelimit;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import ro.unibuc.hello.exception.TooManyRequestsException;
+
+/**
+ * Rejects authenticated write requests above the user's rate with a 429, before the controller does any
+ * database work. Runs after {@link ro.unibuc.hello.auth.AuthInterceptor}, which sets the user id.
+ *
+ * Every user gets one {@link TokenBucket} per {@link RouteClass}. The buckets live in a bounded cache that drops
+ * buckets idle for longer than it takes them to fill up again, so dropping one never grants extra requests.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ratelimit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ratelimit.max-buckets:100000}")
+    private long maxBuckets;
+
+    @Value("${ratelimit.bids.capacity:20}")
+    private long bidsCapacity;
+
+    @Value("${ratelimit.bids.refill-per-second:5}")
+    private long bidsRefillPerSecond;
+
+    @Value("${ratelimit.writes.capacity:30}")
+    private long writesCapacity;
+
+    @Value("${ratelimit.writes.refill-per-second:10}")
+    private long writesRefillPerSecond;
+
+    private final Map<RouteClass, Limit> limits = new EnumMap<>(RouteClass.class);
+    private final Map<RouteClass, Counter> rejected = new EnumMap<>(RouteClass.class);
+    private Cache<BucketKey, TokenBucket> buckets;
+
+    @PostConstruct
+    public void start() {
+        limits.put(RouteClass.BIDS, new Limit(bidsCapacity, bidsRefillPerSecond));
+        limits.put(RouteClass.WRITES, new Limit(writesCapacity, writesRefillPerSecond));
+
+        long longestRefillSeconds = limits.values().stream()
+            .mapToLong(limit -> (limit.capacity() + limit.refillPerSecond() - 1) / limit.refillPerSecond())
+            .max()
+            .orElse(1);
+        buckets = Caffeine.newBuilder()
+            .maximumSize(maxBuckets)
+            .expireAfterAccess(Duration.ofSeconds(longestRefillSeconds))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "ratelimit.buckets");
+
+        for (RouteClass routeClass : RouteClass.values()) {
+            rejected.put(routeClass, Counter.builder("ratelimit.rejected")
+                .description("Requests rejected for going over the user's rate")
+                .tag("route", routeClass.name().toLowerCase())
+                .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+        if (!enabled || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        // Public endpoints have no user to key on
+        String userId = (String) request.getAttribute("authenticatedUserId");
+        if (userId == null) {
+            return true;
+        }
+
+        RouteClass routeClass = routeClassOf(handlerMethod, request.getMethod());
+        if (routeClass == null) {
+            return true;
+        }
+
+        Limit limit = limits.get(routeClass);
+        long now = System.currentTimeMillis();
+        TokenBucket bucket = buckets.get(new BucketKey(userId, routeClass),
+            key -> new TokenBucket(limit.capacity(), limit.refillPerSecond(), now));
+
+        long waitMs = bucket.tryAcquire(now);
+        if (waitMs > 0) {
+            rejected.get(routeClass).increment();
+            throw new TooManyRequestsException("Too many requests, slow down", (waitMs + 999) / 1000);
+        }
+        return true;
+    }
+
+    private static RouteClass routeClassOf(HandlerMethod handlerMethod, String method) {
+        RateLimited rateLimited = handlerMethod.getMethodAnnotation(RateLimited.class);
+        if (rateLimited == null) {
+            rateLimited = handlerMethod.getBeanType().getAnnotation(RateLimited.class);
+        }
+        if (rateLimited != null) {
+            return rateLimited.value();
+        }
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) ? null : RouteClass.WRITES;
+    }
+
+    private record Limit(long capacity, long refillPerSecond) {}
+
+    private record BucketKey(String userId, RouteClass routeClass) {}
+}
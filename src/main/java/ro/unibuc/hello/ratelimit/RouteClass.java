@@ -0,0 +1,11 @@
+package ro.unibuc.hello.ratelimit;
+
+/**
+ * Groups of endpoints that share a rate limit, each user has one bucket per group.
+ */
+public enum RouteClass {
+    // Placing bids and max bids
+    BIDS,
+    // Every other authenticated request that isn't a GET
+    WRITES
+}
@@ -0,0 +1,66 @@
+package ro.unibuc.hello.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket whose whole state is one packed long, updated with compare-and-set so concurrent requests of the
+ * same user never block each other.
+ *
+ * The upper bits hold the tokens in thousandths of a token, the lower {@value #TIME_BITS} bits the time of the
+ * last refill in milliseconds since the bucket was created. Measured in thousandths, a refill rate of r tokens
+ * per second adds exactly r units per millisecond.
+ */
+final class TokenBucket {
+
+    static final int TIME_BITS = 44;
+    static final long TIME_MASK = (1L << TIME_BITS) - 1;
+    static final long ONE_TOKEN = 1000;
+    static final long MAX_CAPACITY = (1L << (Long.SIZE - TIME_BITS - 1)) / ONE_TOKEN;
+
+    private final long capacity;
+    private final long refillPerMs;
+    private final long origin;
+    private final AtomicLong state;
+
+    TokenBucket(long capacity, long refillPerSecond, long nowMs) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Bucket capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        if (refillPerSecond < 1) {
+            throw new IllegalArgumentException("Bucket refill rate must be at least 1 per second");
+        }
+        this.capacity = capacity * ONE_TOKEN;
+        this.refillPerMs = refillPerSecond;
+        this.origin = nowMs;
+        this.state = new AtomicLong(pack(this.capacity, 0));
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @return 0 if a token was taken, otherwise how many milliseconds until one is available
+     */
+    long tryAcquire(long nowMs) {
+        long now = Math.max(0, nowMs - origin) & TIME_MASK;
+        while (true) {
+            long current = state.get();
+            long tokens = current >>> TIME_BITS;
+            long last = current & TIME_MASK;
+
+            // Capped so a long idle time can't overflow, the bucket is full by then anyway
+            long elapsed = Math.min(Math.max(0, now - last), capacity / refillPerMs + 1);
+            long available = Math.min(capacity, tokens + elapsed * refillPerMs);
+            if (available < ONE_TOKEN) {
+                return (ONE_TOKEN - available + refillPerMs - 1) / refillPerMs;
+            }
+
+            if (state.compareAndSet(current, pack(available - ONE_TOKEN, Math.max(now, last)))) {
+                return 0;
+            }
+        }
+    }
+
+    private static long pack(long tokens, long time) {
+        return (tokens << TIME_BITS) | time;
+    }
+}
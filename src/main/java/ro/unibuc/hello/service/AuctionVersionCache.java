@@ -0,0 +1,73 @@
+package ro.unibuc.hello.service;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Last known version of recently read auctions, so a conditional GET whose ETag still matches is answered
+ * with a 304 without querying Mongo.
+ *
+ * Writes of this node keep the entries current. A write made by another node, or one racing with the read that
+ * cached the version, shows up once the entry expires after {@code auctions.version-cache.ttl-ms}.
+ */
+@Component
+public class AuctionVersionCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auctions.version-cache.max-size:100000}")
+    private long maxSize;
+
+    @Value("${auctions.version-cache.ttl-ms:2000}")
+    private long ttlMs;
+
+    private Cache<String, Long> cache;
+
+    @PostConstruct
+    public void start() {
+        cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofMillis(ttlMs))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auction.versions");
+    }
+
+    /**
+     * Returns the auction's version, or null if it is not cached.
+     */
+    public Long get(String auctionId) {
+        return cache.getIfPresent(auctionId);
+    }
+
+    /**
+     * Remembers a version that was read or written. Versions only grow, so an older one never replaces a newer.
+     */
+    public void put(String auctionId, Long version) {
+        if (version != null) {
+            cache.asMap().merge(auctionId, version, Math::max);
+        }
+    }
+
+    /**
+     * Records a write that bumped the version by one, without knowing the new version.
+     */
+    public void increment(String auctionId) {
+        cache.asMap().computeIfPresent(auctionId, (id, version) -> version + 1);
+    }
+
+    public void evict(String auctionId) {
+        cache.invalidate(auctionId);
+    }
+}
@@ -1,32 +1,77 @@
 package ro.unibuc.hello.service;
 
-import java.util.Comparator;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Component;
 
+import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.Flux;
+import ro.unibuc.hello.bidding.AuctionDeadlines;
+import ro.unibuc.hello.bidding.AuctionLocks;
+import ro.unibuc.hello.bidding.BidOutcome;
+import ro.unibuc.hello.bidding.BidWriteBehind;
+import ro.unibuc.hello.bidding.BiddingEngine;
+import ro.unibuc.hello.bidding.LiveBids;
+import ro.unibuc.hello.bidding.MaxBidOutcome;
+import ro.unibuc.hello.bidding.ProxyBid;
+import ro.unibuc.hello.cache.CacheTags;
+import ro.unibuc.hello.cache.ResponseCache;
 import ro.unibuc.hello.data.AuctionEntity;
 import ro.unibuc.hello.data.AuctionRepository;
 import ro.unibuc.hello.data.BidEntity;
 import ro.unibuc.hello.data.BidRepository;
 import ro.unibuc.hello.data.ItemEntity;
 import ro.unibuc.hello.data.ItemRepository;
+import ro.unibuc.hello.data.Lookups;
+import ro.unibuc.hello.data.MaxBidEntity;
+import ro.unibuc.hello.data.MaxBidRepository;
+import ro.unibuc.hello.data.PageReadRepository;
+import ro.unibuc.hello.data.ReferenceLoader;
 import ro.unibuc.hello.data.UserEntity;
 import ro.unibuc.hello.data.UserRepository;
+import ro.unibuc.hello.dto.AuctionBulkResult;
 import ro.unibuc.hello.dto.AuctionPlaceBidRequest;
 import ro.unibuc.hello.dto.AuctionPost;
 import ro.unibuc.hello.dto.AuctionPut;
 import ro.unibuc.hello.dto.AuctionWithAuctioneerAndItem;
 import ro.unibuc.hello.dto.BidWithBidder;
+import ro.unibuc.hello.dto.MaxBid;
 import ro.unibuc.hello.exception.EntityNotFoundException;
 import ro.unibuc.hello.exception.InvalidDataException;
+import ro.unibuc.hello.exception.PreconditionFailedException;
+import ro.unibuc.hello.monitoring.BusinessMetrics;
+import ro.unibuc.hello.monitoring.BusinessMetrics.BidSource;
+import ro.unibuc.hello.monitoring.BusinessMetrics.CloseReason;
 
 @Component
 public class AuctionsService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuctionsService.class);
+
+    public static final int MAX_BULK_SIZE = 1000;
+
+    private static final int MAX_PROXY_ATTEMPTS = 3;
+
     @Autowired
     private BidRepository bidRepository;
 
@@ -39,20 +84,77 @@ public class AuctionsService {
     @Autowired
     private ItemRepository itemRepository;
 
-    public List<AuctionWithAuctioneerAndItem> getAllAuctions() {
-        List<AuctionEntity> entities = auctionRepository.findAll();
-        return entities.stream()
-            .map(AuctionWithAuctioneerAndItem::new)
-            .collect(Collectors.toList());
+    @Autowired
+    private MaxBidRepository maxBidRepository;
+
+    @Autowired
+    private BiddingEngine biddingEngine;
+
+    @Autowired
+    private AuctionLocks auctionLocks;
+
+    @Autowired
+    private BidWriteBehind bidWriteBehind;
+
+    @Autowired
+    private LiveBids liveBids;
+
+    @Autowired
+    private PageReadRepository pageReadRepository;
+
+    @Autowired
+    private ReferenceLoader referenceLoader;
+
+    @Autowired
+    private AuctionDeadlines auctionDeadlines;
+
+    @Autowired
+    private AuctionVersionCache auctionVersionCache;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    @PostConstruct
+    public void start() {
+        auctionDeadlines.onDeadline(this::expireAuction);
+    }
+
+    public Window<AuctionWithAuctioneerAndItem> getAllAuctions(String after, Integer limit) {
+        Window<Document> page = pageReadRepository.findAuctions(new Criteria(), after, Pagination.limit(limit));
+        page = referenceLoader.withUsers(page, "auctioneer");
+        return referenceLoader.withItems(page, "item")
+            .map(AuctionWithAuctioneerAndItem::new);
     }
 
     public AuctionWithAuctioneerAndItem getAuctionById(String id) {
         AuctionEntity entity = auctionRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Auction not found"));
 
+        auctionVersionCache.put(id, entity.getVersion());
         return new AuctionWithAuctioneerAndItem(entity);
     }
 
+    /**
+     * Returns the auction's version, which changes with every write to the auction, its highest bid and its bid
+     * history. Answered from memory when this node saw the auction recently.
+     */
+    public Long getAuctionVersion(String id) {
+        Long version = auctionVersionCache.get(id);
+        if (version != null) {
+            return version;
+        }
+
+        version = auctionRepository.findVersionById(id);
+        if (version == null) {
+            throw new EntityNotFoundException("Auction not found");
+        }
+        auctionVersionCache.put(id, version);
+        return version;
+    }
+
     public BidWithBidder getAuctionHighestBid(String id) {
         AuctionEntity entity = auctionRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Auction not found"));
@@ -62,13 +164,43 @@ public class AuctionsService {
             .orElse(null);
     }
 
-    public List<BidWithBidder> getAuctionBids(String id) {
+    public Window<BidWithBidder> getAuctionBids(String id, String after, Integer limit) {
+        if (!auctionRepository.existsById(id)) {
+            throw new EntityNotFoundException("Auction not found");
+        }
+
+        Window<Document> page = pageReadRepository.findBids(where("auction").is(Lookups.id(id)), after, Pagination.limit(limit));
+        return referenceLoader.withUsers(page, "bidder")
+            .map(BidWithBidder::new);
+    }
+
+    public Flux<ServerSentEvent<BidWithBidder>> streamAuctionBids(String id) {
         AuctionEntity entity = auctionRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Auction not found"));
 
-        return bidRepository.findByAuction(entity).stream()
+        // Nothing will be published for a closed auction, send its result right away
+        if (!entity.isOpen()) {
+            return Flux.just(closedEvent(entity));
+        }
+
+        // The auction can close between the read above and the subscription, so it is read again once subscribed
+        return liveBids.subscribe(id, () -> lateClose(id));
+    }
+
+    // A deleted auction ends the stream as closed without a winner
+    private Optional<ServerSentEvent<BidWithBidder>> lateClose(String id) {
+        Optional<AuctionEntity> current = auctionRepository.findById(id);
+        if (current.isEmpty()) {
+            return Optional.of(ServerSentEvent.<BidWithBidder>builder().event(LiveBids.CLOSED_EVENT).build());
+        }
+        return current.filter(auction -> !auction.isOpen()).map(this::closedEvent);
+    }
+
+    private ServerSentEvent<BidWithBidder> closedEvent(AuctionEntity closed) {
+        BidWithBidder winner = getAuctionHighestBid(closed)
             .map(BidWithBidder::new)
-            .collect(Collectors.toList());
+            .orElse(null);
+        return ServerSentEvent.<BidWithBidder>builder().data(winner).event(LiveBids.CLOSED_EVENT).build();
     }
 
     public AuctionWithAuctioneerAndItem saveAuction(String auctioneerId, AuctionPost auction) {
@@ -78,6 +210,11 @@ public class AuctionsService {
         entity.setStartPrice(auction.getStartPrice());
         entity.setOpen(true);
 
+        if (auction.getEndsAt() != null && !auction.getEndsAt().isAfter(LocalDateTime.now())) {
+            throw new InvalidDataException("End time must be in the future");
+        }
+        entity.setEndsAt(auction.getEndsAt());
+
         UserEntity user = userRepository.findById(auctioneerId)
             .orElseThrow(() -> new EntityNotFoundException("User not found"));
         entity.setAuctioneer(user);
@@ -97,110 +234,209 @@ public class AuctionsService {
         }
 
         entity = auctionRepository.save(entity);
+        responseCache.invalidate(CacheTags.AUCTIONS, CacheTags.userAuctions(auctioneerId));
+        if (entity.getEndsAt() != null) {
+            auctionDeadlines.schedule(entity.getId(), entity.getEndsAt().atZone(ZoneId.systemDefault()).toInstant());
+        }
         return new AuctionWithAuctioneerAndItem(entity);
     }
 
-    // public List<AuctionWithAuctioneerAndItem> saveAll(String auctioneerId, List<AuctionPost> auctions) {
-    //     List<AuctionEntity> entities = auctions.stream()
-    //         .map(auction -> {
-    //             AuctionEntity entity = new AuctionEntity();
-    //             entity.setTitle(auction.getTitle());
-    //             entity.setDescription(auction.getDescription());
-    //             entity.setStartPrice(auction.getStartPrice());
-    //             entity.setOpen(true);
+    /**
+     * Creates all the auctions it can and reports every row on its own. Items are checked for all rows at once
+     * and the auctions are inserted with one bulk write, a rejected row doesn't stop the others.
+     */
+    public List<AuctionBulkResult> saveAll(String auctioneerId, List<AuctionPost> auctions) {
+        if (auctions.size() > MAX_BULK_SIZE) {
+            throw new InvalidDataException("Can't create more than " + MAX_BULK_SIZE + " auctions at once");
+        }
 
-    //             UserEntity user = userRepository.findById(auctioneerId)
-    //                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
-    //             entity.setAuctioneer(user);
+        UserEntity user = userRepository.findById(auctioneerId)
+            .orElseThrow(() -> new EntityNotFoundException("User not found"));
 
-    //             ItemEntity item = itemRepository.findById(auction.getItemId())
-    //                 .orElseThrow(() -> new EntityNotFoundException("Item not found"));
-    //             entity.setItem(item);
+        Set<String> itemIds = auctions.stream()
+            .map(AuctionPost::getItemId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Map<String, ItemEntity> items = itemRepository.findAllByIdWithOwnerId(itemIds);
+        Set<String> auctionedItems = new HashSet<>(auctionRepository.findItemsInOpenAuctions(items.keySet()));
+
+        AuctionBulkResult[] results = new AuctionBulkResult[auctions.size()];
+        List<AuctionEntity> entities = new ArrayList<>();
+        List<Integer> rows = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < auctions.size(); i++) {
+            AuctionPost auction = auctions.get(i);
+            ItemEntity item = auction.getItemId() != null ? items.get(auction.getItemId()) : null;
+
+            String error = null;
+            if (auction.getEndsAt() != null && !auction.getEndsAt().isAfter(now)) {
+                error = "End time must be in the future";
+            } else if (item == null) {
+                error = "Item not found";
+            } else if (!auctioneerId.equals(item.getOwner().getId())) {
+                error = "You can't auction an item you don't own";
+            } else if (!auctionedItems.add(item.getId())) {
+                // Also catches the same item twice in the batch
+                error = "An item can't be in multiple open auctions at the same time";
+            }
 
-    //             return entity;
-    //         })
-    //         .collect(Collectors.toList());
+            if (error != null) {
+                results[i] = AuctionBulkResult.failed(i, error);
+                continue;
+            }
 
-    //     List<AuctionEntity> savedEntities = auctionRepository.saveAll(entities);
+            AuctionEntity entity = new AuctionEntity(auction.getTitle(), auction.getDescription(), auction.getStartPrice(), true, item, user);
+            entity.setId(new ObjectId().toHexString());
+            entity.setEndsAt(auction.getEndsAt());
+            entities.add(entity);
+            rows.add(i);
+        }
 
-    //     return savedEntities.stream()
-    //         .map(AuctionWithAuctioneerAndItem::new)
-    //         .collect(Collectors.toList());
-    // }
+        Set<Integer> failed = auctionRepository.insertAll(entities);
+        if (!entities.isEmpty()) {
+            responseCache.invalidate(CacheTags.AUCTIONS, CacheTags.userAuctions(auctioneerId));
+        }
+        for (int i = 0; i < entities.size(); i++) {
+            int row = rows.get(i);
+            AuctionEntity entity = entities.get(i);
+            if (failed.contains(i)) {
+                results[row] = AuctionBulkResult.failed(row, "Could not save auction");
+                continue;
+            }
 
-    public AuctionWithAuctioneerAndItem updateAuction(String id, AuctionPut auction) {
-        AuctionEntity entity = auctionRepository.findById(id)
-            .orElseThrow(() -> new EntityNotFoundException("Auction not found"));
+            if (entity.getEndsAt() != null) {
+                auctionDeadlines.schedule(entity.getId(), entity.getEndsAt().atZone(ZoneId.systemDefault()).toInstant());
+            }
+            results[row] = AuctionBulkResult.created(row, new AuctionWithAuctioneerAndItem(entity));
+        }
 
-        entity.setTitle(auction.getTitle());
-        entity.setDescription(auction.getDescription());
-        entity = auctionRepository.save(entity);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Updates the title and description. With an expected version (from If-Match) the update only applies if
+     * nobody changed the auction since the client read it.
+     */
+    public AuctionWithAuctioneerAndItem updateAuction(String id, AuctionPut auction, Long expectedVersion) {
+        // Only touch the editable fields so concurrent bids are not overwritten
+        AuctionEntity entity = auctionRepository.updateDetails(id, expectedVersion, auction.getTitle(), auction.getDescription());
+        if (entity == null) {
+            if (expectedVersion != null && auctionRepository.existsById(id)) {
+                throw new PreconditionFailedException("Auction was changed since it was read");
+            }
+            throw new EntityNotFoundException("Auction not found");
+        }
+
+        auctionVersionCache.put(id, entity.getVersion());
+        invalidateResponses(entity);
         return new AuctionWithAuctioneerAndItem(entity);
     }
 
     public BidWithBidder placeBid(String id, String userId, AuctionPlaceBidRequest bid) {
-        AuctionEntity auction = auctionRepository.findById(id)
-            .orElseThrow(() -> new EntityNotFoundException("Auction not found"));
-
         UserEntity user = userRepository.findById(userId)
             .orElseThrow(() -> new EntityNotFoundException("User not found"));
 
-        // Check that the auction is open
-        if (!auction.isOpen()) {
-            throw new InvalidDataException("Can't place bid on a closed auction");
+        // Decide in memory first, rejected bids never reach the database. Accepted bids may reach it out of
+        // order, the conditional update then turns down the one that was overtaken
+        checkBidOutcome(BidSource.BID, biddingEngine.placeBid(id, userId, bid.getPrice()));
+        ClaimedBid claimed = claimHighestBid(id, user, bid.getPrice());
+        if (claimed == null) {
+            // The database disagrees with memory, reload the auction and report why
+            checkBidOutcome(BidSource.BID, biddingEngine.checkBid(id, userId, bid.getPrice()));
+            businessMetrics.bid(BidSource.BID, BidOutcome.NOT_HIGHER);
+            throw new InvalidDataException("Bid must be higher than current highest bid");
         }
 
-        // Check that auctioneer can't bid to it's own auction
-        if (userId.equals(auction.getAuctioneer().getId())) {
-            throw new InvalidDataException("Auctioneer can't bid to their own auction");
-        }
+        BidWithBidder accepted = storeBid(id, claimed);
+        businessMetrics.bid(BidSource.BID, BidOutcome.ACCEPTED);
+        // Max bids above this one answer right away
+        answerWithMaxBids(id);
+        return accepted;
+    }
 
-        // Check correct bid value
-        Optional<BidEntity> highestBid = getAuctionHighestBid(auction);
-        if (highestBid.isPresent()) {
-            if (bid.getPrice() <= highestBid.get().getPrice()) {
-                throw new InvalidDataException("Bid must be higher than current highest bid");
-            }
-        } else {
-            if (bid.getPrice() < auction.getStartPrice()) {
-                throw new InvalidDataException("Bid can't be lower than starting price");
-            }
+    /**
+     * Registers the most the user is willing to pay. The engine bids for them up to that ceiling, only the
+     * visible bid that results from all the max bids competing is stored.
+     */
+    public MaxBid placeMaxBid(String id, String userId, AuctionPlaceBidRequest maxBid) {
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException("User not found");
         }
 
-        BidEntity bidEntity = new BidEntity(bid.getPrice(), user, auction);
-        bidEntity = bidRepository.save(bidEntity);
-        return new BidWithBidder(bidEntity);
-    }
-
-    public void closeAuction(String id) {
-        AuctionEntity auction = auctionRepository.findById(id)
-            .orElseThrow(() -> new EntityNotFoundException("Auction not found"));
+        MaxBidOutcome outcome = biddingEngine.placeMaxBid(id, userId, maxBid.getPrice());
+        checkBidOutcome(BidSource.MAX_BID, outcome.outcome());
+        saveMaxBid(id, userId, maxBid.getPrice());
+        businessMetrics.bid(BidSource.MAX_BID, BidOutcome.ACCEPTED);
 
-        // Auction already closed
-        if (!auction.isOpen()) {
-            throw new InvalidDataException("Can't close an already closed auction");
+        BidWithBidder highest = answerWithMaxBids(id);
+        if (highest != null) {
+            return new MaxBid(id, maxBid.getPrice(), userId.equals(highest.getBidder().getId()), highest.getPrice());
         }
+        return new MaxBid(id, maxBid.getPrice(), userId.equals(outcome.highestBidderId()), outcome.highestPrice());
+    }
 
-        // Get winner
-        Optional<BidEntity> highestBid = getAuctionHighestBid(auction);
-        if (!highestBid.isPresent()) {
-            throw new InvalidDataException("Can't close auction with no bids");
-        }
+    public void closeAuction(String id) {
+        // Under the auction's lock so its end time passing now doesn't settle it at the same time
+        auctionLocks.withLock(id, () -> {
+            switch (biddingEngine.close(id)) {
+                case AUCTION_NOT_FOUND -> throw new EntityNotFoundException("Auction not found");
+                case ALREADY_CLOSED -> throw new InvalidDataException("Can't close an already closed auction");
+                case NO_BIDS -> throw new InvalidDataException("Can't close auction with no bids");
+                case CLOSED -> { }
+            }
 
-        // Update item owner
-        ItemEntity item = auction.getItem();
-        item.setOwner(highestBid.get().getBidder());
-        itemRepository.save(item);
+            // Mark auction as closed, the returned state holds the final highest bid
+            AuctionEntity closed = auctionRepository.closeIfOpen(id);
+            if (closed == null) {
+                throw new InvalidDataException("Can't close an already closed auction");
+            }
+            auctionVersionCache.put(id, closed.getVersion());
+            businessMetrics.auctionClosed(CloseReason.MANUAL);
+
+            try {
+                settle(closed);
+            } catch (RuntimeException ex) {
+                // The auction is closed for good, finish the settlement in the background
+                auctionDeadlines.retry(id);
+                throw ex;
+            }
+            return null;
+        });
+    }
 
-        // Mark auction as closed
-        auction.setOpen(false);
-        auctionRepository.save(auction);
+    /**
+     * Closes an auction whose end time has come, with or without bids, and settles it. An auction that was
+     * closed before but whose settlement failed is only settled. Does nothing if it was already settled or
+     * deleted, so running it twice is harmless.
+     */
+    public void expireAuction(String id) {
+        auctionLocks.withLock(id, () -> {
+            AuctionEntity closed = auctionRepository.closeIfOpen(id);
+            // Drop the in-memory state either way, it may still think the auction is open
+            biddingEngine.evict(id);
+            if (closed != null) {
+                auctionVersionCache.put(id, closed.getVersion());
+                businessMetrics.auctionClosed(CloseReason.EXPIRED);
+            } else {
+                closed = auctionRepository.findClosedUnsettled(id);
+                if (closed == null) {
+                    return null;
+                }
+            }
+            settle(closed);
+            return null;
+        });
     }
 
     public void deleteAuction(String id) {
         AuctionEntity entity = auctionRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Auction not found"));
         auctionRepository.delete(entity);
+        maxBidRepository.deleteByAuctionId(id);
+        biddingEngine.evict(id);
+        auctionVersionCache.evict(id);
+        invalidateResponses(entity);
+        liveBids.complete(id);
     }
 
     // public void deleteAllAuctions() {
@@ -208,7 +444,194 @@ public class AuctionsService {
     // }
 
     protected Optional<BidEntity> getAuctionHighestBid(AuctionEntity auction) {
-        return bidRepository.findByAuction(auction).stream()
-            .max(Comparator.comparing(BidEntity::getPrice));
+        if (auction.getHighestBidId() != null) {
+            return Optional.of(new BidEntity(
+                auction.getHighestBidId(),
+                auction.getHighestBidPrice(),
+                auction.getHighestBidder(),
+                auction
+            ));
+        }
+
+        // Auctions stored before the highest bid was tracked on the document
+        return bidRepository.findFirstByAuctionOrderByPriceDesc(auction);
+    }
+
+    /**
+     * Makes a bid the engine already accepted in memory the auction's highest bid, with one conditional update.
+     * Returns null, with the auction evicted, when the database already holds a higher bid.
+     */
+    private ClaimedBid claimHighestBid(String id, UserEntity bidder, int price) {
+        AuctionEntity auction = new AuctionEntity();
+        auction.setId(id);
+        BidEntity bidEntity = new BidEntity(new ObjectId().toHexString(), price, bidder, auction);
+
+        // Racing bids can't both win
+        Document previous;
+        try {
+            previous = auctionRepository.recordHighestBid(id, bidEntity.getId(), price, bidder);
+        } catch (RuntimeException ex) {
+            biddingEngine.evict(id);
+            auctionVersionCache.evict(id);
+            throw ex;
+        }
+
+        if (previous == null) {
+            // Another node wrote the auction, the cached version is behind too
+            biddingEngine.evict(id);
+            auctionVersionCache.evict(id);
+            return null;
+        }
+        return new ClaimedBid(bidEntity, previous);
+    }
+
+    // Adds the claimed bid to the bid history and tells the watchers
+    private BidWithBidder storeBid(String id, ClaimedBid claimed) {
+        BidEntity stored;
+        try {
+            stored = bidWriteBehind.insert(claimed.bid());
+        } catch (RuntimeException ex) {
+            releaseClaim(id, claimed);
+            throw ex;
+        }
+
+        // Only now, so the cached version is never ahead of the bid history
+        auctionVersionCache.increment(id);
+        if (stored.getBidder() != null) {
+            responseCache.invalidate(CacheTags.auction(id), CacheTags.userBids(stored.getBidder().getId()));
+        } else {
+            responseCache.invalidate(CacheTags.auction(id));
+        }
+
+        BidWithBidder accepted = new BidWithBidder(stored);
+        liveBids.publishBid(id, accepted);
+        return accepted;
+    }
+
+    // The bid may never reach the bid history, so it must not stay the highest one either. A later bid that
+    // replaced it in the meantime stands
+    private void releaseClaim(String id, ClaimedBid claimed) {
+        try {
+            auctionRepository.restoreHighestBid(id, claimed.bid().getId(), claimed.previous());
+        } catch (RuntimeException ex) {
+            log.warn("Failed to restore the highest bid of auction {} after bid {} was not stored", id, claimed.bid().getId(), ex);
+        } finally {
+            biddingEngine.evict(id);
+            auctionVersionCache.evict(id);
+        }
+    }
+
+    private void saveMaxBid(String id, String userId, int maxPrice) {
+        try {
+            MaxBidEntity entity = maxBidRepository.findByAuctionIdAndBidderId(id, userId)
+                .orElseGet(() -> new MaxBidEntity(id, userId, 0, null));
+            entity.setMaxPrice(maxPrice);
+            entity.setPlacedAt(LocalDateTime.now());
+            maxBidRepository.save(entity);
+        } catch (RuntimeException ex) {
+            biddingEngine.evict(id);
+            throw ex;
+        }
+    }
+
+    /**
+     * Lets the max bids compete and stores the bid they place, if any. When a bid from another node got to the
+     * database first the auction is reloaded and resolved again.
+     *
+     * Runs after the caller's own bid or max bid is stored, so a failure here is only logged: the auction is
+     * reloaded and its max bids answer on the next bid instead.
+     */
+    private BidWithBidder answerWithMaxBids(String id) {
+        try {
+            for (int attempt = 0; attempt < MAX_PROXY_ATTEMPTS; attempt++) {
+                ProxyBid bid = biddingEngine.resolveProxies(id);
+                if (bid == null) {
+                    return null;
+                }
+
+                // Only the reference is written, the full user is loaded once the bid won
+                UserEntity bidder = new UserEntity();
+                bidder.setId(bid.bidderId());
+                ClaimedBid claimed = claimHighestBid(id, bidder, bid.price());
+                if (claimed != null) {
+                    userRepository.findById(bid.bidderId()).ifPresent(claimed.bid()::setBidder);
+                    BidWithBidder stored = storeBid(id, claimed);
+                    businessMetrics.bid(BidSource.PROXY, BidOutcome.ACCEPTED);
+                    return stored;
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Failed to answer with the max bids of auction {}", id, ex);
+            biddingEngine.evict(id);
+            auctionVersionCache.evict(id);
+        }
+        return null;
+    }
+
+    // Hands the item to the winner, if any, and tells the watchers. Every step can run again if a later one
+    // failed, the auction is only marked settled at the end
+    private void settle(AuctionEntity closed) {
+        Optional<BidEntity> winner = getAuctionHighestBid(closed);
+        winner.ifPresent(highestBid -> transferItem(closed.getItem(), highestBid.getBidder()));
+        invalidateResponses(closed);
+
+        maxBidRepository.deleteByAuctionId(closed.getId());
+        liveBids.publishClose(closed.getId(), winner.map(BidWithBidder::new).orElse(null));
+
+        AuctionEntity settled = auctionRepository.markSettled(closed.getId());
+        if (settled != null) {
+            auctionVersionCache.put(closed.getId(), settled.getVersion());
+        }
+    }
+
+    // The item was loaded with the auction, later attempts reread it after a concurrent edit
+    private void transferItem(ItemEntity item, UserEntity winner) {
+        Versions.retryOnConflict(attempt -> {
+            ItemEntity current = attempt == 0 ? item : itemRepository.findById(item.getId()).orElse(null);
+            if (current == null) {
+                return null;
+            }
+            UserEntity previousOwner = current.getOwner();
+            current.setOwner(winner);
+            ItemEntity saved = itemRepository.save(current);
+
+            responseCache.invalidate(CacheTags.ITEMS, CacheTags.item(current.getId()));
+            if (previousOwner != null) {
+                responseCache.invalidate(CacheTags.userItems(previousOwner.getId()));
+            }
+            if (winner != null) {
+                responseCache.invalidate(CacheTags.userItems(winner.getId()));
+            }
+            return saved;
+        });
+    }
+
+    // Drops the cached responses that show the auction
+    private void invalidateResponses(AuctionEntity auction) {
+        if (auction.getAuctioneer() != null) {
+            responseCache.invalidate(CacheTags.AUCTIONS, CacheTags.auction(auction.getId()), CacheTags.userAuctions(auction.getAuctioneer().getId()));
+        } else {
+            responseCache.invalidate(CacheTags.AUCTIONS, CacheTags.auction(auction.getId()));
+        }
+    }
+
+    // Counts rejected bids, accepted ones are counted once they are stored
+    private void checkBidOutcome(BidSource source, BidOutcome outcome) {
+        if (outcome != BidOutcome.ACCEPTED) {
+            businessMetrics.bid(source, outcome);
+        }
+
+        switch (outcome) {
+            case AUCTION_NOT_FOUND -> throw new EntityNotFoundException("Auction not found");
+            case AUCTION_CLOSED -> throw new InvalidDataException("Can't place bid on a closed auction");
+            case OWN_AUCTION -> throw new InvalidDataException("Auctioneer can't bid to their own auction");
+            case BELOW_START_PRICE -> throw new InvalidDataException("Bid can't be lower than starting price");
+            case NOT_HIGHER -> throw new InvalidDataException("Bid must be higher than current highest bid");
+            case ACCEPTED -> { }
+        }
+    }
+
+    // A bid that won the conditional update, with the highest bid it replaced
+    private record ClaimedBid(BidEntity bid, Document previous) {
     }
 }
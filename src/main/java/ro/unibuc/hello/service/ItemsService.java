@@ -3,11 +3,18 @@ package ro.unibuc.hello.service;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Component;
 
+import ro.unibuc.hello.cache.CacheTags;
+import ro.unibuc.hello.cache.ResponseCache;
 import ro.unibuc.hello.data.ItemEntity;
 import ro.unibuc.hello.data.ItemRepository;
+import ro.unibuc.hello.data.PageReadRepository;
+import ro.unibuc.hello.data.ReferenceLoader;
 import ro.unibuc.hello.data.UserEntity;
 import ro.unibuc.hello.data.UserRepository;
 import ro.unibuc.hello.dto.ItemPostRequest;
@@ -23,12 +30,20 @@ public class ItemsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PageReadRepository pageReadRepository;
 
-    public List<ItemWithOwner> getAllItems() {
-        List<ItemEntity> entities = itemRepository.findAll();
-        return entities.stream()
-            .map(entity -> new ItemWithOwner(entity))
-            .collect(Collectors.toList());
+    @Autowired
+    private ReferenceLoader referenceLoader;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+
+    public Window<ItemWithOwner> getAllItems(String after, Integer limit) {
+        Window<Document> page = pageReadRepository.findItems(new Criteria(), after, Pagination.limit(limit));
+        return referenceLoader.withUsers(page, "owner")
+            .map(ItemWithOwner::new);
     }
 
     public ItemWithOwner getItemById(String id) {
@@ -43,6 +58,7 @@ public class ItemsService {
 
         ItemEntity newItem = new ItemEntity(item.getName(), item.getDescription(), user);
         newItem = itemRepository.save(newItem);
+        responseCache.invalidate(CacheTags.ITEMS, CacheTags.userItems(ownerId));
         return new ItemWithOwner(newItem);
     }
 
@@ -55,21 +71,31 @@ public class ItemsService {
             .collect(Collectors.toList());
 
         List<ItemEntity> savedEntities = itemRepository.saveAll(entities);
+        responseCache.invalidate(CacheTags.ITEMS, CacheTags.userItems(ownerId));
 
         return savedEntities.stream()
             .map(entity -> new ItemWithOwner(entity))
             .collect(Collectors.toList());
     }
 
-    public ItemWithOwner updateItem(String id, ItemPostRequest item) {
-        ItemEntity entity = itemRepository.findById(id)
-            .orElseThrow(() -> new EntityNotFoundException("Item not found"));
-
-        entity.setDescription(item.getDescription());
-        entity.setName(item.getName());
-
-        itemRepository.save(entity);
-        return new ItemWithOwner(entity);
+    /**
+     * Updates the name and description, retrying on concurrent edits. With an expected version (from If-Match)
+     * a concurrent edit fails the update instead.
+     */
+    public ItemWithOwner updateItem(String id, ItemPostRequest item, Long expectedVersion) {
+        return Versions.retryOnConflict(attempt -> {
+            ItemEntity entity = itemRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Item not found"));
+            Versions.checkIfMatch(expectedVersion, entity.getVersion(), "Item was changed since it was read");
+
+            entity.setDescription(item.getDescription());
+            entity.setName(item.getName());
+
+            itemRepository.save(entity);
+            // Auctions show the item's name too
+            responseCache.invalidateAll();
+            return new ItemWithOwner(entity);
+        });
     }
 
     public void deleteItem(String id) {
@@ -77,9 +103,11 @@ public class ItemsService {
             .orElseThrow(() -> new EntityNotFoundException("Item not found"));
 
         itemRepository.delete(entity);
+        responseCache.invalidateAll();
     }
 
     public void deleteAllItems() {
         itemRepository.deleteAll();
+        responseCache.invalidateAll();
     }
 }
@@ -0,0 +1,29 @@
+package ro.unibuc.hello.service;
+
+import org.springframework.data.domain.Limit;
+
+import ro.unibuc.hello.exception.InvalidDataException;
+
+/**
+ * Keyset paging on {@code _id} for the list endpoints.
+ *
+ * The cursor handed to clients is the id of the last element of a page and the next page starts right after
+ * it, so every page costs one index seek no matter how deep it is.
+ */
+public final class Pagination {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private Pagination() {}
+
+    public static Limit limit(Integer limit) {
+        if (limit == null) {
+            return Limit.of(DEFAULT_LIMIT);
+        }
+        if (limit < 1) {
+            throw new InvalidDataException("Limit must be at least 1");
+        }
+        return Limit.of(Math.min(limit, MAX_LIMIT));
+    }
+}
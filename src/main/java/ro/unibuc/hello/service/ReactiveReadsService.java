@@ -0,0 +1,75 @@
+package ro.unibuc.hello.service;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ro.unibuc.hello.data.Lookups;
+import ro.unibuc.hello.data.ReactiveReadRepository;
+import ro.unibuc.hello.dto.AuctionWithAuctioneerAndItem;
+import ro.unibuc.hello.dto.BidWithAuction;
+import ro.unibuc.hello.dto.BidWithBidder;
+import ro.unibuc.hello.dto.Item;
+import ro.unibuc.hello.dto.ItemWithOwner;
+import ro.unibuc.hello.dto.User;
+import ro.unibuc.hello.exception.EntityNotFoundException;
+
+/**
+ * Non-blocking versions of the public read endpoints. Results are mapped to the same DTOs as the blocking
+ * services and emitted one by one, as fast as the client reads them.
+ */
+@Component
+public class ReactiveReadsService {
+
+    @Autowired
+    private ReactiveReadRepository reactiveReadRepository;
+
+    public Flux<AuctionWithAuctioneerAndItem> streamAllAuctions() {
+        return reactiveReadRepository.findAuctionsWithAuctioneerAndItem(new Criteria())
+            .map(AuctionWithAuctioneerAndItem::new);
+    }
+
+    public Mono<AuctionWithAuctioneerAndItem> getAuctionById(String id) {
+        return reactiveReadRepository.findAuctionsWithAuctioneerAndItem(where("_id").is(Lookups.id(id)))
+            .next()
+            .map(AuctionWithAuctioneerAndItem::new)
+            .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("Auction not found")));
+    }
+
+    public Flux<BidWithBidder> streamAuctionBids(String id) {
+        return requireExisting(Lookups.AUCTIONS, id, "Auction not found")
+            .thenMany(Flux.defer(() -> reactiveReadRepository.findBidsWithBidder(where("auction").is(Lookups.id(id)))))
+            .map(BidWithBidder::new);
+    }
+
+    public Flux<ItemWithOwner> streamAllItems() {
+        return reactiveReadRepository.findItemsWithOwner(new Criteria())
+            .map(ItemWithOwner::new);
+    }
+
+    public Flux<User> streamAllUsers() {
+        return reactiveReadRepository.findUsers()
+            .map(User::new);
+    }
+
+    public Flux<Item> streamUserItems(String id) {
+        return requireExisting(Lookups.USERS, id, "User not found")
+            .thenMany(Flux.defer(() -> reactiveReadRepository.findItems(where("owner").is(Lookups.id(id)))))
+            .map(Item::new);
+    }
+
+    public Flux<BidWithAuction> streamUserBids(String id) {
+        return requireExisting(Lookups.USERS, id, "User not found")
+            .thenMany(Flux.defer(() -> reactiveReadRepository.findBidsWithAuction(where("bidder").is(Lookups.id(id)))))
+            .map(BidWithAuction::new);
+    }
+
+    private Mono<Void> requireExisting(String collection, String id, String message) {
+        return reactiveReadRepository.exists(collection, id)
+            .flatMap(exists -> exists ? Mono.<Void>empty() : Mono.error(new EntityNotFoundException(message)));
+    }
+}
@@ -0,0 +1,97 @@
+package ro.unibuc.hello.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bounded cache of sessions that were already validated against the database, so authenticated requests
+ * usually don't query Mongo.
+ *
+ * An entry never outlives its session's {@code expiresAt} and is kept at most {@code auth.session-cache.max-ttl-seconds},
+ * which bounds how long a session deleted directly in the database keeps working on this node.
+ */
+@Component
+public class SessionCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.session-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${auth.session-cache.max-ttl-seconds:60}")
+    private long maxTtlSeconds;
+
+    private Cache<String, CachedSession> cache;
+
+    @PostConstruct
+    public void start() {
+        cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new UntilSessionExpires(Duration.ofSeconds(maxTtlSeconds)))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "sessions");
+    }
+
+    /**
+     * Returns the id of the session's user, or null if the session is not cached.
+     */
+    public String getUserId(String sessionId) {
+        CachedSession session = cache.getIfPresent(sessionId);
+        return session != null ? session.userId() : null;
+    }
+
+    public void put(String sessionId, String userId, LocalDateTime expiresAt) {
+        cache.put(sessionId, new CachedSession(userId, expiresAt));
+    }
+
+    public void evict(String sessionId) {
+        cache.invalidate(sessionId);
+    }
+
+    private record CachedSession(String userId, LocalDateTime expiresAt) {}
+
+    private static final class UntilSessionExpires implements Expiry<String, CachedSession> {
+
+        private final Duration maxTtl;
+
+        private UntilSessionExpires(Duration maxTtl) {
+            this.maxTtl = maxTtl;
+        }
+
+        @Override
+        public long expireAfterCreate(String sessionId, CachedSession session, long currentTime) {
+            if (session.expiresAt() == null) {
+                return maxTtl.toNanos();
+            }
+            Duration remaining = Duration.between(LocalDateTime.now(), session.expiresAt());
+            if (remaining.isNegative()) {
+                return 0;
+            }
+            return Math.min(remaining.toNanos(), maxTtl.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String sessionId, CachedSession session, long currentTime, long currentDuration) {
+            return expireAfterCreate(sessionId, session, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String sessionId, CachedSession session, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
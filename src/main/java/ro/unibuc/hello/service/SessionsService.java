@@ -1,19 +1,25 @@
 package ro.unibuc.hello.service;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import ro.unibuc.hello.auth.SessionMode;
+import ro.unibuc.hello.auth.SessionTokens;
 import ro.unibuc.hello.data.SessionEntity;
 import ro.unibuc.hello.data.SessionRepository;
 import ro.unibuc.hello.data.UserEntity;
 import ro.unibuc.hello.data.UserRepository;
 import ro.unibuc.hello.dto.LoginRequest;
 import ro.unibuc.hello.dto.Session;
+import ro.unibuc.hello.dto.User;
 import ro.unibuc.hello.exception.InvalidSessionException;
 import ro.unibuc.hello.exception.LoginFailedException;
+import ro.unibuc.hello.monitoring.BusinessMetrics;
 
 @Component
 public class SessionsService {
@@ -25,23 +31,45 @@ public class SessionsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private SessionCache sessionCache;
+
+    @Autowired
+    private SessionTokens sessionTokens;
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    @Value("${auth.session.mode:database}")
+    private SessionMode sessionMode = SessionMode.DATABASE;
+
     public Session login(LoginRequest loginReq) {
         UserEntity user = userRepository.findByUsername(loginReq.getUsername())
-            .orElseThrow(() -> new LoginFailedException());
+            .orElseThrow(this::loginFailed);
 
         if (user.getPassword().equals(loginReq.getPassword())) {
-            String sessionId = generateSessionId();
             LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(sessionExpireTime);
 
-            SessionEntity session = new SessionEntity(sessionId, user, expiresAt);
+            businessMetrics.loginSucceeded();
+            if (sessionMode == SessionMode.TOKEN) {
+                String token = sessionTokens.issue(user.getId(), expiresAt.atZone(ZoneId.systemDefault()).toInstant());
+                return new Session(token, new User(user));
+            }
+
+            SessionEntity session = new SessionEntity(generateSessionId(), user, expiresAt);
             session = sessionRepository.save(session);
             return new Session(session);
         }
 
-        throw new LoginFailedException();
+        throw loginFailed();
     }
 
     public boolean logout(String sessionId) {
+        if (sessionMode == SessionMode.TOKEN) {
+            return sessionTokens.revoke(sessionId);
+        }
+
+        sessionCache.evict(sessionId);
         Optional<SessionEntity> sessionOpt = sessionRepository.findBySessionId(sessionId);
 
         if (sessionOpt.isPresent()) {
@@ -64,6 +92,31 @@ public class SessionsService {
         return session;
     }
 
+    /**
+     * Returns the id of the user owning the session. Signed tokens are checked in memory, database sessions
+     * only hit the database when they are not cached.
+     */
+    public String authenticate(String sessionId) {
+        if (sessionMode == SessionMode.TOKEN) {
+            return sessionTokens.verify(sessionId);
+        }
+
+        String userId = sessionCache.getUserId(sessionId);
+        if (userId != null) {
+            return userId;
+        }
+
+        SessionEntity session = getValidSession(sessionId);
+        userId = session.getUser().getId();
+        sessionCache.put(sessionId, userId, session.getExpiresAt());
+        return userId;
+    }
+
+    private LoginFailedException loginFailed() {
+        businessMetrics.loginFailed();
+        return new LoginFailedException();
+    }
+
     private String generateSessionId() {
         return java.util.UUID.randomUUID().toString();
     }
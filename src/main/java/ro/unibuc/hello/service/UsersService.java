@@ -1,15 +1,22 @@
 package ro.unibuc.hello.service;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Component;
 
-import ro.unibuc.hello.data.AuctionRepository;
-import ro.unibuc.hello.data.BidRepository;
-import ro.unibuc.hello.data.ItemRepository;
+import ro.unibuc.hello.cache.CacheTags;
+import ro.unibuc.hello.cache.ResponseCache;
+import ro.unibuc.hello.data.Lookups;
+import ro.unibuc.hello.data.PageReadRepository;
+import ro.unibuc.hello.data.ReferenceLoader;
 import ro.unibuc.hello.data.UserEntity;
 import ro.unibuc.hello.data.UserRepository;
 import ro.unibuc.hello.dto.AuctionWithItem;
@@ -27,19 +34,17 @@ public class UsersService {
     private UserRepository userRepository;
 
     @Autowired
-    private ItemRepository itemRepository;
+    private PageReadRepository pageReadRepository;
 
     @Autowired
-    private AuctionRepository auctionRepository;
+    private ReferenceLoader referenceLoader;
 
     @Autowired
-    private BidRepository bidRepository;
+    private ResponseCache responseCache;
 
-    public List<User> getAllUsers() {
-        List<UserEntity> entities = userRepository.findAll();
-        return entities.stream()
-            .map(User::new)
-            .collect(Collectors.toList());
+    public Window<User> getAllUsers(String after, Integer limit) {
+        return pageReadRepository.findUsers(new Criteria(), after, Pagination.limit(limit))
+            .map(User::new);
     }
 
     public User getUserById(String id)  {
@@ -49,31 +54,23 @@ public class UsersService {
         return new User(userEntity);
     }
 
-    public List<Item> getUserItems(String id) {
-        UserEntity owner = userRepository.findById(id)
-            .orElseThrow(() -> new EntityNotFoundException("User not found"));
-
-        return itemRepository.findByOwner(owner).stream()
-            .map(Item::new)
-            .collect(Collectors.toList());
+    public Window<Item> getUserItems(String id, String after, Integer limit) {
+        requireUser(id);
+        return pageReadRepository.findItems(where("owner").is(Lookups.id(id)), after, Pagination.limit(limit))
+            .map(Item::new);
     }
 
-    public List<AuctionWithItem> getUserAuctions(String id) {
-        UserEntity userEntity = userRepository.findById(id)
-            .orElseThrow(() -> new EntityNotFoundException("User not found"));
-        
-        return auctionRepository.findByAuctioneer(userEntity).stream()
-            .map(AuctionWithItem::new)
-            .collect(Collectors.toList());
+    public Window<AuctionWithItem> getUserAuctions(String id, String after, Integer limit) {
+        requireUser(id);
+        Window<Document> page = pageReadRepository.findAuctions(where("auctioneer").is(Lookups.id(id)), after, Pagination.limit(limit));
+        return referenceLoader.withItems(page, "item")
+            .map(AuctionWithItem::new);
     }
 
-    public List<BidWithAuction> getUserBids(String id) {
-        UserEntity userEntity = userRepository.findById(id)
-            .orElseThrow(() -> new EntityNotFoundException("User not found"));
-        
-        return bidRepository.findByBidder(userEntity).stream()
-            .map(BidWithAuction::new)
-            .collect(Collectors.toList());
+    public Window<BidWithAuction> getUserBids(String id, String after, Integer limit) {
+        requireUser(id);
+        return pageReadRepository.findBidsWithAuction(where("bidder").is(Lookups.id(id)), after, Pagination.limit(limit))
+            .map(BidWithAuction::new);
     }
 
     public User saveUser(UserPostRequest user) {
@@ -82,9 +79,10 @@ public class UsersService {
         try {
             userRepository.save(newUser);
         } catch (DuplicateKeyException ex) {
-            throw new InvalidDataException("Username already exists");
+            throw usernameTaken(ex);
         }
 
+        responseCache.invalidate(CacheTags.USERS);
         return new User(newUser);
     }
 
@@ -100,36 +98,62 @@ public class UsersService {
             .collect(Collectors.toList());
 
         List<UserEntity> savedEntities = userRepository.saveAll(entities);
+        responseCache.invalidate(CacheTags.USERS);
 
         return savedEntities.stream()
             .map(User::new)
             .collect(Collectors.toList());
     }
 
-    public User updateUser(String id, UserPostRequest user) {
-        UserEntity userEntity = userRepository.findById(id)
-            .orElseThrow(() -> new EntityNotFoundException("User not found"));
-        
-        userEntity.setName(user.getName());
-        userEntity.setUsername(user.getUsername());
-        userEntity.setPassword(user.getPassword());
-
-        try {
-            userRepository.save(userEntity);
-        } catch (DuplicateKeyException ex) {
-            throw new InvalidDataException("Username already exists");
-        }
-
-        return new User(userEntity);
+    /**
+     * Updates the user, retrying on concurrent edits. With an expected version (from If-Match) a concurrent
+     * edit fails the update instead.
+     */
+    public User updateUser(String id, UserPostRequest user, Long expectedVersion) {
+        return Versions.retryOnConflict(attempt -> {
+            UserEntity userEntity = userRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("User not found"));
+            Versions.checkIfMatch(expectedVersion, userEntity.getVersion(), "User was changed since it was read");
+
+            userEntity.setName(user.getName());
+            userEntity.setUsername(user.getUsername());
+            userEntity.setPassword(user.getPassword());
+
+            try {
+                userRepository.save(userEntity);
+            } catch (DuplicateKeyException ex) {
+                throw usernameTaken(ex);
+            }
+
+            // The name is shown with their items, auctions and bids
+            responseCache.invalidateAll();
+            return new User(userEntity);
+        });
     }
 
     public void deleteUser(String id) {
         UserEntity entity = userRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("User not found"));
         userRepository.delete(entity);
+        responseCache.invalidateAll();
     }
 
     public void deleteAllUsers() {
         userRepository.deleteAll();
+        responseCache.invalidateAll();
+    }
+
+    // Only a clash on the username index means the name is taken, anything else is rethrown as is
+    private static RuntimeException usernameTaken(DuplicateKeyException ex) {
+        if (ex.getMessage() != null && ex.getMessage().contains("index: " + UserEntity.USERNAME_INDEX + " ")) {
+            return new InvalidDataException("Username already exists");
+        }
+        return ex;
+    }
+
+    private void requireUser(String id) {
+        if (!userRepository.existsById(id)) {
+            throw new EntityNotFoundException("User not found");
+        }
     }
 }
@@ -0,0 +1,46 @@
+package ro.unibuc.hello.service;
+
+import java.util.function.IntFunction;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import ro.unibuc.hello.exception.PreconditionFailedException;
+
+/**
+ * Optimistic concurrency on the versioned documents (auctions, items, users).
+ *
+ * Writes never lock: a save fails when the stored version moved since the read. Internal read-modify-write
+ * paths run again from the read a bounded number of times, a client that sent an If-Match version gets a 412
+ * instead since its edit was based on what it read.
+ */
+final class Versions {
+
+    static final int MAX_ATTEMPTS = 3;
+
+    private Versions() {}
+
+    /**
+     * Runs the read-modify-write, passing the attempt number starting at 0, until it saves without a conflict.
+     * The last conflict is rethrown once the attempts run out.
+     */
+    static <T> T retryOnConflict(IntFunction<T> readModifyWrite) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return readModifyWrite.apply(attempt);
+            } catch (OptimisticLockingFailureException ex) {
+                if (attempt + 1 >= MAX_ATTEMPTS) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    /**
+     * Fails when the client expects a version other than the current one, a null expected version matches any.
+     */
+    static void checkIfMatch(Long expected, Long current, String message) {
+        if (expected != null && !expected.equals(current)) {
+            throw new PreconditionFailedException(message);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package ro.unibuc.hello.auth;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import ro.unibuc.hello.exception.InvalidSessionException;
+
+public class SessionTokensTest {
+
+    private SessionTokens sessionTokens = new SessionTokens();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sessionTokens, "secret", "test-secret");
+        ReflectionTestUtils.setField(sessionTokens, "sessionMode", SessionMode.TOKEN);
+        sessionTokens.start();
+    }
+
+    @Test
+    void testVerify_IssuedToken() {
+        // Arrange
+        String token = sessionTokens.issue("11", Instant.now().plusSeconds(60));
+
+        // Act & Assert
+        assertEquals("11", sessionTokens.verify(token));
+    }
+
+    @Test
+    void testVerify_ExpiredToken() {
+        // Arrange
+        String token = sessionTokens.issue("11", Instant.now().minusSeconds(60));
+
+        // Act & Assert
+        InvalidSessionException ex = assertThrows(InvalidSessionException.class, () -> sessionTokens.verify(token));
+        assertEquals("Expired session", ex.getMessage());
+    }
+
+    @Test
+    void testVerify_TamperedToken() {
+        // Arrange
+        String token = sessionTokens.issue("11", Instant.now().plusSeconds(60));
+        String forged = sessionTokens.issue("12", Instant.now().plusSeconds(60));
+        String tampered = forged.substring(0, forged.indexOf('.')) + token.substring(token.indexOf('.'));
+
+        // Act & Assert
+        assertThrows(InvalidSessionException.class, () -> sessionTokens.verify(tampered));
+        assertThrows(InvalidSessionException.class, () -> sessionTokens.verify("not-a-token"));
+    }
+
+    @Test
+    void testVerify_TokenFromOtherKey() {
+        // Arrange
+        SessionTokens other = new SessionTokens();
+        ReflectionTestUtils.setField(other, "secret", "other-secret");
+        ReflectionTestUtils.setField(other, "sessionMode", SessionMode.TOKEN);
+        other.start();
+        String token = other.issue("11", Instant.now().plusSeconds(60));
+
+        // Act & Assert
+        assertThrows(InvalidSessionException.class, () -> sessionTokens.verify(token));
+    }
+
+    @Test
+    void testRevoke() {
+        // Arrange
+        String token = sessionTokens.issue("11", Instant.now().plusSeconds(60));
+        String otherToken = sessionTokens.issue("11", Instant.now().plusSeconds(60));
+
+        // Act
+        boolean revoked = sessionTokens.revoke(token);
+
+        // Assert
+        assertTrue(revoked);
+        assertFalse(sessionTokens.revoke(token));
+        assertThrows(InvalidSessionException.class, () -> sessionTokens.verify(token));
+        assertEquals("11", sessionTokens.verify(otherToken));
+    }
+
+    @Test
+    void testStart_TokenModeRequiresSecret() {
+        // Arrange
+        SessionTokens other = new SessionTokens();
+        ReflectionTestUtils.setField(other, "secret", " ");
+        ReflectionTestUtils.setField(other, "sessionMode", SessionMode.TOKEN);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, other::start);
+    }
+
+    @Test
+    void testStart_DatabaseModeNeedsNoSecret() {
+        // Arrange
+        SessionTokens other = new SessionTokens();
+        ReflectionTestUtils.setField(other, "secret", "");
+
+        // Act
+        other.start();
+
+        // Assert
+        assertNull(ReflectionTestUtils.getField(other, "key"));
+    }
+}
@@ -0,0 +1,141 @@
+package ro.unibuc.hello.bidding;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ro.unibuc.hello.data.CursorReadRepository;
+
+public class AuctionDeadlinesTest {
+
+    @Mock
+    private CursorReadRepository cursorReadRepository;
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private AuctionDeadlines auctionDeadlines = new AuctionDeadlines();
+
+    private List<String> settled = new CopyOnWriteArrayList<>();
+    private CountDownLatch latch;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(auctionDeadlines, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(auctionDeadlines, "tickMs", 10L);
+        ReflectionTestUtils.setField(auctionDeadlines, "wheelSize", 64);
+        ReflectionTestUtils.setField(auctionDeadlines, "settlementThreads", 2);
+        ReflectionTestUtils.setField(auctionDeadlines, "settlementQueue", 100);
+        ReflectionTestUtils.setField(auctionDeadlines, "retryDelayMs", 20L);
+        ReflectionTestUtils.setField(auctionDeadlines, "catchUpMs", 60000L);
+        auctionDeadlines.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        auctionDeadlines.stop();
+    }
+
+    @Test
+    void testSchedule_SettlesAtEndTime() throws Exception {
+        // Arrange
+        latch = new CountDownLatch(2);
+        auctionDeadlines.onDeadline(this::settle);
+
+        // Act
+        auctionDeadlines.schedule("2", Instant.now().plusMillis(100));
+        auctionDeadlines.schedule("1", Instant.now().plusMillis(30));
+
+        // Assert
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of("1", "2"), settled);
+        assertEquals(0.0, meterRegistry.get("auctions.deadlines.pending").gauge().value(), 0.0);
+    }
+
+    @Test
+    void testLoadOpenAuctions_SettlesOverdueRightAway() throws Exception {
+        // Arrange
+        latch = new CountDownLatch(1);
+        auctionDeadlines.onDeadline(this::settle);
+        when(cursorReadRepository.streamOpenAuctionDeadlines()).thenReturn(Stream.of(
+            new Document("_id", "1").append("endsAt", Date.from(Instant.now().minusSeconds(60))),
+            new Document("_id", "2").append("endsAt", Date.from(Instant.now().plusSeconds(3600)))
+        ));
+
+        // Act
+        auctionDeadlines.loadOpenAuctions();
+
+        // Assert
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of("1"), settled);
+        assertEquals(1.0, meterRegistry.get("auctions.deadlines.pending").gauge().value(), 0.0);
+    }
+
+    @Test
+    void testCatchUp_SettlesOverdueAuctions() throws Exception {
+        // Arrange
+        latch = new CountDownLatch(2);
+        auctionDeadlines.onDeadline(this::settle);
+        when(cursorReadRepository.streamOverdueAuctions(any(Date.class))).thenReturn(Stream.of(
+            new Document("_id", "1"),
+            new Document("_id", "2")
+        ));
+
+        // Act
+        auctionDeadlines.catchUp();
+
+        // Assert
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertEquals(Set.of("1", "2"), Set.copyOf(settled));
+        assertEquals(0.0, meterRegistry.get("auctions.deadlines.pending").gauge().value(), 0.0);
+    }
+
+    @Test
+    void testSettle_FailureIsRetried() throws Exception {
+        // Arrange
+        latch = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+        auctionDeadlines.onDeadline(auctionId -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("Mongo down");
+            }
+            settle(auctionId);
+        });
+
+        // Act
+        auctionDeadlines.schedule("1", Instant.now().minusSeconds(1));
+
+        // Assert
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertEquals(2, attempts.get());
+        assertEquals(List.of("1"), settled);
+    }
+
+    private void settle(String auctionId) {
+        settled.add(auctionId);
+        latch.countDown();
+    }
+}
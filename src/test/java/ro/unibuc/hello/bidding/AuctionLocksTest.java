@@ -0,0 +1,93 @@
+package ro.unibuc.hello.bidding;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AuctionLocksTest {
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AuctionLocks auctionLocks = new AuctionLocks();
+
+    private ExecutorService clients = Executors.newFixedThreadPool(2);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(auctionLocks, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(auctionLocks, "stripeCount", 16);
+        ReflectionTestUtils.setField(auctionLocks, "hotStripes", 10);
+        auctionLocks.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+    }
+
+    @Test
+    void testWithLock_ReturnsResult() {
+        // Act
+        String result = auctionLocks.withLock("1", () -> "done");
+
+        // Assert
+        assertEquals("done", result);
+        assertEquals(0.0, meterRegistry.get("bidding.locks.contended").counter().count(), 0);
+    }
+
+    @Test
+    void testWithLock_IsReentrant() {
+        // Act
+        String result = auctionLocks.withLock("1", () -> auctionLocks.withLock("1", () -> "done"));
+
+        // Assert
+        assertEquals("done", result);
+    }
+
+    @Test
+    void testWithLock_SameAuctionWaitsAndItsStripeIsReportedHot() throws Exception {
+        // Arrange
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = clients.submit(() -> auctionLocks.withLock("1", () -> {
+            holding.countDown();
+            await(release);
+            return null;
+        }));
+        holding.await();
+
+        // Act
+        Future<String> waiter = clients.submit(() -> auctionLocks.withLock("1", () -> "second"));
+        while (meterRegistry.get("bidding.locks.contended").counter().count() == 0) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        holder.get();
+
+        // Assert
+        assertEquals("second", waiter.get());
+        assertEquals(1, meterRegistry.get("bidding.locks.wait").timer().count());
+
+        auctionLocks.publishHotStripes();
+        assertEquals(1.0, meterRegistry.get("bidding.locks.hot").gauge().value(), 0);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package ro.unibuc.hello.bidding;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ro.unibuc.hello.data.BidEntity;
+
+public class BidWriteBehindTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private BidWriteBehind bidWriteBehind = new BidWriteBehind();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(bidWriteBehind, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(bidWriteBehind, "windowMs", 200L);
+        ReflectionTestUtils.setField(bidWriteBehind, "maxBatch", 4);
+        ReflectionTestUtils.setField(bidWriteBehind, "queueCapacity", 100);
+        ReflectionTestUtils.setField(bidWriteBehind, "timeoutMs", 1000L);
+
+        when(mongoTemplate.bulkOps(BulkMode.UNORDERED, BidEntity.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+
+        bidWriteBehind.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        bidWriteBehind.stop();
+    }
+
+    @Test
+    void testInsert_ReturnsWrittenBid() {
+        // Arrange
+        BidEntity bid = new BidEntity("31", 10, null, null);
+
+        // Act
+        BidEntity written = bidWriteBehind.insert(bid);
+
+        // Assert
+        assertEquals(bid, written);
+        verify(bulkOperations, times(1)).execute();
+        assertEquals(1, meterRegistry.get("bidding.writebehind.batch.size").summary().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testInsert_ConcurrentBidsShareOneBatch() throws Exception {
+        // Arrange
+        ExecutorService clients = Executors.newFixedThreadPool(4);
+        List<Future<BidEntity>> results = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            BidEntity bid = new BidEntity("3" + i, 10 + i, null, null);
+            results.add(clients.submit(() -> bidWriteBehind.insert(bid)));
+        }
+        for (Future<BidEntity> result : results) {
+            result.get();
+        }
+        clients.shutdown();
+
+        // Assert
+        ArgumentCaptor<List<BidEntity>> batches = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations, times(1)).insert(batches.capture());
+        assertEquals(4, batches.getValue().size());
+    }
+
+    @Test
+    void testInsert_WriteFailurePropagates() {
+        // Arrange
+        when(bulkOperations.execute()).thenThrow(new IllegalStateException("Mongo down"));
+
+        // Act & Assert
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+            () -> bidWriteBehind.insert(new BidEntity("31", 10, null, null)));
+        assertEquals("Mongo down", ex.getMessage());
+    }
+
+    @Test
+    void testInsert_TimesOutWaitingForWrite() {
+        // Arrange
+        ReflectionTestUtils.setField(bidWriteBehind, "timeoutMs", 50L);
+
+        // Act & Assert
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+            () -> bidWriteBehind.insert(new BidEntity("31", 10, null, null)));
+        assertEquals("Timed out waiting for bid to be written", ex.getMessage());
+    }
+
+    @Test
+    void testInsert_RejectedOnceStopped() throws Exception {
+        // Arrange
+        bidWriteBehind.stop();
+
+        // Act & Assert
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+            () -> bidWriteBehind.insert(new BidEntity("31", 10, null, null)));
+        assertEquals("Bid writer stopped", ex.getMessage());
+        verify(bulkOperations, times(0)).execute();
+    }
+
+    @Test
+    void testStop_FailsPendingBids() throws Exception {
+        // Arrange
+        ExecutorService clients = Executors.newSingleThreadExecutor();
+        Future<BidEntity> result = clients.submit(() -> bidWriteBehind.insert(new BidEntity("31", 10, null, null)));
+        Thread.sleep(50);
+
+        // Act
+        bidWriteBehind.stop();
+
+        // Assert
+        ExecutionException ex = assertThrows(ExecutionException.class, result::get);
+        assertEquals("Bid writer stopped", ex.getCause().getMessage());
+        clients.shutdown();
+    }
+}
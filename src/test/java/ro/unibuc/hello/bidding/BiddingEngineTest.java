@@ -0,0 +1,328 @@
+package ro.unibuc.hello.bidding;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import ro.unibuc.hello.data.AuctionEntity;
+import ro.unibuc.hello.data.AuctionRepository;
+import ro.unibuc.hello.data.BidEntity;
+import ro.unibuc.hello.data.BidRepository;
+import ro.unibuc.hello.data.ItemEntity;
+import ro.unibuc.hello.data.MaxBidEntity;
+import ro.unibuc.hello.data.MaxBidRepository;
+import ro.unibuc.hello.data.UserEntity;
+
+public class BiddingEngineTest {
+
+    @Mock
+    private AuctionRepository auctionRepository;
+
+    @Mock
+    private BidRepository bidRepository;
+
+    @Mock
+    private MaxBidRepository maxBidRepository;
+
+    @InjectMocks
+    private BiddingEngine biddingEngine = new BiddingEngine();
+
+    private UserEntity auctioneer = new UserEntity("11", "user 1", "username1", "password1");
+    private ItemEntity item = new ItemEntity("21", "Item 1", "description 1", auctioneer);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        biddingEngine.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        biddingEngine.stop();
+    }
+
+    @Test
+    void testPlaceBid_FirstBid() {
+        // Arrange
+        openAuction("1", 5);
+
+        // Act & Assert
+        assertEquals(BidOutcome.BELOW_START_PRICE, biddingEngine.placeBid("1", "12", 4));
+        assertEquals(BidOutcome.ACCEPTED, biddingEngine.placeBid("1", "12", 5));
+        assertEquals(BidOutcome.NOT_HIGHER, biddingEngine.placeBid("1", "13", 5));
+        assertEquals(BidOutcome.ACCEPTED, biddingEngine.placeBid("1", "13", 6));
+    }
+
+    @Test
+    void testPlaceBid_LoadsAuctionOnce() {
+        // Arrange
+        openAuction("1", 5);
+
+        // Act
+        biddingEngine.placeBid("1", "12", 10);
+        biddingEngine.placeBid("1", "13", 20);
+        biddingEngine.placeBid("1", "12", 30);
+
+        // Assert
+        verify(auctionRepository, times(1)).findById("1");
+    }
+
+    @Test
+    void testPlaceBid_TrackedHighestBid() {
+        // Arrange
+        AuctionEntity auction = openAuction("1", 5);
+        auction.setHighestBidId("31");
+        auction.setHighestBidPrice(50);
+        auction.setHighestBidder(new UserEntity("12", "user 2", "username2", "password2"));
+
+        // Act & Assert
+        assertEquals(BidOutcome.NOT_HIGHER, biddingEngine.placeBid("1", "13", 50));
+        assertEquals(BidOutcome.ACCEPTED, biddingEngine.placeBid("1", "13", 51));
+    }
+
+    @Test
+    void testPlaceBid_LegacyBids() {
+        // Arrange
+        AuctionEntity auction = openAuction("1", 5);
+        UserEntity bidder = new UserEntity("12", "user 2", "username2", "password2");
+        when(bidRepository.findFirstByAuctionOrderByPriceDesc(auction)).thenReturn(Optional.of(new BidEntity("32", 40, bidder, auction)));
+
+        // Act & Assert
+        assertEquals(BidOutcome.NOT_HIGHER, biddingEngine.placeBid("1", "13", 35));
+        assertEquals(BidOutcome.ACCEPTED, biddingEngine.placeBid("1", "13", 41));
+    }
+
+    @Test
+    void testPlaceBid_DeletedAuctioneerAndHighestBidder() {
+        // Arrange
+        AuctionEntity auction = openAuction("1", 5);
+        auction.setAuctioneer(null);
+        auction.setHighestBidId("31");
+        auction.setHighestBidPrice(50);
+        auction.setHighestBidder(null);
+
+        // Act & Assert
+        assertEquals(BidOutcome.NOT_HIGHER, biddingEngine.placeBid("1", "13", 50));
+        assertEquals(BidOutcome.ACCEPTED, biddingEngine.placeBid("1", "13", 51));
+        assertEquals(CloseOutcome.CLOSED, biddingEngine.close("1"));
+    }
+
+    @Test
+    void testPlaceBid_OwnAuction() {
+        // Arrange
+        openAuction("1", 5);
+
+        // Act & Assert
+        assertEquals(BidOutcome.OWN_AUCTION, biddingEngine.placeBid("1", "11", 10));
+    }
+
+    @Test
+    void testPlaceBid_AuctionNotFound() {
+        // Arrange
+        when(auctionRepository.findById("1")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertEquals(BidOutcome.AUCTION_NOT_FOUND, biddingEngine.placeBid("1", "12", 10));
+    }
+
+    @Test
+    void testPlaceBid_ClosedAuctionIsNotKept() {
+        // Arrange
+        AuctionEntity auction = new AuctionEntity("1", "Auction 1", "Description 1", 5, false, item, auctioneer);
+        when(auctionRepository.findById("1")).thenReturn(Optional.of(auction));
+
+        // Act
+        biddingEngine.placeBid("1", "12", 10);
+        BidOutcome outcome = biddingEngine.placeBid("1", "12", 10);
+
+        // Assert
+        assertEquals(BidOutcome.AUCTION_CLOSED, outcome);
+        verify(auctionRepository, times(2)).findById("1");
+    }
+
+    @Test
+    void testPlaceBid_AfterEndTime() {
+        // Arrange
+        AuctionEntity auction = openAuction("1", 5);
+        auction.setEndsAt(LocalDateTime.now().minusSeconds(1));
+
+        // Act & Assert
+        assertEquals(BidOutcome.AUCTION_CLOSED, biddingEngine.placeBid("1", "12", 10));
+    }
+
+    @Test
+    void testCheckBid_DoesNotChangeState() {
+        // Arrange
+        openAuction("1", 5);
+
+        // Act & Assert
+        assertEquals(BidOutcome.ACCEPTED, biddingEngine.checkBid("1", "12", 10));
+        assertEquals(BidOutcome.ACCEPTED, biddingEngine.checkBid("1", "12", 10));
+    }
+
+    @Test
+    void testClose() {
+        // Arrange
+        openAuction("1", 5);
+
+        // Act & Assert
+        assertEquals(CloseOutcome.NO_BIDS, biddingEngine.close("1"));
+        biddingEngine.placeBid("1", "12", 10);
+        assertEquals(CloseOutcome.CLOSED, biddingEngine.close("1"));
+    }
+
+    @Test
+    void testEvict_ReloadsAuction() {
+        // Arrange
+        openAuction("1", 5);
+        biddingEngine.placeBid("1", "12", 10);
+
+        // Act
+        biddingEngine.evict("1");
+        BidOutcome outcome = biddingEngine.placeBid("1", "12", 10);
+
+        // Assert
+        assertEquals(BidOutcome.ACCEPTED, outcome);
+        verify(auctionRepository, times(2)).findById("1");
+    }
+
+    @Test
+    void testIdleAuctionIsReloaded() {
+        // Arrange
+        biddingEngine.stop();
+        ReflectionTestUtils.setField(biddingEngine, "idleMs", 0L);
+        biddingEngine.start();
+        openAuction("1", 5);
+        biddingEngine.placeBid("1", "12", 10);
+
+        // Act
+        BidOutcome outcome = biddingEngine.placeBid("1", "13", 10);
+
+        // Assert
+        assertEquals(BidOutcome.ACCEPTED, outcome);
+        verify(auctionRepository, times(2)).findById("1");
+    }
+
+    @Test
+    void testPlaceMaxBid_ProxiesCompeteInOneStep() {
+        // Arrange
+        openAuction("1", 5);
+
+        // Act & Assert
+        biddingEngine.placeMaxBid("1", "12", 50);
+        assertEquals(new ProxyBid("12", 5), biddingEngine.resolveProxies("1"));
+        biddingEngine.placeMaxBid("1", "13", 30);
+        assertEquals(new ProxyBid("12", 31), biddingEngine.resolveProxies("1"));
+
+        MaxBidOutcome raised = biddingEngine.placeMaxBid("1", "13", 60);
+        assertEquals(BidOutcome.ACCEPTED, raised.outcome());
+        assertEquals("12", raised.highestBidderId());
+        assertEquals(new ProxyBid("13", 51), biddingEngine.resolveProxies("1"));
+        assertNull(biddingEngine.resolveProxies("1"));
+    }
+
+    @Test
+    void testPlaceMaxBid_EarlierCeilingWinsTie() {
+        // Arrange
+        openAuction("1", 5);
+        biddingEngine.placeMaxBid("1", "12", 40);
+        biddingEngine.resolveProxies("1");
+
+        // Act
+        biddingEngine.placeMaxBid("1", "13", 40);
+        ProxyBid bid = biddingEngine.resolveProxies("1");
+
+        // Assert
+        assertEquals(new ProxyBid("12", 40), bid);
+        assertEquals(BidOutcome.NOT_HIGHER, biddingEngine.placeMaxBid("1", "13", 40).outcome());
+    }
+
+    @Test
+    void testPlaceMaxBid_Rejected() {
+        // Arrange
+        openAuction("1", 5);
+
+        // Act & Assert
+        assertEquals(BidOutcome.OWN_AUCTION, biddingEngine.placeMaxBid("1", "11", 50).outcome());
+        assertEquals(BidOutcome.BELOW_START_PRICE, biddingEngine.placeMaxBid("1", "12", 4).outcome());
+    }
+
+    @Test
+    void testResolveProxies_AnswersManualBids() {
+        // Arrange
+        openAuction("1", 5);
+        biddingEngine.placeMaxBid("1", "12", 50);
+        biddingEngine.resolveProxies("1");
+
+        // Act & Assert
+        assertEquals(BidOutcome.ACCEPTED, biddingEngine.placeBid("1", "13", 20));
+        assertEquals(new ProxyBid("12", 21), biddingEngine.resolveProxies("1"));
+        assertEquals(BidOutcome.ACCEPTED, biddingEngine.placeBid("1", "13", 50));
+        assertNull(biddingEngine.resolveProxies("1"));
+    }
+
+    @Test
+    void testResolveProxies_LoadsStoredMaxBids() {
+        // Arrange
+        openAuction("1", 5);
+        when(maxBidRepository.findByAuctionId("1")).thenReturn(List.of(new MaxBidEntity("1", "12", 50, LocalDateTime.now())));
+
+        // Act
+        biddingEngine.placeBid("1", "13", 20);
+        ProxyBid bid = biddingEngine.resolveProxies("1");
+
+        // Assert
+        assertEquals(new ProxyBid("12", 21), bid);
+    }
+
+    @Test
+    void testPlaceBid_ConcurrentBidsOnlyOneWinsPerPrice() throws Exception {
+        // Arrange
+        openAuction("1", 1);
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        List<Future<BidOutcome>> outcomes = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 400; i++) {
+            int price = 1 + i / 4;
+            String bidder = "bidder" + (i % 4);
+            outcomes.add(clients.submit(() -> biddingEngine.placeBid("1", bidder, price)));
+        }
+
+        int accepted = 0;
+        for (Future<BidOutcome> outcome : outcomes) {
+            if (outcome.get() == BidOutcome.ACCEPTED) {
+                accepted++;
+            }
+        }
+        clients.shutdown();
+
+        // Assert
+        assertEquals(true, accepted <= 100);
+        assertEquals(BidOutcome.NOT_HIGHER, biddingEngine.placeBid("1", "bidder0", 100));
+    }
+
+    private AuctionEntity openAuction(String id, int startPrice) {
+        AuctionEntity auction = new AuctionEntity(id, "Auction " + id, "Description", startPrice, true, item, auctioneer);
+        when(auctionRepository.findById(id)).thenReturn(Optional.of(auction));
+        return auction;
+    }
+}
@@ -0,0 +1,161 @@
+package ro.unibuc.hello.bidding;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import ro.unibuc.hello.dto.BidWithBidder;
+import ro.unibuc.hello.dto.User;
+
+public class LiveBidsTest {
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LiveBids liveBids = new LiveBids();
+
+    private User bidder = new User("12", "user 2");
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(liveBids, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(liveBids, "bufferSize", 2);
+        liveBids.start();
+    }
+
+    @Test
+    void testPublishBid_ReachesAllSubscribers() {
+        // Arrange
+        List<ServerSentEvent<BidWithBidder>> first = new ArrayList<>();
+        List<ServerSentEvent<BidWithBidder>> second = new ArrayList<>();
+        liveBids.subscribe("1").subscribe(first::add);
+        liveBids.subscribe("1").subscribe(second::add);
+
+        // Act
+        liveBids.publishBid("1", new BidWithBidder("31", 10, bidder));
+        liveBids.publishBid("2", new BidWithBidder("32", 20, bidder));
+
+        // Assert
+        assertEquals(1, first.size());
+        assertEquals(1, second.size());
+        assertEquals(LiveBids.BID_EVENT, first.get(0).event());
+        assertEquals("31", first.get(0).data().getId());
+    }
+
+    @Test
+    void testPublishBid_SkipsLowerBidPersistedLate() {
+        // Arrange
+        List<ServerSentEvent<BidWithBidder>> events = new ArrayList<>();
+        liveBids.subscribe("1").subscribe(events::add);
+
+        // Act
+        liveBids.publishBid("1", new BidWithBidder("32", 20, bidder));
+        liveBids.publishBid("1", new BidWithBidder("31", 10, bidder));
+
+        // Assert
+        assertEquals(1, events.size());
+        assertEquals(20, events.get(0).data().getPrice());
+    }
+
+    @Test
+    void testPublishClose_EndsStream() {
+        // Arrange
+        List<ServerSentEvent<BidWithBidder>> events = new ArrayList<>();
+        boolean[] completed = new boolean[1];
+        liveBids.subscribe("1").subscribe(events::add, error -> { }, () -> completed[0] = true);
+
+        // Act
+        liveBids.publishClose("1", new BidWithBidder("31", 10, bidder));
+
+        // Assert
+        assertEquals(1, events.size());
+        assertEquals(LiveBids.CLOSED_EVENT, events.get(0).event());
+        assertTrue(completed[0]);
+        assertEquals(0.0, meterRegistry.get("bidding.stream.auctions").gauge().value(), 0.0);
+    }
+
+    @Test
+    void testSubscribe_CloseBeforeSubscriptionEndsStream() throws Exception {
+        // Arrange
+        List<ServerSentEvent<BidWithBidder>> events = new ArrayList<>();
+        CountDownLatch completed = new CountDownLatch(1);
+        Thread[] lookedUpOn = new Thread[1];
+        ServerSentEvent<BidWithBidder> closed = ServerSentEvent.<BidWithBidder>builder()
+            .data(new BidWithBidder("31", 10, bidder)).event(LiveBids.CLOSED_EVENT).build();
+        liveBids.publishClose("1", null);
+
+        // Act
+        liveBids.subscribe("1", () -> {
+            lookedUpOn[0] = Thread.currentThread();
+            return Optional.of(closed);
+        }).subscribe(events::add, error -> { }, completed::countDown);
+
+        // Assert: the lookup may block, so it runs off the subscribing thread
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertNotEquals(Thread.currentThread(), lookedUpOn[0]);
+        assertEquals(1, events.size());
+        assertEquals(LiveBids.CLOSED_EVENT, events.get(0).event());
+        assertEquals(0.0, meterRegistry.get("bidding.stream.auctions").gauge().value(), 0.0);
+    }
+
+    @Test
+    void testSlowSubscriberIsEvicted() {
+        // Arrange
+        List<ServerSentEvent<BidWithBidder>> fast = new ArrayList<>();
+        Throwable[] slowError = new Throwable[1];
+        liveBids.subscribe("1").subscribe(fast::add);
+        liveBids.subscribe("1").subscribe(new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                // Never requests anything
+            }
+
+            @Override
+            protected void hookOnError(Throwable throwable) {
+                slowError[0] = throwable;
+            }
+        });
+
+        // Act
+        for (int price = 1; price <= 3; price++) {
+            liveBids.publishBid("1", new BidWithBidder("3" + price, price, bidder));
+        }
+
+        // Assert
+        assertNotNull(slowError[0]);
+        assertEquals(3, fast.size());
+        assertEquals(1.0, meterRegistry.get("bidding.stream.evicted").counter().count(), 0.0);
+    }
+
+    @Test
+    void testLastSubscriberLeavingDropsAuction() {
+        // Arrange
+        Disposable first = liveBids.subscribe("1").subscribe();
+        Disposable second = liveBids.subscribe("1").subscribe();
+
+        // Act
+        first.dispose();
+        double afterFirst = meterRegistry.get("bidding.stream.auctions").gauge().value();
+        second.dispose();
+
+        // Assert
+        assertEquals(1.0, afterFirst, 0.0);
+        assertEquals(0.0, meterRegistry.get("bidding.stream.auctions").gauge().value(), 0.0);
+    }
+}
@@ -0,0 +1,87 @@
+package ro.unibuc.hello.bidding;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TimingWheelTest {
+
+    private TimingWheel<String> wheel = new TimingWheel<>(10, 8, 1000);
+
+    @Test
+    void testAdd_DueDeadline() {
+        // Act & Assert
+        assertFalse(wheel.add("past", 500));
+        assertFalse(wheel.add("now", 1000));
+        assertTrue(wheel.add("later in the tick", 1001));
+    }
+
+    @Test
+    void testAdvance_FiresInDeadlineOrder() {
+        // Arrange
+        List<String> due = new ArrayList<>();
+        wheel.add("b", 1050);
+        wheel.add("a", 1020);
+
+        // Act & Assert
+        wheel.advance(1019, due::add);
+        assertEquals(List.of(), due);
+        wheel.advance(1020, due::add);
+        assertEquals(List.of("a"), due);
+        wheel.advance(1060, due::add);
+        assertEquals(List.of("a", "b"), due);
+    }
+
+    @Test
+    void testAdvance_NeverFiresEarly() {
+        // Arrange
+        List<String> due = new ArrayList<>();
+        wheel.add("a", 1015);
+
+        // Act & Assert
+        wheel.advance(1014, due::add);
+        assertEquals(List.of(), due);
+        wheel.advance(1020, due::add);
+        assertEquals(List.of("a"), due);
+    }
+
+    @Test
+    void testAdvance_CascadesFromOverflowWheels() {
+        // Arrange: one turn of the first wheel is 80 ms, of the second 640 ms
+        List<String> due = new ArrayList<>();
+        wheel.add("overflow", 1300);
+        wheel.add("second overflow", 5000);
+
+        // Act & Assert
+        wheel.advance(1299, due::add);
+        assertEquals(List.of(), due);
+        wheel.advance(1300, due::add);
+        assertEquals(List.of("overflow"), due);
+        wheel.advance(4999, due::add);
+        assertEquals(List.of("overflow"), due);
+        wheel.advance(5000, due::add);
+        assertEquals(List.of("overflow", "second overflow"), due);
+    }
+
+    @Test
+    void testAdvance_ManyDeadlines() {
+        // Arrange
+        List<String> due = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            wheel.add("task" + i, 1010 + i * 7L);
+        }
+
+        // Act
+        wheel.advance(1010 + 5000 * 7L, due::add);
+
+        // Assert
+        assertEquals(5001, due.size());
+        wheel.advance(1010 + 10000 * 7L, due::add);
+        assertEquals(10000, due.size());
+    }
+}
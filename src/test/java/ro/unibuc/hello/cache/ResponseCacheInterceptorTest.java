@@ -0,0 +1,163 @@
+package ro.unibuc.hello.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+public class ResponseCacheInterceptorTest {
+
+    private static final byte[] BODY = "{\"id\":\"1\"}".getBytes();
+    private static final byte[] GZIPPED = new byte[] {31, -117, 8};
+
+    @Mock
+    private ResponseCache responseCache;
+
+    @InjectMocks
+    private ResponseCacheInterceptor responseCacheInterceptor = new ResponseCacheInterceptor();
+
+    private HandlerMethod handler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(responseCacheInterceptor, "enabled", true);
+        handler = new HandlerMethod(new Endpoints(), Endpoints.class.getMethod("getAuction", String.class));
+    }
+
+    @Test
+    void testPreHandle_MissMarksRequest() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = request();
+        when(responseCache.begin()).thenReturn(7L);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        boolean proceed = responseCacheInterceptor.preHandle(request, response, handler);
+
+        // Assert
+        assertTrue(proceed);
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        ResponseCacheInterceptor.Pending pending = (ResponseCacheInterceptor.Pending) request.getAttribute(ResponseCacheInterceptor.PENDING_ATTRIBUTE);
+        assertEquals("/auctions/1?limit=5", pending.key());
+        assertEquals(List.of("auction:1"), pending.tags());
+        assertEquals(7L, pending.startedAt());
+    }
+
+    @Test
+    void testPreHandle_HitWritesCachedBody() throws Exception {
+        // Arrange
+        when(responseCache.get("/auctions/1?limit=5")).thenReturn(entry());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        boolean proceed = responseCacheInterceptor.preHandle(request(), response, handler);
+
+        // Assert
+        assertFalse(proceed);
+        assertEquals(200, response.getStatus());
+        assertEquals("application/json", response.getContentType());
+        assertEquals("\"3\"", response.getHeader("ETag"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertArrayEquals(BODY, response.getContentAsByteArray());
+    }
+
+    @Test
+    void testPreHandle_HitWritesGzippedBody() throws Exception {
+        // Arrange
+        when(responseCache.get("/auctions/1?limit=5")).thenReturn(entry());
+        MockHttpServletRequest request = request();
+        request.addHeader("Accept-Encoding", "gzip, deflate");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        responseCacheInterceptor.preHandle(request, response, handler);
+
+        // Assert
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertArrayEquals(GZIPPED, response.getContentAsByteArray());
+    }
+
+    @Test
+    void testPreHandle_HitNotModified() throws Exception {
+        // Arrange
+        when(responseCache.get("/auctions/1?limit=5")).thenReturn(entry());
+        MockHttpServletRequest request = request();
+        request.addHeader("If-None-Match", "\"3\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        responseCacheInterceptor.preHandle(request, response, handler);
+
+        // Assert
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void testPreHandle_HitNotModifiedWeakTag() throws Exception {
+        // Arrange
+        ResponseCache.Entry weak = new ResponseCache.Entry(List.of("auction:1"), 0, "application/json", Map.of("ETag", "W/\"3\""), BODY, GZIPPED);
+        when(responseCache.get("/auctions/1?limit=5")).thenReturn(weak);
+        MockHttpServletRequest request = request();
+        request.addHeader("If-None-Match", "\"3\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        responseCacheInterceptor.preHandle(request, response, handler);
+
+        // Assert
+        assertEquals(304, response.getStatus());
+        assertEquals("W/\"3\"", response.getHeader("ETag"));
+    }
+
+    @Test
+    void testPreHandle_NotCachedEndpoint() throws Exception {
+        // Arrange
+        HandlerMethod other = new HandlerMethod(new Endpoints(), Endpoints.class.getMethod("streamAuction"));
+        MockHttpServletRequest request = request();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        boolean proceed = responseCacheInterceptor.preHandle(request, response, other);
+
+        // Assert
+        assertTrue(proceed);
+        assertEquals(null, response.getHeader("Vary"));
+        assertEquals(null, request.getAttribute(ResponseCacheInterceptor.PENDING_ATTRIBUTE));
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/auctions/1");
+        request.setQueryString("limit=5");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", "1"));
+        return request;
+    }
+
+    private ResponseCache.Entry entry() {
+        return new ResponseCache.Entry(List.of("auction:1"), 0, "application/json", Map.of("ETag", "\"3\""), BODY, GZIPPED);
+    }
+
+    static class Endpoints {
+        @CachedResponse(CacheTags.AUCTION)
+        public void getAuction(String id) {}
+
+        public void streamAuction() {}
+    }
+}
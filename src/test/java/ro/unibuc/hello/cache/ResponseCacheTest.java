@@ -0,0 +1,95 @@
+package ro.unibuc.hello.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ResponseCacheTest {
+
+    private static final byte[] BODY = "{\"id\":\"1\"}".getBytes(StandardCharsets.UTF_8);
+
+    private ResponseCache responseCache = new ResponseCache();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(responseCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(responseCache, "maxBytes", 1_000_000L);
+        ReflectionTestUtils.setField(responseCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(responseCache, "gzipMinBytes", 100);
+        responseCache.start();
+    }
+
+    @Test
+    void testInvalidate_OnlyDropsTaggedEntries() {
+        // Arrange
+        put("/auctions/1", "auction:1");
+        put("/auctions/2", "auction:2");
+
+        // Act
+        responseCache.invalidate(CacheTags.auction("1"));
+
+        // Assert
+        assertNull(responseCache.get("/auctions/1"));
+        assertNotNull(responseCache.get("/auctions/2"));
+    }
+
+    @Test
+    void testPut_WriteDuringComputationIsNotCached() {
+        // Arrange
+        long startedAt = responseCache.begin();
+        responseCache.invalidate(CacheTags.auction("1"));
+
+        // Act
+        responseCache.put("/auctions/1", List.of("auction:1"), startedAt, "application/json", Map.of(), BODY);
+
+        // Assert
+        assertNull(responseCache.get("/auctions/1"));
+    }
+
+    @Test
+    void testInvalidateAll() {
+        // Arrange
+        put("/auctions/1", "auction:1");
+        put("/users", "users");
+
+        // Act
+        responseCache.invalidateAll();
+
+        // Assert
+        assertNull(responseCache.get("/auctions/1"));
+        assertNull(responseCache.get("/users"));
+    }
+
+    @Test
+    void testPut_GzipsLargeBodies() throws Exception {
+        // Arrange
+        byte[] large = ("[" + "{\"id\":\"1\"},".repeat(50) + "{}]").getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        responseCache.put("/auctions", List.of("auctions"), responseCache.begin(), "application/json", Map.of(), large);
+        put("/auctions/1", "auction:1");
+
+        // Assert
+        byte[] gzipped = responseCache.get("/auctions").gzipped();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertArrayEquals(large, in.readAllBytes());
+        }
+        assertNull(responseCache.get("/auctions/1").gzipped());
+    }
+
+    private void put(String key, String tag) {
+        responseCache.put(key, List.of(tag), responseCache.begin(), "application/json", Map.of(), BODY);
+    }
+}
@@ -2,6 +2,8 @@ package ro.unibuc.hello.controller;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -10,6 +12,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -21,23 +24,26 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import jakarta.servlet.http.HttpServletRequest;
 import ro.unibuc.hello.auth.AuthInterceptor;
-import ro.unibuc.hello.data.SessionEntity;
-import ro.unibuc.hello.data.UserEntity;
+import ro.unibuc.hello.dto.AuctionBulkResult;
 import ro.unibuc.hello.dto.AuctionPlaceBidRequest;
 import ro.unibuc.hello.dto.AuctionPost;
 import ro.unibuc.hello.dto.AuctionPut;
 import ro.unibuc.hello.dto.AuctionWithAuctioneerAndItem;
 import ro.unibuc.hello.dto.BidWithBidder;
+import ro.unibuc.hello.dto.MaxBid;
 import ro.unibuc.hello.dto.Item;
 import ro.unibuc.hello.dto.User;
 import ro.unibuc.hello.exception.EntityNotFoundException;
 import ro.unibuc.hello.exception.GlobalExceptionHandler;
+import ro.unibuc.hello.exception.PreconditionFailedException;
 import ro.unibuc.hello.exception.UnauthorizedException;
 import ro.unibuc.hello.permissions.AuctionPermissionChecker;
 import ro.unibuc.hello.service.AuctionsService;
@@ -73,7 +79,7 @@ public class AuctionsControllerTest {
             .addInterceptors(authInterceptor)
             .build();
 
-        when(sessionsService.getValidSession(anyString())).thenReturn(new SessionEntity("1", new UserEntity("11", "user 1", "username1", "password1"), null));
+        when(sessionsService.authenticate(anyString())).thenReturn("11");
     }
 
     @Test
@@ -87,7 +93,7 @@ public class AuctionsControllerTest {
             new AuctionWithAuctioneerAndItem("1", "Title 1", "Description 1", 10, "open", user1, item1),
             new AuctionWithAuctioneerAndItem("2", "Title 2", "Description 2", 20, "closed", user2, item2)
         );
-        when(auctionsService.getAllAuctions()).thenReturn(auctions);
+        when(auctionsService.getAllAuctions(null, null)).thenReturn(Window.from(auctions, ScrollPosition::offset));
 
         // Act & Assert
         mockMvc.perform(get("/auctions"))
@@ -114,6 +120,36 @@ public class AuctionsControllerTest {
             .andExpect(jsonPath("$[1].item.description").value("description 2"));
     }
 
+    @Test
+    void testGetAll_NextCursor() throws Exception {
+        // Arrange
+        User user1 = new User("11", "user 1");
+        Item item1 = new Item("21", "Item 1", "description 1");
+        List<AuctionWithAuctioneerAndItem> auctions = Arrays.asList(
+            new AuctionWithAuctioneerAndItem("1", "Title 1", "Description 1", 10, "open", user1, item1),
+            new AuctionWithAuctioneerAndItem("2", "Title 2", "Description 2", 20, "open", user1, item1)
+        );
+        when(auctionsService.getAllAuctions("0", 2)).thenReturn(Window.from(auctions, ScrollPosition::offset, true));
+
+        // Act & Assert
+        mockMvc.perform(get("/auctions").param("after", "0").param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Next-Cursor", "2"))
+            .andExpect(jsonPath("$[1].id").value("2"));
+    }
+
+    @Test
+    void testGetAll_LastPageHasNoCursor() throws Exception {
+        // Arrange
+        when(auctionsService.getAllAuctions(null, null)).thenReturn(Window.from(List.of(), ScrollPosition::offset));
+
+        // Act & Assert
+        mockMvc.perform(get("/auctions"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Next-Cursor"))
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
     @Test
     void testGetAuctionById() throws Exception {
         // Arrange
@@ -173,7 +209,7 @@ public class AuctionsControllerTest {
             new BidWithBidder("31", 10, user1),
             new BidWithBidder("32", 20, user2)
         );
-        when(auctionsService.getAuctionBids("1")).thenReturn(bids);
+        when(auctionsService.getAuctionBids("1", null, null)).thenReturn(Window.from(bids, ScrollPosition::offset));
 
         // Act & Assert
         mockMvc.perform(get("/auctions/1/bids"))
@@ -214,6 +250,32 @@ public class AuctionsControllerTest {
             .andExpect(jsonPath("$.item.description").value("description 1"));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreateBulk() throws Exception {
+        // Arrange
+        User user1 = new User("11", "user 1");
+        Item item1 = new Item("21", "Item 1", "description 1");
+        AuctionWithAuctioneerAndItem auction = new AuctionWithAuctioneerAndItem("1", "Title 1", "Description 1", 10, "open", user1, item1);
+        when(auctionsService.saveAll(anyString(), any(List.class))).thenReturn(Arrays.asList(
+            AuctionBulkResult.created(0, auction),
+            AuctionBulkResult.failed(1, "Item not found")
+        ));
+
+        // Act & Assert
+        mockMvc.perform(post("/auctions/bulk")
+            .content("[{\"title\":\"Title 1\",\"description\":\"Description 1\",\"startPrice\":10,\"itemId\":\"21\"},"
+                + "{\"title\":\"Title 2\",\"description\":\"Description 2\",\"startPrice\":10,\"itemId\":\"29\"}]")
+            .contentType(MediaType.APPLICATION_JSON)
+            .header("X-Session-Id", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].index").value(0))
+            .andExpect(jsonPath("$[0].auction.id").value("1"))
+            .andExpect(jsonPath("$[1].index").value(1))
+            .andExpect(jsonPath("$[1].error").value("Item not found"));
+    }
+
     @Test
     void testCreate_Unauthenticated() throws Exception {
         // Act & Assert
@@ -233,7 +295,7 @@ public class AuctionsControllerTest {
         User user1 = new User("11", "user 1");
         Item item1 = new Item("21", "Item 1", "description 1");
         AuctionWithAuctioneerAndItem auction = new AuctionWithAuctioneerAndItem("1", "Title updated", "Description updated", 10, "open", user1, item1);
-        when(auctionsService.updateAuction(anyString(), any(AuctionPut.class))).thenReturn(auction);
+        when(auctionsService.updateAuction(anyString(), any(AuctionPut.class), isNull())).thenReturn(auction);
 
         // Act & Assert
         mockMvc.perform(put("/auctions/1")
@@ -253,6 +315,93 @@ public class AuctionsControllerTest {
             .andExpect(jsonPath("$.item.description").value("description 1"));
     }
 
+    @Test
+    void testGetAuctionById_SendsVersionAsWeakETag() throws Exception {
+        // Arrange
+        AuctionWithAuctioneerAndItem auction = new AuctionWithAuctioneerAndItem("1", "Title 1", "Description 1", 10, "open", new User("11", "user 1"), new Item("21", "Item 1", "description 1"));
+        auction.setVersion(3L);
+        when(auctionsService.getAuctionById("1")).thenReturn(auction);
+
+        // Act & Assert
+        mockMvc.perform(get("/auctions/1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "W/\"3\""))
+            .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    void testGetAuctionById_NotModified() throws Exception {
+        // Arrange
+        when(auctionsService.getAuctionVersion("1")).thenReturn(3L);
+
+        // Act & Assert
+        mockMvc.perform(get("/auctions/1").header("If-None-Match", "\"3\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", "W/\"3\""));
+        verify(auctionsService, times(0)).getAuctionById(anyString());
+    }
+
+    @Test
+    void testGetAuctionHighestBid_TaggedAndNotModified() throws Exception {
+        // Arrange
+        when(auctionsService.getAuctionVersion("1")).thenReturn(5L);
+        when(auctionsService.getAuctionHighestBid("1")).thenReturn(new BidWithBidder("31", 10, new User("11", "user 1")));
+
+        // Act & Assert
+        mockMvc.perform(get("/auctions/1/highest-bid").header("If-None-Match", "\"4\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "W/\"5\""))
+            .andExpect(jsonPath("$.id").value("31"));
+        mockMvc.perform(get("/auctions/1/highest-bid").header("If-None-Match", "W/\"4\", \"5\""))
+            .andExpect(status().isNotModified());
+        verify(auctionsService, times(1)).getAuctionHighestBid("1");
+    }
+
+    @Test
+    void testGetAuctionBids_NotModified() throws Exception {
+        // Arrange
+        when(auctionsService.getAuctionVersion("1")).thenReturn(5L);
+
+        // Act & Assert
+        mockMvc.perform(get("/auctions/1/bids").header("If-None-Match", "\"5\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", "W/\"5\""));
+        verify(auctionsService, times(0)).getAuctionBids(anyString(), any(), any());
+    }
+
+    @Test
+    void testUpdateAuction_IfMatch() throws Exception {
+        // Arrange
+        AuctionWithAuctioneerAndItem auction = new AuctionWithAuctioneerAndItem("1", "Title updated", "Description updated", 10, "open", new User("11", "user 1"), new Item("21", "Item 1", "description 1"));
+        auction.setVersion(4L);
+        when(auctionsService.updateAuction(anyString(), any(AuctionPut.class), eq(3L))).thenReturn(auction);
+
+        // Act & Assert
+        mockMvc.perform(put("/auctions/1")
+            .content("{\"title\":\"Title updated\",\"description\":\"Description updated\"}")
+            .contentType(MediaType.APPLICATION_JSON)
+            .header("If-Match", "W/\"3\"")
+            .header("X-Session-Id", "1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "W/\"4\""));
+    }
+
+    @Test
+    void testUpdateAuction_StaleIfMatch() throws Exception {
+        // Arrange
+        when(auctionsService.updateAuction(anyString(), any(AuctionPut.class), eq(2L)))
+            .thenThrow(new PreconditionFailedException("Auction was changed since it was read"));
+
+        // Act & Assert
+        mockMvc.perform(put("/auctions/1")
+            .content("{\"title\":\"Title updated\",\"description\":\"Description updated\"}")
+            .contentType(MediaType.APPLICATION_JSON)
+            .header("If-Match", "\"2\"")
+            .header("X-Session-Id", "1"))
+            .andExpect(status().isPreconditionFailed())
+            .andExpect(jsonPath("$.message").value("Auction was changed since it was read"));
+    }
+
     @Test
     void testUpdate_Unauthenticated() throws Exception {
         // Act & Assert
@@ -263,7 +412,7 @@ public class AuctionsControllerTest {
             .andExpect(jsonPath("$.message").value("Missing session id"));
 
         // Should throw before reaching controller
-        verify(auctionsService, times(0)).updateAuction(anyString(), any(AuctionPut.class));
+        verify(auctionsService, times(0)).updateAuction(anyString(), any(AuctionPut.class), any());
     }
 
     @Test
@@ -280,7 +429,7 @@ public class AuctionsControllerTest {
             .andExpect(jsonPath("$.message").value("You do not own this auction"));
 
         // Should throw before reaching controller
-        verify(auctionsService, times(0)).updateAuction(anyString(), any(AuctionPut.class));
+        verify(auctionsService, times(0)).updateAuction(anyString(), any(AuctionPut.class), any());
     }
 
     @Test
@@ -315,6 +464,22 @@ public class AuctionsControllerTest {
         verify(auctionsService, times(0)).placeBid(anyString(), anyString(), any(AuctionPlaceBidRequest.class));
     }
 
+    @Test
+    void testPlaceMaxBid() throws Exception {
+        // Arrange
+        when(auctionsService.placeMaxBid(anyString(), anyString(), any(AuctionPlaceBidRequest.class))).thenReturn(new MaxBid("1", 50, true, 11));
+
+        // Act & Assert
+        mockMvc.perform(post("/auctions/1/max-bid")
+            .content("{\"price\":50}")
+            .contentType(MediaType.APPLICATION_JSON)
+            .header("X-Session-Id", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.maxPrice").value(50))
+            .andExpect(jsonPath("$.leading").value(true))
+            .andExpect(jsonPath("$.currentPrice").value(11));
+    }
+
     @Test
     void testCloseAuction() throws Exception {
         // Act
@@ -2,6 +2,7 @@ package ro.unibuc.hello.controller;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -20,13 +21,13 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import ro.unibuc.hello.auth.AuthInterceptor;
-import ro.unibuc.hello.data.SessionEntity;
-import ro.unibuc.hello.data.UserEntity;
 import ro.unibuc.hello.dto.ItemPostRequest;
 import ro.unibuc.hello.dto.ItemWithOwner;
 import ro.unibuc.hello.dto.User;
@@ -60,7 +61,7 @@ public class ItemsControllerTest {
             .addInterceptors(authInterceptor)
             .build();
 
-        when(sessionsService.getValidSession(anyString())).thenReturn(new SessionEntity("1", new UserEntity("11", "user 1", "username1", "password1"), null));
+        when(sessionsService.authenticate(anyString())).thenReturn("11");
     }
 
     @Test
@@ -68,7 +69,7 @@ public class ItemsControllerTest {
         // Creează un obiect de tip List<Item>
         ItemWithOwner item = new ItemWithOwner("21", "Item1", "Description1", new User("11", "user 1"));
         List<ItemWithOwner> items = Arrays.asList(item);
-        when(itemsService.getAllItems()).thenReturn(items);
+        when(itemsService.getAllItems(null, null)).thenReturn(Window.from(items, ScrollPosition::offset));
 
         // HTTP GET verify answer
         mockMvc.perform(get("/items"))
@@ -77,7 +78,7 @@ public class ItemsControllerTest {
                 .andExpect(jsonPath("$[0].description").value("Description1"))
                 .andExpect(jsonPath("$[0].owner.name").value("user 1"));
 
-        verify(itemsService, times(1)).getAllItems(); 
+        verify(itemsService, times(1)).getAllItems(null, null); 
     }
 
     @Test
@@ -126,7 +127,7 @@ public class ItemsControllerTest {
         ItemWithOwner updatedItem = new ItemWithOwner("1", "Updated item", "Updated Description", new User("11", "user 1"));
 
         // Specifică comportamentul mock-ului pentru metoda updateItem
-        when(itemsService.updateItem(anyString(), any(ItemPostRequest.class))).thenReturn(updatedItem);
+        when(itemsService.updateItem(anyString(), any(ItemPostRequest.class), isNull())).thenReturn(updatedItem);
 
         // Efectuează apelul HTTP PUT și verifică răspunsul
         mockMvc.perform(put("/items/1")
@@ -22,8 +22,6 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import ro.unibuc.hello.auth.AuthInterceptor;
-import ro.unibuc.hello.data.SessionEntity;
-import ro.unibuc.hello.data.UserEntity;
 import ro.unibuc.hello.dto.LoginRequest;
 import ro.unibuc.hello.dto.Session;
 import ro.unibuc.hello.dto.User;
@@ -53,11 +51,9 @@ public class SessionsControllerTest {
             .build();
 
 
-        UserEntity user = new UserEntity("11", "user 1", "password1", "username1");
-        SessionEntity session = new SessionEntity("session1", user, null);
-        doThrow(new InvalidSessionException("Invalid session")).when(sessionsService).getValidSession(anyString());
-        doReturn(session).when(sessionsService).getValidSession("session1");
-        doThrow(new InvalidSessionException("Expired session")).when(sessionsService).getValidSession("session2");
+        doThrow(new InvalidSessionException("Invalid session")).when(sessionsService).authenticate(anyString());
+        doReturn("11").when(sessionsService).authenticate("session1");
+        doThrow(new InvalidSessionException("Expired session")).when(sessionsService).authenticate("session2");
     }
 
     @Test
@@ -3,6 +3,7 @@ package ro.unibuc.hello.controller;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -21,14 +22,14 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import jakarta.servlet.http.HttpServletRequest;
 import ro.unibuc.hello.auth.AuthInterceptor;
-import ro.unibuc.hello.data.SessionEntity;
-import ro.unibuc.hello.data.UserEntity;
 import ro.unibuc.hello.dto.Auction;
 import ro.unibuc.hello.dto.AuctionWithItem;
 import ro.unibuc.hello.dto.BidWithAuction;
@@ -70,7 +71,7 @@ public class UsersControllerTest {
             .addInterceptors(authInterceptor)
             .build();
 
-        when(sessionsService.getValidSession(anyString())).thenReturn(new SessionEntity("1", new UserEntity("11", "user 1", "username1", "password1"), null));
+        when(sessionsService.authenticate(anyString())).thenReturn("11");
     }
 
     @Test
@@ -79,7 +80,7 @@ public class UsersControllerTest {
         User user1 = new User("1", "User One");
         User user2 = new User("2", "User Two");
         List<User> users = Arrays.asList(user1, user2);
-        when(usersService.getAllUsers()).thenReturn(users);
+        when(usersService.getAllUsers(null, null)).thenReturn(Window.from(users, ScrollPosition::offset));
 
         // Act & Assert
         mockMvc.perform(get("/users"))
@@ -109,7 +110,7 @@ public class UsersControllerTest {
         Item item1 = new Item("1", "Item One", "Description One");
         Item item2 = new Item("2", "Item Two", "Description Two");
         List<Item> items = Arrays.asList(item1, item2);
-        when(usersService.getUserItems("1")).thenReturn(items);
+        when(usersService.getUserItems("1", null, null)).thenReturn(Window.from(items, ScrollPosition::offset));
 
         // Act & Assert
         mockMvc.perform(get("/users/1/items"))
@@ -126,7 +127,7 @@ public class UsersControllerTest {
         Item item = new Item("1", "Item One", "Description One");
         AuctionWithItem auction = new AuctionWithItem("1", "Auction 1", "Description Auction 1", 100, "open", item);
         List<AuctionWithItem> auctions = Arrays.asList(auction);
-        when(usersService.getUserAuctions("1")).thenReturn(auctions);
+        when(usersService.getUserAuctions("1", null, null)).thenReturn(Window.from(auctions, ScrollPosition::offset));
     
         // Act & Assert
         mockMvc.perform(get("/users/1/auctions"))
@@ -152,7 +153,7 @@ public class UsersControllerTest {
         );
     
         // Mocking the service method to return BidWithAuction
-        when(usersService.getUserBids("1")).thenReturn(bids);
+        when(usersService.getUserBids("1", null, null)).thenReturn(Window.from(bids, ScrollPosition::offset));
     
         // Act & Assert
         mockMvc.perform(get("/users/1/bids"))
@@ -187,7 +188,7 @@ public class UsersControllerTest {
     void testUpdateUser() throws Exception {
         // Arrange
         User updatedUser = new User("1", "name");
-        when(usersService.updateUser(eq("1"), any(UserPostRequest.class))).thenReturn(updatedUser);
+        when(usersService.updateUser(eq("1"), any(UserPostRequest.class), isNull())).thenReturn(updatedUser);
 
         // Act & Assert
         mockMvc.perform(put("/users/1")
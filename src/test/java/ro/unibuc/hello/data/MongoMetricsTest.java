@@ -0,0 +1,78 @@
+package ro.unibuc.hello.data;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ConnectionPoolSettings;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class MongoMetricsTest {
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MongoMetrics mongoMetrics = new MongoMetrics();
+
+    private ServerId serverId = new ServerId(new ClusterId(), new ServerAddress("localhost", 27017));
+
+    private MongoClientSettings settings;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(mongoMetrics, "meterRegistry", meterRegistry);
+        settings = mongoMetrics.instrument(MongoClientSettings.builder(), "sync").build();
+    }
+
+    @Test
+    void testInstrument_AddsListeners() {
+        // Act & Assert
+        assertEquals(1, settings.getCommandListeners().size());
+        assertEquals(2, settings.getConnectionPoolSettings().getConnectionPoolListeners().size());
+    }
+
+    @Test
+    void testPoolCreated_RegistersGauges() {
+        // Act
+        for (ConnectionPoolListener listener : settings.getConnectionPoolSettings().getConnectionPoolListeners()) {
+            listener.connectionPoolCreated(new ConnectionPoolCreatedEvent(serverId, ConnectionPoolSettings.builder().build()));
+        }
+
+        // Assert
+        assertEquals(0, meterRegistry.get("mongodb.driver.pool.checkedout").tag("client", "sync").gauge().value(), 0);
+        assertEquals(0, meterRegistry.get("mongodb.driver.pool.waitqueuesize").tag("client", "sync").gauge().value(), 0);
+    }
+
+    @Test
+    void testCheckout_RecordsWaitTime() {
+        // Act
+        for (ConnectionPoolListener listener : settings.getConnectionPoolSettings().getConnectionPoolListeners()) {
+            listener.connectionPoolCreated(new ConnectionPoolCreatedEvent(serverId, ConnectionPoolSettings.builder().build()));
+            listener.connectionCheckedOut(new ConnectionCheckedOutEvent(new ConnectionId(serverId), 1, TimeUnit.MILLISECONDS.toNanos(3)));
+            listener.connectionCheckOutFailed(new ConnectionCheckOutFailedEvent(serverId, 2, ConnectionCheckOutFailedEvent.Reason.TIMEOUT, TimeUnit.MILLISECONDS.toNanos(500)));
+        }
+
+        // Assert
+        Timer checkedOut = meterRegistry.get(MongoMetrics.CHECKOUT_TIMER).tag("client", "sync").tag("outcome", "ok").timer();
+        Timer timedOut = meterRegistry.get(MongoMetrics.CHECKOUT_TIMER).tag("client", "sync").tag("outcome", "timeout").timer();
+        assertEquals(1, checkedOut.count());
+        assertEquals(3, checkedOut.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(1, timedOut.count());
+        assertEquals(500, timedOut.totalTime(TimeUnit.MILLISECONDS), 0.001);
+    }
+}
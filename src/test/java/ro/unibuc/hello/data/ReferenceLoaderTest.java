@@ -0,0 +1,104 @@
+package ro.unibuc.hello.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+public class ReferenceLoaderTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private ReferenceLoader referenceLoader = new ReferenceLoader();
+
+    private Document user1 = new Document("_id", "11").append("name", "user 1");
+    private Document user2 = new Document("_id", "12").append("name", "user 2");
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testWithUsers_LoadsEachUserOnce() {
+        // Arrange
+        Window<Document> bids = page(bid("31", "11"), bid("32", "12"), bid("33", "11"), bid("34", "11"));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(Lookups.USERS))).thenReturn(Arrays.asList(user1, user2));
+
+        // Act
+        List<Document> resolved = referenceLoader.withUsers(bids, "bidder").getContent();
+
+        // Assert
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(1)).find(query.capture(), eq(Document.class), eq(Lookups.USERS));
+        assertEquals(2, query.getValue().getQueryObject().get("_id", Document.class).get("$in", Collection.class).size());
+        assertEquals(4, resolved.size());
+        assertEquals("user 1", resolved.get(0).get("bidder", Document.class).getString("name"));
+        assertEquals("user 2", resolved.get(1).get("bidder", Document.class).getString("name"));
+        assertEquals("user 1", resolved.get(3).get("bidder", Document.class).getString("name"));
+    }
+
+    @Test
+    void testWithUsers_ReusesUsersLoadedEarlierInTheRequest() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(Lookups.USERS))).thenReturn(Arrays.asList(user1));
+        referenceLoader.withUsers(page(bid("31", "11")), "bidder");
+
+        // Act
+        List<Document> resolved = referenceLoader.withUsers(page(bid("32", "11")), "bidder").getContent();
+
+        // Assert
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(Document.class), eq(Lookups.USERS));
+        assertEquals("user 1", resolved.get(0).get("bidder", Document.class).getString("name"));
+    }
+
+    @Test
+    void testWithUsers_MissingUserResolvesToNull() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(Lookups.USERS))).thenReturn(List.of());
+
+        // Act
+        List<Document> resolved = referenceLoader.withUsers(page(bid("31", "13")), "bidder").getContent();
+
+        // Assert
+        assertNull(resolved.get(0).get("bidder"));
+    }
+
+    @Test
+    void testWithItems_EmptyPageDoesNotQuery() {
+        // Act
+        referenceLoader.withItems(page(), "item");
+
+        // Assert
+        verify(mongoTemplate, times(0)).find(any(Query.class), eq(Document.class), eq(Lookups.ITEMS));
+    }
+
+    private static Document bid(String id, String bidderId) {
+        return new Document("_id", id).append("price", 10).append("bidder", bidderId);
+    }
+
+    private static Window<Document> page(Document... documents) {
+        return Window.from(Arrays.asList(documents), ScrollPosition::offset);
+    }
+}
@@ -0,0 +1,54 @@
+package ro.unibuc.hello.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.client.result.UpdateResult;
+
+public class VersionBackfillTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private VersionBackfill versionBackfill = new VersionBackfill();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testBackfill_SetsVersionOnUnversionedDocuments() {
+        // Arrange
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), anyString())).thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        // Act
+        versionBackfill.backfill();
+
+        // Assert
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(1)).updateMulti(query.capture(), update.capture(), eq(Lookups.USERS));
+        verify(mongoTemplate, times(1)).updateMulti(any(Query.class), any(Update.class), eq(Lookups.ITEMS));
+        verify(mongoTemplate, times(1)).updateMulti(any(Query.class), any(Update.class), eq(Lookups.AUCTIONS));
+        assertEquals(false, query.getValue().getQueryObject().get("version", Document.class).getBoolean("$exists"));
+        assertEquals(0L, update.getValue().getUpdateObject().get("$set", Document.class).get("version"));
+    }
+}
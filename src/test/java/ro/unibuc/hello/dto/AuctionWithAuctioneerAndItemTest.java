@@ -2,7 +2,9 @@ package ro.unibuc.hello.dto;
 
 import static org.junit.Assert.assertSame;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
+import org.bson.Document;
 import org.junit.jupiter.api.Test;
 
 import ro.unibuc.hello.data.AuctionEntity;
@@ -120,4 +122,14 @@ public class AuctionWithAuctioneerAndItemTest {
         assertEquals("Item 2", emptyAuction.getItem().getName());
         assertEquals("description 2", emptyAuction.getItem().getDescription());
     }
+
+    @Test
+    void testFromDocument_DeletedAuctioneerAndItem() {
+        Document document = new Document("_id", "1").append("title", "Auction 1").append("open", true)
+            .append("auctioneer", null).append("item", null);
+        AuctionWithAuctioneerAndItem fromDocument = new AuctionWithAuctioneerAndItem(document);
+        assertEquals("1", fromDocument.getId());
+        assertNull(fromDocument.getAuctioneer());
+        assertNull(fromDocument.getItem());
+    }
 }
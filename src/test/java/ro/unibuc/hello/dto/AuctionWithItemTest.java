@@ -3,6 +3,8 @@ package ro.unibuc.hello.dto;
 import static org.junit.Assert.assertSame;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.Test;
 
 import ro.unibuc.hello.data.AuctionEntity;
@@ -100,4 +102,23 @@ public class AuctionWithItemTest {
         assertEquals("Item 2", emptyAuction.getItem().getName());
         assertEquals("description 2", emptyAuction.getItem().getDescription());
     }
+
+    @Test
+    void testFromDocument() {
+        ObjectId id = new ObjectId();
+        Document document = new Document("_id", id)
+            .append("title", "Auction 1")
+            .append("description", "Description 1")
+            .append("startPrice", 100)
+            .append("open", false)
+            .append("item", new Document("_id", "21").append("name", "Item 1").append("description", "description 1"));
+
+        AuctionWithItem fromDocument = new AuctionWithItem(document);
+
+        assertEquals(id.toHexString(), fromDocument.getId());
+        assertEquals("Auction 1", fromDocument.getTitle());
+        assertEquals(100, fromDocument.getStartPrice());
+        assertEquals("closed", fromDocument.getStatus());
+        assertEquals("Item 1", fromDocument.getItem().getName());
+    }
 }
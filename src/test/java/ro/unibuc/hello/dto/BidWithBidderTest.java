@@ -1,7 +1,9 @@
 package ro.unibuc.hello.dto;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
+import org.bson.Document;
 import org.junit.jupiter.api.Test;
 
 import ro.unibuc.hello.data.AuctionEntity;
@@ -61,4 +63,26 @@ public class BidWithBidderTest {
         assertEquals("12", emptyBid.getBidder().getId());
         assertEquals("user 2", emptyBid.getBidder().getName());
     }
+
+    @Test
+    void testFromDocument_DeletedBidder() {
+        Document document = new Document("_id", "31").append("price", 100).append("bidder", null);
+        BidWithBidder fromDocument = new BidWithBidder(document);
+        assertEquals("31", fromDocument.getId());
+        assertNull(fromDocument.getBidder());
+    }
+
+    @Test
+    void testFromDocument_UnwoundWithoutBidder() {
+        Document document = new Document("_id", "31").append("price", 100);
+        BidWithBidder fromDocument = new BidWithBidder(document);
+        assertNull(fromDocument.getBidder());
+    }
+
+    @Test
+    void testFromEntity_DeletedBidder() {
+        BidWithBidder fromEntity = new BidWithBidder(new BidEntity("31", 100, null, auction));
+        assertEquals("31", fromEntity.getId());
+        assertNull(fromEntity.getBidder());
+    }
 }
@@ -0,0 +1,61 @@
+package ro.unibuc.hello.monitoring;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ro.unibuc.hello.bidding.BidOutcome;
+import ro.unibuc.hello.monitoring.BusinessMetrics.BidSource;
+import ro.unibuc.hello.monitoring.BusinessMetrics.CloseReason;
+
+public class BusinessMetricsTest {
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BusinessMetrics businessMetrics = new BusinessMetrics();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(businessMetrics, "meterRegistry", meterRegistry);
+        businessMetrics.start();
+    }
+
+    @Test
+    void testStart_RegistersEverySeries() {
+        // Act & Assert
+        assertEquals(BidSource.values().length * BidOutcome.values().length, meterRegistry.get("auctions.bids").counters().size());
+        assertEquals(0, meterRegistry.get("auctions.bids").tag("source", "proxy").tag("outcome", "not_higher").counter().count(), 0);
+        assertEquals(2, meterRegistry.get("auctions.closed").counters().size());
+    }
+
+    @Test
+    void testBid() {
+        // Act
+        businessMetrics.bid(BidSource.BID, BidOutcome.ACCEPTED);
+        businessMetrics.bid(BidSource.BID, BidOutcome.NOT_HIGHER);
+        businessMetrics.bid(BidSource.BID, BidOutcome.NOT_HIGHER);
+
+        // Assert
+        assertEquals(1, meterRegistry.get("auctions.bids").tag("source", "bid").tag("outcome", "accepted").counter().count(), 0);
+        assertEquals(2, meterRegistry.get("auctions.bids").tag("source", "bid").tag("outcome", "not_higher").counter().count(), 0);
+    }
+
+    @Test
+    void testAuctionClosedAndLogins() {
+        // Act
+        businessMetrics.auctionClosed(CloseReason.EXPIRED);
+        businessMetrics.loginSucceeded();
+        businessMetrics.loginFailed();
+        businessMetrics.loginFailed();
+
+        // Assert
+        assertEquals(1, meterRegistry.get("auctions.closed").tag("reason", "expired").counter().count(), 0);
+        assertEquals(0, meterRegistry.get("auctions.closed").tag("reason", "manual").counter().count(), 0);
+        assertEquals(1, meterRegistry.get("sessions.logins").tag("outcome", "ok").counter().count(), 0);
+        assertEquals(2, meterRegistry.get("sessions.logins").tag("outcome", "failed").counter().count(), 0);
+    }
+}
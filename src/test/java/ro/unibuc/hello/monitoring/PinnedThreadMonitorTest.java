@@ -0,0 +1,62 @@
+package ro.unibuc.hello.monitoring;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class PinnedThreadMonitorTest {
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PinnedThreadMonitor pinnedThreadMonitor = new PinnedThreadMonitor();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(pinnedThreadMonitor, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(pinnedThreadMonitor, "thresholdMs", 20L);
+        ReflectionTestUtils.setField(pinnedThreadMonitor, "stackDepth", 8);
+        pinnedThreadMonitor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pinnedThreadMonitor.stop();
+    }
+
+    @Test
+    void testPinnedVirtualThreadIsRecorded() throws Exception {
+        // Arrange
+        Object lock = new Object();
+        Timer pinned = meterRegistry.get("jvm.threads.virtual.pinned").timer();
+
+        // Act: sleeping inside synchronized keeps the virtual thread on its carrier
+        Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+
+        // The recording stream delivers events in batches, about once a second
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pinned.count() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+
+        // Assert
+        assertTrue(pinned.count() >= 1);
+        assertTrue(pinned.totalTime(TimeUnit.MILLISECONDS) >= 100);
+    }
+}
@@ -0,0 +1,95 @@
+package ro.unibuc.hello.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ro.unibuc.hello.data.InformationEntity;
+import ro.unibuc.hello.data.InformationRepository;
+import ro.unibuc.hello.exception.EntityNotFoundException;
+import ro.unibuc.hello.exception.InvalidDataException;
+import ro.unibuc.hello.exception.LoginFailedException;
+import ro.unibuc.hello.service.GreetingsService;
+
+public class ServiceMetricsAspectTest {
+
+    @Mock
+    private InformationRepository informationRepository;
+
+    @InjectMocks
+    private GreetingsService target = new GreetingsService();
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private GreetingsService greetingsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        ServiceMetricsAspect aspect = new ServiceMetricsAspect();
+        ReflectionTestUtils.setField(aspect, "meterRegistry", meterRegistry);
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        greetingsService = factory.getProxy();
+    }
+
+    @Test
+    void testTime_Success() {
+        // Arrange
+        InformationEntity entity = new InformationEntity("1", "Overview", "description");
+        when(informationRepository.findById("1")).thenReturn(Optional.of(entity));
+
+        // Act
+        greetingsService.getGreetingById("1");
+        greetingsService.getGreetingById("1");
+
+        // Assert
+        Timer timer = meterRegistry.get(ServiceMetricsAspect.TIMER)
+            .tag("service", "GreetingsService")
+            .tag("method", "getGreetingById")
+            .tag("outcome", "ok")
+            .timer();
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    void testTime_NotFound() {
+        // Arrange
+        when(informationRepository.findById("1")).thenReturn(Optional.empty());
+
+        // Act
+        assertThrows(EntityNotFoundException.class, () -> greetingsService.getGreetingById("1"));
+
+        // Assert
+        Timer timer = meterRegistry.get(ServiceMetricsAspect.TIMER)
+            .tag("method", "getGreetingById")
+            .tag("outcome", "not_found")
+            .timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void testOutcomeOf() {
+        // Act & Assert
+        assertEquals("not_found", ServiceMetricsAspect.outcomeOf(new EntityNotFoundException("1")));
+        assertEquals("invalid", ServiceMetricsAspect.outcomeOf(new InvalidDataException("Invalid")));
+        assertEquals("unauthorized", ServiceMetricsAspect.outcomeOf(new LoginFailedException()));
+        assertEquals("error", ServiceMetricsAspect.outcomeOf(new IllegalStateException("Mongo down")));
+    }
+}
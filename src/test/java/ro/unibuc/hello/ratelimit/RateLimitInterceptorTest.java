@@ -0,0 +1,112 @@
+package ro.unibuc.hello.ratelimit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import ro.unibuc.hello.exception.TooManyRequestsException;
+
+public class RateLimitInterceptorTest {
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RateLimitInterceptor rateLimitInterceptor = new RateLimitInterceptor();
+
+    private HttpServletResponse response = mock(HttpServletResponse.class);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(rateLimitInterceptor, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(rateLimitInterceptor, "enabled", true);
+        ReflectionTestUtils.setField(rateLimitInterceptor, "maxBuckets", 100L);
+        ReflectionTestUtils.setField(rateLimitInterceptor, "bidsCapacity", 2L);
+        ReflectionTestUtils.setField(rateLimitInterceptor, "bidsRefillPerSecond", 1L);
+        ReflectionTestUtils.setField(rateLimitInterceptor, "writesCapacity", 1L);
+        ReflectionTestUtils.setField(rateLimitInterceptor, "writesRefillPerSecond", 1L);
+        rateLimitInterceptor.start();
+    }
+
+    @Test
+    void testPreHandle_BidsOverLimit() throws Exception {
+        // Arrange
+        HandlerMethod handler = handler("bid");
+        HttpServletRequest request = request("POST", "12");
+
+        // Act & Assert
+        assertTrue(rateLimitInterceptor.preHandle(request, response, handler));
+        assertTrue(rateLimitInterceptor.preHandle(request, response, handler));
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+            () -> rateLimitInterceptor.preHandle(request, response, handler));
+        assertEquals(1, ex.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("ratelimit.rejected").tag("route", "bids").counter().count(), 0);
+    }
+
+    @Test
+    void testPreHandle_BucketsPerUserAndRouteClass() throws Exception {
+        // Arrange
+        HandlerMethod bid = handler("bid");
+        HandlerMethod update = handler("update");
+        rateLimitInterceptor.preHandle(request("PUT", "12"), response, update);
+
+        // Act & Assert
+        assertThrows(TooManyRequestsException.class, () -> rateLimitInterceptor.preHandle(request("PUT", "12"), response, update));
+        assertTrue(rateLimitInterceptor.preHandle(request("PUT", "13"), response, update));
+        assertTrue(rateLimitInterceptor.preHandle(request("POST", "12"), response, bid));
+    }
+
+    @Test
+    void testPreHandle_ReadsAndAnonymousRequestsAreNotLimited() throws Exception {
+        // Arrange
+        HandlerMethod read = handler("read");
+        HandlerMethod update = handler("update");
+
+        // Act & Assert
+        for (int i = 0; i < 5; i++) {
+            assertTrue(rateLimitInterceptor.preHandle(request("GET", "12"), response, read));
+            assertTrue(rateLimitInterceptor.preHandle(request("PUT", null), response, update));
+        }
+    }
+
+    @Test
+    void testPreHandle_Disabled() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(rateLimitInterceptor, "enabled", false);
+        HandlerMethod update = handler("update");
+
+        // Act & Assert
+        for (int i = 0; i < 5; i++) {
+            assertTrue(rateLimitInterceptor.preHandle(request("PUT", "12"), response, update));
+        }
+    }
+
+    private HandlerMethod handler(String method) throws NoSuchMethodException {
+        return new HandlerMethod(new Endpoints(), Endpoints.class.getMethod(method));
+    }
+
+    private HttpServletRequest request(String method, String userId) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getMethod()).thenReturn(method);
+        when(request.getAttribute("authenticatedUserId")).thenReturn(userId);
+        return request;
+    }
+
+    static class Endpoints {
+        @RateLimited(RouteClass.BIDS)
+        public void bid() {}
+
+        public void update() {}
+
+        public void read() {}
+    }
+}
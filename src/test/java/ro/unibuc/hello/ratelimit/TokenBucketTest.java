@@ -0,0 +1,93 @@
+package ro.unibuc.hello.ratelimit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+public class TokenBucketTest {
+
+    @Test
+    void testTryAcquire_BurstUpToCapacity() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(3, 1, 1000);
+
+        // Act & Assert
+        assertEquals(0, bucket.tryAcquire(1000));
+        assertEquals(0, bucket.tryAcquire(1000));
+        assertEquals(0, bucket.tryAcquire(1000));
+        assertEquals(1000, bucket.tryAcquire(1000));
+    }
+
+    @Test
+    void testTryAcquire_Refills() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(1, 4, 0);
+        bucket.tryAcquire(0);
+
+        // Act & Assert
+        assertEquals(150, bucket.tryAcquire(100));
+        assertEquals(0, bucket.tryAcquire(250));
+        assertEquals(250, bucket.tryAcquire(250));
+    }
+
+    @Test
+    void testTryAcquire_LongIdleFillsToCapacityOnly() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(2, 10, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        // Act & Assert
+        assertEquals(0, bucket.tryAcquire(3_600_000));
+        assertEquals(0, bucket.tryAcquire(3_600_000));
+        assertEquals(100, bucket.tryAcquire(3_600_000));
+    }
+
+    @Test
+    void testTryAcquire_ClockGoingBackDoesNotRefill() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(1, 1, 0);
+        bucket.tryAcquire(5000);
+
+        // Act & Assert
+        assertEquals(1000, bucket.tryAcquire(4000));
+    }
+
+    @Test
+    void testTryAcquire_ConcurrentCallersNeverOverdraw() throws Exception {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(100, 1, 0);
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        List<Future<Long>> results = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            results.add(clients.submit(() -> bucket.tryAcquire(0)));
+        }
+
+        int granted = 0;
+        for (Future<Long> result : results) {
+            if (result.get() == 0) {
+                granted++;
+            }
+        }
+        clients.shutdown();
+
+        // Assert
+        assertEquals(100, granted);
+    }
+
+    @Test
+    void testConstructor_InvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(TokenBucket.MAX_CAPACITY + 1, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0, 0));
+    }
+}
@@ -0,0 +1,59 @@
+package ro.unibuc.hello.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AuctionVersionCacheTest {
+
+    private AuctionVersionCache auctionVersionCache = new AuctionVersionCache();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(auctionVersionCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(auctionVersionCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(auctionVersionCache, "ttlMs", 60000L);
+        auctionVersionCache.start();
+    }
+
+    @Test
+    void testPut_OlderVersionDoesNotReplaceNewer() {
+        // Act
+        auctionVersionCache.put("1", 5L);
+        auctionVersionCache.put("1", 4L);
+
+        // Assert
+        assertEquals(Long.valueOf(5), auctionVersionCache.get("1"));
+    }
+
+    @Test
+    void testIncrement_OnlyCachedAuctions() {
+        // Arrange
+        auctionVersionCache.put("1", 5L);
+
+        // Act
+        auctionVersionCache.increment("1");
+        auctionVersionCache.increment("2");
+
+        // Assert
+        assertEquals(Long.valueOf(6), auctionVersionCache.get("1"));
+        assertNull(auctionVersionCache.get("2"));
+    }
+
+    @Test
+    void testEvict() {
+        // Arrange
+        auctionVersionCache.put("1", 5L);
+
+        // Act
+        auctionVersionCache.evict("1");
+
+        // Assert
+        assertNull(auctionVersionCache.get("1"));
+    }
+}
@@ -4,37 +4,78 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
-
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import ro.unibuc.hello.bidding.AuctionDeadlines;
+import ro.unibuc.hello.bidding.AuctionLocks;
+import ro.unibuc.hello.bidding.BidOutcome;
+import ro.unibuc.hello.bidding.BidWriteBehind;
+import ro.unibuc.hello.bidding.BiddingEngine;
+import ro.unibuc.hello.bidding.CloseOutcome;
+import ro.unibuc.hello.bidding.LiveBids;
+import ro.unibuc.hello.bidding.MaxBidOutcome;
+import ro.unibuc.hello.bidding.ProxyBid;
+import ro.unibuc.hello.cache.CacheTags;
+import ro.unibuc.hello.cache.ResponseCache;
 import ro.unibuc.hello.data.AuctionEntity;
 import ro.unibuc.hello.data.AuctionRepository;
 import ro.unibuc.hello.data.BidEntity;
 import ro.unibuc.hello.data.BidRepository;
 import ro.unibuc.hello.data.ItemEntity;
 import ro.unibuc.hello.data.ItemRepository;
+import ro.unibuc.hello.data.MaxBidEntity;
+import ro.unibuc.hello.data.MaxBidRepository;
+import ro.unibuc.hello.data.PageReadRepository;
+import ro.unibuc.hello.data.ReferenceLoader;
 import ro.unibuc.hello.data.UserEntity;
 import ro.unibuc.hello.data.UserRepository;
+import ro.unibuc.hello.dto.AuctionBulkResult;
 import ro.unibuc.hello.dto.AuctionPlaceBidRequest;
 import ro.unibuc.hello.dto.AuctionPost;
 import ro.unibuc.hello.dto.AuctionPut;
 import ro.unibuc.hello.dto.AuctionWithAuctioneerAndItem;
 import ro.unibuc.hello.dto.BidWithBidder;
+import ro.unibuc.hello.dto.MaxBid;
 import ro.unibuc.hello.exception.EntityNotFoundException;
 import ro.unibuc.hello.exception.InvalidDataException;
+import ro.unibuc.hello.exception.PreconditionFailedException;
+import ro.unibuc.hello.monitoring.BusinessMetrics;
+import ro.unibuc.hello.monitoring.BusinessMetrics.BidSource;
+import ro.unibuc.hello.monitoring.BusinessMetrics.CloseReason;
 
 public class AuctionsServiceTest {
 
@@ -50,6 +91,36 @@ public class AuctionsServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private MaxBidRepository maxBidRepository;
+
+    @Mock
+    private BiddingEngine biddingEngine;
+
+    @Mock
+    private BidWriteBehind bidWriteBehind;
+
+    @Mock
+    private LiveBids liveBids;
+
+    @Mock
+    private PageReadRepository pageReadRepository;
+
+    @Mock
+    private ReferenceLoader referenceLoader;
+
+    @Mock
+    private AuctionDeadlines auctionDeadlines;
+
+    @Mock
+    private AuctionVersionCache auctionVersionCache;
+
+    @Mock
+    private ResponseCache responseCache;
+
+    @Mock
+    private BusinessMetrics businessMetrics;
+
     @Spy
     @InjectMocks
     private AuctionsService auctionsService = new AuctionsService();
@@ -57,23 +128,35 @@ public class AuctionsServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+
+        AuctionLocks auctionLocks = new AuctionLocks();
+        ReflectionTestUtils.setField(auctionLocks, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(auctionLocks, "stripeCount", 16);
+        ReflectionTestUtils.setField(auctionLocks, "hotStripes", 10);
+        auctionLocks.start();
+        ReflectionTestUtils.setField(auctionsService, "auctionLocks", auctionLocks);
     }
 
     @Test
     void testGetAllAuctions() {
         // Arrange
-        UserEntity user1 = new UserEntity("11", "user 1", "username1", "password1");
-        UserEntity user2 = new UserEntity("12", "user 2", "username2", "password2");
-        ItemEntity item1 = new ItemEntity("21", "Item 1", "description 1", user1);
-        ItemEntity item2 = new ItemEntity("22", "Item 2", "description 2", user2);
-        List<AuctionEntity> entities = Arrays.asList(
-            new AuctionEntity("1", "Auction 1", "Description 1", 100, true, item1, user1),
-            new AuctionEntity("2", "Auction 2", "Description 2", 40, false, item2, user2)
+        Document user1 = new Document("_id", "11").append("name", "user 1");
+        Document user2 = new Document("_id", "12").append("name", "user 2");
+        Document item1 = new Document("_id", "21").append("name", "Item 1").append("description", "description 1");
+        Document item2 = new Document("_id", "22").append("name", "Item 2").append("description", "description 2");
+        List<Document> documents = Arrays.asList(
+            new Document("_id", "1").append("title", "Auction 1").append("description", "Description 1")
+                .append("startPrice", 100).append("open", true).append("item", item1).append("auctioneer", user1),
+            new Document("_id", "2").append("title", "Auction 2").append("description", "Description 2")
+                .append("startPrice", 40).append("open", false).append("item", item2).append("auctioneer", user2)
         );
-        when(auctionRepository.findAll()).thenReturn(entities);
+        Window<Document> page = Window.from(documents, ScrollPosition::offset);
+        when(pageReadRepository.findAuctions(any(Criteria.class), isNull(), any(Limit.class))).thenReturn(page);
+        when(referenceLoader.withUsers(page, "auctioneer")).thenReturn(page);
+        when(referenceLoader.withItems(page, "item")).thenReturn(page);
 
         // Act
-        List<AuctionWithAuctioneerAndItem> auctions = auctionsService.getAllAuctions();
+        List<AuctionWithAuctioneerAndItem> auctions = auctionsService.getAllAuctions(null, null).getContent();
 
         // Assert
         assertEquals(2, auctions.size());
@@ -135,6 +218,41 @@ public class AuctionsServiceTest {
         assertThrows(EntityNotFoundException.class, () -> auctionsService.getAuctionById(id));
     }
 
+    @Test
+    void testGetAuctionVersion_Cached() {
+        // Arrange
+        when(auctionVersionCache.get("1")).thenReturn(4L);
+
+        // Act
+        Long version = auctionsService.getAuctionVersion("1");
+
+        // Assert
+        assertEquals(Long.valueOf(4), version);
+        verify(auctionRepository, times(0)).findVersionById(anyString());
+    }
+
+    @Test
+    void testGetAuctionVersion_ReadsAndCachesOnMiss() {
+        // Arrange
+        when(auctionRepository.findVersionById("1")).thenReturn(4L);
+
+        // Act
+        Long version = auctionsService.getAuctionVersion("1");
+
+        // Assert
+        assertEquals(Long.valueOf(4), version);
+        verify(auctionVersionCache, times(1)).put("1", 4L);
+    }
+
+    @Test
+    void testGetAuctionVersion_AuctionNotFound() {
+        // Arrange
+        when(auctionRepository.findVersionById("1")).thenReturn(null);
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> auctionsService.getAuctionVersion("1"));
+    }
+
     @Test
     void testGetAuctionHighestBid_Success() {
         // Arrange
@@ -189,20 +307,20 @@ public class AuctionsServiceTest {
     void testGetAuctionBids_Success() {
         // Arrange
         String id = "1";
-        UserEntity user1 = new UserEntity("11", "user 1", "username1", "password1");
-        UserEntity user2 = new UserEntity("12", "user 2", "username2", "password2");
-        ItemEntity item1 = new ItemEntity("21", "Item 1", "description 1", user1);
-        AuctionEntity entity = new AuctionEntity(id, "Auction 1", "Description 1", 100, true, item1, user1);
-        when(auctionRepository.findById(id)).thenReturn(Optional.of(entity));
+        Document user1 = new Document("_id", "11").append("name", "user 1");
+        Document user2 = new Document("_id", "12").append("name", "user 2");
+        when(auctionRepository.existsById(id)).thenReturn(true);
 
-        List<BidEntity> bidEntities = Arrays.asList(
-            new BidEntity("31", 100, user1, entity),
-            new BidEntity("32", 120, user2, entity)
+        List<Document> documents = Arrays.asList(
+            new Document("_id", "31").append("price", 100).append("bidder", user1),
+            new Document("_id", "32").append("price", 120).append("bidder", user2)
         );
-        when(bidRepository.findByAuction(entity)).thenReturn(bidEntities);
+        Window<Document> page = Window.from(documents, ScrollPosition::offset);
+        when(pageReadRepository.findBids(any(Criteria.class), isNull(), any(Limit.class))).thenReturn(page);
+        when(referenceLoader.withUsers(page, "bidder")).thenReturn(page);
 
         // Act
-        List<BidWithBidder> bids = auctionsService.getAuctionBids(id);
+        List<BidWithBidder> bids = auctionsService.getAuctionBids(id, null, null).getContent();
 
         // Assert
         assertEquals(2, bids.size());
@@ -220,10 +338,11 @@ public class AuctionsServiceTest {
     void testGetAuctionBids_AuctionNotFound() {
         // Arrange
         String id = "1";
-        when(auctionRepository.findById(id)).thenReturn(Optional.empty());
+        when(auctionRepository.existsById(id)).thenReturn(false);
 
         // Act & Assert
-        assertThrows(EntityNotFoundException.class, () -> auctionsService.getAuctionBids(id));
+        assertThrows(EntityNotFoundException.class, () -> auctionsService.getAuctionBids(id, null, null));
+        verify(pageReadRepository, times(0)).findBids(any(), any(), any());
     }
 
     @Test
@@ -256,6 +375,109 @@ public class AuctionsServiceTest {
         assertEquals("user 1", savedAuction.getAuctioneer().getName());        
     }
 
+    @Test
+    void testSaveAuction_SchedulesEndTime() {
+        // Arrange
+        String auctioneerId = "11";
+        LocalDateTime endsAt = LocalDateTime.now().plusHours(1);
+        AuctionPost auction = new AuctionPost("Auction 1", "Description 1", 100, "21");
+        auction.setEndsAt(endsAt);
+        UserEntity user1 = new UserEntity("11", "user 1", "username1", "password1");
+        ItemEntity item1 = new ItemEntity("21", "Item 1", "description 1", user1);
+
+        when(userRepository.findById(auctioneerId)).thenReturn(Optional.of(user1));
+        when(itemRepository.findById(auction.getItemId())).thenReturn(Optional.of(item1));
+        when(auctionRepository.findByItem(item1)).thenReturn(Arrays.asList());
+        when(auctionRepository.save(any(AuctionEntity.class))).thenAnswer(invocation -> {
+            AuctionEntity saved = invocation.getArgument(0);
+            saved.setId("1");
+            return saved;
+        });
+
+        // Act
+        AuctionWithAuctioneerAndItem savedAuction = auctionsService.saveAuction(auctioneerId, auction);
+
+        // Assert
+        assertEquals(endsAt, savedAuction.getEndsAt());
+        verify(auctionDeadlines, times(1)).schedule(eq("1"), any(Instant.class));
+    }
+
+    @Test
+    void testSaveAuction_EndTimeInThePast() {
+        // Arrange
+        AuctionPost auction = new AuctionPost("Auction 1", "Description 1", 100, "21");
+        auction.setEndsAt(LocalDateTime.now().minusMinutes(1));
+
+        // Act
+        InvalidDataException ex = assertThrows(InvalidDataException.class, () -> auctionsService.saveAuction("11", auction));
+
+        // Assert
+        assertEquals("End time must be in the future", ex.getMessage());
+        verify(auctionRepository, times(0)).save(any(AuctionEntity.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSaveAll_ReportsEveryRow() {
+        // Arrange
+        String auctioneerId = "11";
+        UserEntity user1 = new UserEntity("11", "user 1", "username1", "password1");
+        UserEntity owner1 = new UserEntity();
+        owner1.setId("11");
+        UserEntity owner2 = new UserEntity();
+        owner2.setId("12");
+        Map<String, ItemEntity> items = Map.of(
+            "21", new ItemEntity("21", "Item 1", "description 1", owner1),
+            "22", new ItemEntity("22", "Item 2", "description 2", owner2),
+            "23", new ItemEntity("23", "Item 3", "description 3", owner1),
+            "24", new ItemEntity("24", "Item 4", "description 4", owner1)
+        );
+        List<AuctionPost> auctions = Arrays.asList(
+            new AuctionPost("Auction 1", "Description 1", 10, "21"),
+            new AuctionPost("Auction 2", "Description 2", 10, "22"),
+            new AuctionPost("Auction 3", "Description 3", 10, "23"),
+            new AuctionPost("Auction 4", "Description 4", 10, "29"),
+            new AuctionPost("Auction 5", "Description 5", 10, "21"),
+            new AuctionPost("Auction 6", "Description 6", 10, "24")
+        );
+
+        when(userRepository.findById(auctioneerId)).thenReturn(Optional.of(user1));
+        when(itemRepository.findAllByIdWithOwnerId(any())).thenReturn(items);
+        when(auctionRepository.findItemsInOpenAuctions(any())).thenReturn(Set.of("23"));
+        // The second valid row fails to insert
+        when(auctionRepository.insertAll(any())).thenReturn(Set.of(1));
+
+        // Act
+        List<AuctionBulkResult> results = auctionsService.saveAll(auctioneerId, auctions);
+
+        // Assert
+        assertEquals(6, results.size());
+        assertEquals("Auction 1", results.get(0).getAuction().getTitle());
+        assertEquals("Item 1", results.get(0).getAuction().getItem().getName());
+        assertNull(results.get(0).getError());
+        assertEquals("You can't auction an item you don't own", results.get(1).getError());
+        assertEquals("An item can't be in multiple open auctions at the same time", results.get(2).getError());
+        assertEquals("Item not found", results.get(3).getError());
+        assertEquals("An item can't be in multiple open auctions at the same time", results.get(4).getError());
+        assertEquals(5, results.get(5).getIndex());
+        assertEquals("Could not save auction", results.get(5).getError());
+
+        ArgumentCaptor<List<AuctionEntity>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(auctionRepository, times(1)).insertAll(inserted.capture());
+        assertEquals(2, inserted.getValue().size());
+        verify(auctionRepository, times(0)).save(any(AuctionEntity.class));
+    }
+
+    @Test
+    void testSaveAll_TooManyAuctions() {
+        // Arrange
+        List<AuctionPost> auctions = Collections.nCopies(AuctionsService.MAX_BULK_SIZE + 1, new AuctionPost("Auction 1", "Description 1", 10, "21"));
+
+        // Act & Assert
+        assertThrows(InvalidDataException.class, () -> auctionsService.saveAll("11", auctions));
+        verify(auctionRepository, times(0)).insertAll(any());
+    }
+
     @Test
     void testSaveAuction_AuctioneerNotFound() {
         // Arrange
@@ -345,11 +567,10 @@ public class AuctionsServiceTest {
         UserEntity user1 = new UserEntity("11", "user 1", "username1", "password1");
         ItemEntity item1 = new ItemEntity("21", "Item 1", "description 1", user1);
         AuctionEntity entity = new AuctionEntity(id, "Auction updated", "Description updated", 100, true, item1, user1);
-        when(auctionRepository.findById(id)).thenReturn(Optional.of(entity));
-        when(auctionRepository.save(any(AuctionEntity.class))).thenReturn(entity);
+        when(auctionRepository.updateDetails(id, null, "Auction updated", "Description updated")).thenReturn(entity);
 
         // Act
-        AuctionWithAuctioneerAndItem updatedAuction = auctionsService.updateAuction(id, auction);
+        AuctionWithAuctioneerAndItem updatedAuction = auctionsService.updateAuction(id, auction, null);
 
         // Assert
         assertEquals("1", updatedAuction.getId());
@@ -369,18 +590,26 @@ public class AuctionsServiceTest {
         // Arrange
         String id = "1";
         AuctionPut auction = new AuctionPut("Auction updated", "Description updated");
-        UserEntity user1 = new UserEntity("11", "user 1", "username1", "password1");
-        ItemEntity item1 = new ItemEntity("21", "Item 1", "description 1", user1);
-        AuctionEntity entity = new AuctionEntity(id, "Auction updated", "Description updated", 100, true, item1, user1);
-        when(auctionRepository.findById(id)).thenReturn(Optional.empty());
-        when(auctionRepository.save(any(AuctionEntity.class))).thenReturn(entity);
+        when(auctionRepository.updateDetails(id, null, "Auction updated", "Description updated")).thenReturn(null);
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> auctionsService.updateAuction(id, auction, null));
+    }
+
+    @Test
+    void testUpdateAuction_IfMatchOutdated() {
+        // Arrange
+        String id = "1";
+        AuctionPut auction = new AuctionPut("Auction updated", "Description updated");
+        when(auctionRepository.updateDetails(id, 2L, "Auction updated", "Description updated")).thenReturn(null);
+        when(auctionRepository.existsById(id)).thenReturn(true);
 
         // Act & Assert
-        assertThrows(EntityNotFoundException.class, () -> auctionsService.updateAuction(id, auction));
+        assertThrows(PreconditionFailedException.class, () -> auctionsService.updateAuction(id, auction, 2L));
     }
 
     @Test
-    void testPlaceBid_Success_ExistingHighestBid() {
+    void testPlaceBid_Success() {
         // Arrange
         String auctionId = "1";
         String userId = "12";
@@ -389,13 +618,12 @@ public class AuctionsServiceTest {
         UserEntity user2 = new UserEntity("12", "user 2", "username2", "password2");
         ItemEntity item1 = new ItemEntity("21", "Item 1", "description 1", user1);
         AuctionEntity auctionEntity = new AuctionEntity(auctionId, "Auction 1", "Description 1", 5, true, item1, user1);
-        BidEntity highestBid = new BidEntity("31", 10, user1, auctionEntity);
         BidEntity createdBidEntity = new BidEntity("32", 20, user2, auctionEntity);
 
-        when(auctionRepository.findById(auctionId)).thenReturn(Optional.of(auctionEntity));
         when(userRepository.findById(userId)).thenReturn(Optional.of(user2));
-        doReturn(Optional.of(highestBid)).when(auctionsService).getAuctionHighestBid(auctionEntity);
-        when(bidRepository.save(any(BidEntity.class))).thenReturn(createdBidEntity);
+        when(biddingEngine.placeBid(auctionId, userId, 20)).thenReturn(BidOutcome.ACCEPTED);
+        when(auctionRepository.recordHighestBid(eq(auctionId), anyString(), eq(20), eq(user2))).thenReturn(new Document());
+        when(bidWriteBehind.insert(any(BidEntity.class))).thenReturn(createdBidEntity);
 
         // Act
         BidWithBidder createdBid = auctionsService.placeBid(auctionId, userId, placeBid);
@@ -405,218 +633,276 @@ public class AuctionsServiceTest {
         assertEquals(20, createdBid.getPrice());
         assertEquals("12", createdBid.getBidder().getId());
         assertEquals("user 2", createdBid.getBidder().getName());
+        verify(biddingEngine, times(0)).evict(auctionId);
+        verify(liveBids, times(1)).publishBid(auctionId, createdBid);
+        verify(responseCache, times(1)).invalidate(CacheTags.auction(auctionId), CacheTags.userBids(userId));
+        verify(businessMetrics, times(1)).bid(BidSource.BID, BidOutcome.ACCEPTED);
     }
 
     @Test
-    void testPlaceBid_Success_FirstBid() {
+    void testPlaceBid_AuctionNotFound() {
         // Arrange
         String auctionId = "1";
         String userId = "12";
         AuctionPlaceBidRequest placeBid = new AuctionPlaceBidRequest(20);
-        UserEntity user1 = new UserEntity("11", "user 1", "username1", "password1");
         UserEntity user2 = new UserEntity("12", "user 2", "username2", "password2");
-        ItemEntity item1 = new ItemEntity("21", "Item 1", "description 1", user1);
-        AuctionEntity auctionEntity = new AuctionEntity(auctionId, "Auction 1", "Description 1", 5, true, item1, user1);
-        BidEntity createdBidEntity = new BidEntity("32", 20, user2, auctionEntity);
 
-        when(auctionRepository.findById(auctionId)).thenReturn(Optional.of(auctionEntity));
         when(userRepository.findById(userId)).thenReturn(Optional.of(user2));
-        doReturn(Optional.empty()).when(auctionsService).getAuctionHighestBid(auctionEntity);
-        when(bidRepository.save(any(BidEntity.class))).thenReturn(createdBidEntity);
+        when(biddingEngine.placeBid(auctionId, userId, 20)).thenReturn(BidOutcome.AUCTION_NOT_FOUND);
 
-        // Act
-        BidWithBidder createdBid = auctionsService.placeBid(auctionId, userId, placeBid);
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> auctionsService.placeBid(auctionId, userId, placeBid));
+        verify(bidWriteBehind, times(0)).insert(any(BidEntity.class));
+    }
 
-        // Assert
-        assertEquals("32", createdBid.getId());
-        assertEquals(20, createdBid.getPrice());
-        assertEquals("12", createdBid.getBidder().getId());
-        assertEquals("user 2", createdBid.getBidder().getName());
+    @Test
+    void testPlaceBid_UserNotFound() {
+        // Arrange
+        String auctionId = "1";
+        String userId = "12";
+        AuctionPlaceBidRequest placeBid = new AuctionPlaceBidRequest(20);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> auctionsService.placeBid(auctionId, userId, placeBid));
+        verify(biddingEngine, times(0)).placeBid(anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    void testPlaceBid_ClosedAuction() {
+        assertBidRejected(BidOutcome.AUCTION_CLOSED, "Can't place bid on a closed auction");
+    }
+
+    @Test
+    void testPlaceBid_BidderSameAsAuctioneer() {
+        assertBidRejected(BidOutcome.OWN_AUCTION, "Auctioneer can't bid to their own auction");
+    }
+
+    @Test
+    void testPlaceBid_BidNotHigherThanExistingHighestBid() {
+        assertBidRejected(BidOutcome.NOT_HIGHER, "Bid must be higher than current highest bid");
     }
 
     @Test
-    void testPlaceBid_Success_FirstBidEqualToStartPrice() {
+    void testPlaceBid_FirstBidLowerThanStartPrice() {
+        assertBidRejected(BidOutcome.BELOW_START_PRICE, "Bid can't be lower than starting price");
+    }
+
+    @Test
+    void testPlaceBid_LostRaceToHigherBid() {
         // Arrange
         String auctionId = "1";
         String userId = "12";
-        AuctionPlaceBidRequest placeBid = new AuctionPlaceBidRequest(5);
-        UserEntity user1 = new UserEntity("11", "user 1", "username1", "password1");
+        AuctionPlaceBidRequest placeBid = new AuctionPlaceBidRequest(20);
         UserEntity user2 = new UserEntity("12", "user 2", "username2", "password2");
-        ItemEntity item1 = new ItemEntity("21", "Item 1", "description 1", user1);
-        AuctionEntity auctionEntity = new AuctionEntity(auctionId, "Auction 1", "Description 1", 5, true, item1, user1);
-        BidEntity createdBidEntity = new BidEntity("32", 5, user2, auctionEntity);
 
-        when(auctionRepository.findById(auctionId)).thenReturn(Optional.of(auctionEntity));
         when(userRepository.findById(userId)).thenReturn(Optional.of(user2));
-        doReturn(Optional.empty()).when(auctionsService).getAuctionHighestBid(auctionEntity);
-        when(bidRepository.save(any(BidEntity.class))).thenReturn(createdBidEntity);
+        when(biddingEngine.placeBid(auctionId, userId, 20)).thenReturn(BidOutcome.ACCEPTED);
+        when(auctionRepository.recordHighestBid(eq(auctionId), anyString(), eq(20), eq(user2))).thenReturn(null);
+        when(biddingEngine.checkBid(auctionId, userId, 20)).thenReturn(BidOutcome.AUCTION_CLOSED);
 
         // Act
-        BidWithBidder createdBid = auctionsService.placeBid(auctionId, userId, placeBid);
+        InvalidDataException ex = assertThrows(InvalidDataException.class, () -> auctionsService.placeBid(auctionId, userId, placeBid));
 
         // Assert
-        assertEquals("32", createdBid.getId());
-        assertEquals(5, createdBid.getPrice());
-        assertEquals("12", createdBid.getBidder().getId());
-        assertEquals("user 2", createdBid.getBidder().getName());
+        assertEquals("Can't place bid on a closed auction", ex.getMessage());
+        verify(biddingEngine, times(1)).evict(auctionId);
+        verify(bidWriteBehind, times(0)).insert(any(BidEntity.class));
+        verify(businessMetrics, times(1)).bid(BidSource.BID, BidOutcome.AUCTION_CLOSED);
     }
 
     @Test
-    void testPlaceBid_AuctionNotFound() {
+    void testPlaceBid_PersistFailureEvictsAuction() {
         // Arrange
         String auctionId = "1";
         String userId = "12";
         AuctionPlaceBidRequest placeBid = new AuctionPlaceBidRequest(20);
         UserEntity user2 = new UserEntity("12", "user 2", "username2", "password2");
 
-        when(auctionRepository.findById(auctionId)).thenReturn(Optional.empty());
         when(userRepository.findById(userId)).thenReturn(Optional.of(user2));
+        when(biddingEngine.placeBid(auctionId, userId, 20)).thenReturn(BidOutcome.ACCEPTED);
+        when(auctionRepository.recordHighestBid(eq(auctionId), anyString(), eq(20), eq(user2))).thenThrow(new RuntimeException("timeout"));
 
         // Act & Assert
-        assertThrows(EntityNotFoundException.class, () -> auctionsService.placeBid(auctionId, userId, placeBid));
+        assertThrows(RuntimeException.class, () -> auctionsService.placeBid(auctionId, userId, placeBid));
+        verify(biddingEngine, times(1)).evict(auctionId);
     }
 
     @Test
-    void testPlaceBid_UserNotFound() {
+    void testPlaceBid_StoreFailureRestoresPreviousHighestBid() {
         // Arrange
         String auctionId = "1";
         String userId = "12";
         AuctionPlaceBidRequest placeBid = new AuctionPlaceBidRequest(20);
-        UserEntity user1 = new UserEntity("11", "user 1", "username1", "password1");
-        ItemEntity item1 = new ItemEntity("21", "Item 1", "description 1", user1);
-        AuctionEntity auctionEntity = new AuctionEntity(auctionId, "Auction 1", "Description 1", 5, true, item1, user1);
-        BidEntity highestBid = new BidEntity("31", 10, user1, auctionEntity);
+        UserEntity user2 = new UserEntity("12", "user 2", "username2", "password2");
+        Document previous = new Document("highestBidId", "31").append("highestBidPrice", 10).append("highestBidder", "13");
 
-        when(auctionRepository.findById(auctionId)).thenReturn(Optional.of(auctionEntity));
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
-        doReturn(Optional.of(highestBid)).when(auctionsService).getAuctionHighestBid(auctionEntity);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user2));
+        when(biddingEngine.placeBid(auctionId, userId, 20)).thenReturn(BidOutcome.ACCEPTED);
+        when(auctionRepository.recordHighestBid(eq(auctionId), anyString(), eq(20), eq(user2))).thenReturn(previous);
+        when(bidWriteBehind.insert(any(BidEntity.class))).thenThrow(new IllegalStateException("Timed out waiting for bid to be written"));
 
-        // Act & Assert
-        assertThrows(EntityNotFoundException.class, () -> auctionsService.placeBid(auctionId, userId, placeBid));
+        // Act
+        assertThrows(IllegalStateException.class, () -> auctionsService.placeBid(auctionId, userId, placeBid));
+
+        // Assert
+        ArgumentCaptor<BidEntity> inserted = ArgumentCaptor.forClass(BidEntity.class);
+        verify(bidWriteBehind, times(1)).insert(inserted.capture());
+        verify(auctionRepository, times(1)).restoreHighestBid(auctionId, inserted.getValue().getId(), previous);
+        verify(biddingEngine, times(1)).evict(auctionId);
+        verify(liveBids, times(0)).publishBid(eq(auctionId), any(BidWithBidder.class));
+        verify(businessMetrics, times(0)).bid(BidSource.BID, BidOutcome.ACCEPTED);
     }
 
     @Test
-    void testPlaceBid_ClosedAuction() {
+    void testPlaceBid_MaxBidAnswers() {
         // Arrange
         String auctionId = "1";
         String userId = "12";
         AuctionPlaceBidRequest placeBid = new AuctionPlaceBidRequest(20);
-        UserEntity user1 = new UserEntity("11", "user 1", "username1", "password1");
         UserEntity user2 = new UserEntity("12", "user 2", "username2", "password2");
-        ItemEntity item1 = new ItemEntity("21", "Item 1", "description 1", user1);
-        AuctionEntity auctionEntity = new AuctionEntity(auctionId, "Auction 1", "Description 1", 5, false, item1, user1);
-        BidEntity highestBid = new BidEntity("31", 10, user1, auctionEntity);
-        BidEntity createdBidEntity = new BidEntity("32", 20, user2, auctionEntity);
+        UserEntity user3 = new UserEntity("13", "user 3", "username3", "password3");
 
-        when(auctionRepository.findById(auctionId)).thenReturn(Optional.of(auctionEntity));
         when(userRepository.findById(userId)).thenReturn(Optional.of(user2));
-        doReturn(Optional.of(highestBid)).when(auctionsService).getAuctionHighestBid(auctionEntity);
-        when(bidRepository.save(any(BidEntity.class))).thenReturn(createdBidEntity);
+        when(userRepository.findById("13")).thenReturn(Optional.of(user3));
+        when(biddingEngine.placeBid(auctionId, userId, 20)).thenReturn(BidOutcome.ACCEPTED);
+        when(biddingEngine.resolveProxies(auctionId)).thenReturn(new ProxyBid("13", 21));
+        when(auctionRepository.recordHighestBid(eq(auctionId), anyString(), anyInt(), any(UserEntity.class))).thenReturn(new Document());
+        when(bidWriteBehind.insert(any(BidEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
-        InvalidDataException ex = assertThrows(InvalidDataException.class, () -> auctionsService.placeBid(auctionId, userId, placeBid));
+        BidWithBidder createdBid = auctionsService.placeBid(auctionId, userId, placeBid);
 
         // Assert
-        assertEquals("Can't place bid on a closed auction", ex.getMessage());
+        assertEquals(20, createdBid.getPrice());
+        verify(auctionRepository, times(1)).recordHighestBid(eq(auctionId), anyString(), eq(21), any(UserEntity.class));
+
+        ArgumentCaptor<BidWithBidder> published = ArgumentCaptor.forClass(BidWithBidder.class);
+        verify(liveBids, times(2)).publishBid(eq(auctionId), published.capture());
+        assertEquals(21, published.getValue().getPrice());
+        assertEquals("user 3", published.getValue().getBidder().getName());
     }
 
     @Test
-    void testPlaceBid_BidderSameAsAuctioneer() {
+    void testPlaceBid_MaxBidAnswerFailureKeepsAcceptedBid() {
         // Arrange
         String auctionId = "1";
-        String userId = "11";
+        String userId = "12";
         AuctionPlaceBidRequest placeBid = new AuctionPlaceBidRequest(20);
-        UserEntity user1 = new UserEntity("11", "user 1", "username1", "password1");
         UserEntity user2 = new UserEntity("12", "user 2", "username2", "password2");
-        ItemEntity item1 = new ItemEntity("21", "Item 1", "description 1", user1);
-        AuctionEntity auctionEntity = new AuctionEntity(auctionId, "Auction 1", "Description 1", 5, true, item1, user1);
-        BidEntity highestBid = new BidEntity("31", 10, user1, auctionEntity);
-        BidEntity createdBidEntity = new BidEntity("32", 20, user2, auctionEntity);
 
-        when(auctionRepository.findById(auctionId)).thenReturn(Optional.of(auctionEntity));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user1));
-        doReturn(Optional.of(highestBid)).when(auctionsService).getAuctionHighestBid(auctionEntity);
-        when(bidRepository.save(any(BidEntity.class))).thenReturn(createdBidEntity);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user2));
+        when(biddingEngine.placeBid(auctionId, userId, 20)).thenReturn(BidOutcome.ACCEPTED);
+        when(biddingEngine.resolveProxies(auctionId)).thenReturn(new ProxyBid("13", 21));
+        when(auctionRepository.recordHighestBid(eq(auctionId), anyString(), eq(20), eq(user2))).thenReturn(new Document());
+        when(auctionRepository.recordHighestBid(eq(auctionId), anyString(), eq(21), any(UserEntity.class))).thenThrow(new RuntimeException("timeout"));
+        when(bidWriteBehind.insert(any(BidEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
-        InvalidDataException ex = assertThrows(InvalidDataException.class, () -> auctionsService.placeBid(auctionId, userId, placeBid));
+        BidWithBidder createdBid = auctionsService.placeBid(auctionId, userId, placeBid);
 
         // Assert
-        assertEquals("Auctioneer can't bid to their own auction", ex.getMessage());
+        assertEquals(20, createdBid.getPrice());
+        verify(biddingEngine, times(1)).evict(auctionId);
+        verify(liveBids, times(1)).publishBid(auctionId, createdBid);
+        verify(businessMetrics, times(1)).bid(BidSource.BID, BidOutcome.ACCEPTED);
+        verify(businessMetrics, times(0)).bid(BidSource.PROXY, BidOutcome.ACCEPTED);
     }
 
     @Test
-    void testPlaceBid_BidEqualToExistingHighestBid() {
+    void testPlaceMaxBid_RecordsOnlyResultingBid() {
         // Arrange
         String auctionId = "1";
         String userId = "12";
-        AuctionPlaceBidRequest placeBid = new AuctionPlaceBidRequest(10);
-        UserEntity user1 = new UserEntity("11", "user 1", "username1", "password1");
         UserEntity user2 = new UserEntity("12", "user 2", "username2", "password2");
-        ItemEntity item1 = new ItemEntity("21", "Item 1", "description 1", user1);
-        AuctionEntity auctionEntity = new AuctionEntity(auctionId, "Auction 1", "Description 1", 5, true, item1, user1);
-        BidEntity highestBid = new BidEntity("31", 10, user1, auctionEntity);
-        BidEntity createdBidEntity = new BidEntity("32", 10, user2, auctionEntity);
 
-        when(auctionRepository.findById(auctionId)).thenReturn(Optional.of(auctionEntity));
+        when(userRepository.existsById(userId)).thenReturn(true);
         when(userRepository.findById(userId)).thenReturn(Optional.of(user2));
-        doReturn(Optional.of(highestBid)).when(auctionsService).getAuctionHighestBid(auctionEntity);
-        when(bidRepository.save(any(BidEntity.class))).thenReturn(createdBidEntity);
+        when(biddingEngine.placeMaxBid(auctionId, userId, 50)).thenReturn(new MaxBidOutcome(BidOutcome.ACCEPTED, "13", 10));
+        when(biddingEngine.resolveProxies(auctionId)).thenReturn(new ProxyBid(userId, 11), (ProxyBid) null);
+        when(maxBidRepository.findByAuctionIdAndBidderId(auctionId, userId)).thenReturn(Optional.empty());
+        when(auctionRepository.recordHighestBid(eq(auctionId), anyString(), eq(11), any(UserEntity.class))).thenReturn(new Document());
+        when(bidWriteBehind.insert(any(BidEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        // Act 
-        InvalidDataException ex = assertThrows(InvalidDataException.class, () -> auctionsService.placeBid(auctionId, userId, placeBid));
+        // Act
+        MaxBid maxBid = auctionsService.placeMaxBid(auctionId, userId, new AuctionPlaceBidRequest(50));
 
         // Assert
-        assertEquals("Bid must be higher than current highest bid", ex.getMessage());
+        assertEquals(50, maxBid.getMaxPrice());
+        assertEquals(true, maxBid.isLeading());
+        assertEquals(Integer.valueOf(11), maxBid.getCurrentPrice());
+
+        ArgumentCaptor<MaxBidEntity> saved = ArgumentCaptor.forClass(MaxBidEntity.class);
+        verify(maxBidRepository, times(1)).save(saved.capture());
+        assertEquals(50, saved.getValue().getMaxPrice());
+        verify(bidWriteBehind, times(1)).insert(any(BidEntity.class));
     }
 
     @Test
-    void testPlaceBid_BidLowerThanExistingHighestBid() {
+    void testPlaceMaxBid_OutbidByHigherMaxBid() {
         // Arrange
         String auctionId = "1";
         String userId = "12";
-        AuctionPlaceBidRequest placeBid = new AuctionPlaceBidRequest(5);
-        UserEntity user1 = new UserEntity("11", "user 1", "username1", "password1");
-        UserEntity user2 = new UserEntity("12", "user 2", "username2", "password2");
-        ItemEntity item1 = new ItemEntity("21", "Item 1", "description 1", user1);
-        AuctionEntity auctionEntity = new AuctionEntity(auctionId, "Auction 1", "Description 1", 5, true, item1, user1);
-        BidEntity highestBid = new BidEntity("31", 10, user1, auctionEntity);
-        BidEntity createdBidEntity = new BidEntity("32", 5, user2, auctionEntity);
+        UserEntity user3 = new UserEntity("13", "user 3", "username3", "password3");
 
-        when(auctionRepository.findById(auctionId)).thenReturn(Optional.of(auctionEntity));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user2));
-        doReturn(Optional.of(highestBid)).when(auctionsService).getAuctionHighestBid(auctionEntity);
-        when(bidRepository.save(any(BidEntity.class))).thenReturn(createdBidEntity);
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userRepository.findById("13")).thenReturn(Optional.of(user3));
+        when(biddingEngine.placeMaxBid(auctionId, userId, 30)).thenReturn(new MaxBidOutcome(BidOutcome.ACCEPTED, "13", 20));
+        when(biddingEngine.resolveProxies(auctionId)).thenReturn(new ProxyBid("13", 31));
+        when(maxBidRepository.findByAuctionIdAndBidderId(auctionId, userId)).thenReturn(Optional.of(new MaxBidEntity(auctionId, userId, 25, LocalDateTime.now())));
+        when(auctionRepository.recordHighestBid(eq(auctionId), anyString(), eq(31), any(UserEntity.class))).thenReturn(new Document());
+        when(bidWriteBehind.insert(any(BidEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
-        InvalidDataException ex = assertThrows(InvalidDataException.class, () -> auctionsService.placeBid(auctionId, userId, placeBid));
+        MaxBid maxBid = auctionsService.placeMaxBid(auctionId, userId, new AuctionPlaceBidRequest(30));
 
         // Assert
-        assertEquals("Bid must be higher than current highest bid", ex.getMessage());
+        assertEquals(false, maxBid.isLeading());
+        assertEquals(Integer.valueOf(31), maxBid.getCurrentPrice());
+        verify(liveBids, times(1)).publishBid(eq(auctionId), any(BidWithBidder.class));
     }
-    
+
     @Test
-    void testPlaceBid_FirstBidLowerThanStartPrice() {
+    void testPlaceMaxBid_AnswerFailureKeepsSavedMaxBid() {
         // Arrange
         String auctionId = "1";
         String userId = "12";
-        AuctionPlaceBidRequest placeBid = new AuctionPlaceBidRequest(4);
-        UserEntity user1 = new UserEntity("11", "user 1", "username1", "password1");
-        UserEntity user2 = new UserEntity("12", "user 2", "username2", "password2");
-        ItemEntity item1 = new ItemEntity("21", "Item 1", "description 1", user1);
-        AuctionEntity auctionEntity = new AuctionEntity(auctionId, "Auction 1", "Description 1", 5, true, item1, user1);
-        BidEntity createdBidEntity = new BidEntity("32", 4, user2, auctionEntity);
 
-        when(auctionRepository.findById(auctionId)).thenReturn(Optional.of(auctionEntity));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user2));
-        doReturn(Optional.empty()).when(auctionsService).getAuctionHighestBid(auctionEntity);
-        when(bidRepository.save(any(BidEntity.class))).thenReturn(createdBidEntity);
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(biddingEngine.placeMaxBid(auctionId, userId, 50)).thenReturn(new MaxBidOutcome(BidOutcome.ACCEPTED, "13", 10));
+        when(biddingEngine.resolveProxies(auctionId)).thenReturn(new ProxyBid(userId, 11));
+        when(maxBidRepository.findByAuctionIdAndBidderId(auctionId, userId)).thenReturn(Optional.empty());
+        when(auctionRepository.recordHighestBid(eq(auctionId), anyString(), eq(11), any(UserEntity.class))).thenReturn(new Document());
+        when(bidWriteBehind.insert(any(BidEntity.class))).thenThrow(new IllegalStateException("Timed out waiting for bid to be written"));
 
         // Act
-        InvalidDataException ex = assertThrows(InvalidDataException.class, () -> auctionsService.placeBid(auctionId, userId, placeBid));
+        MaxBid maxBid = auctionsService.placeMaxBid(auctionId, userId, new AuctionPlaceBidRequest(50));
+
+        // Assert
+        assertEquals(50, maxBid.getMaxPrice());
+        assertEquals(false, maxBid.isLeading());
+        assertEquals(Integer.valueOf(10), maxBid.getCurrentPrice());
+        verify(maxBidRepository, times(1)).save(any(MaxBidEntity.class));
+        verify(auctionRepository, times(1)).restoreHighestBid(eq(auctionId), anyString(), any(Document.class));
+    }
+
+    @Test
+    void testPlaceMaxBid_Rejected() {
+        // Arrange
+        String auctionId = "1";
+        String userId = "12";
+
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(biddingEngine.placeMaxBid(auctionId, userId, 5)).thenReturn(new MaxBidOutcome(BidOutcome.NOT_HIGHER, null, null));
+
+        // Act
+        InvalidDataException ex = assertThrows(InvalidDataException.class,
+            () -> auctionsService.placeMaxBid(auctionId, userId, new AuctionPlaceBidRequest(5)));
 
         // Assert
-        assertEquals("Bid can't be lower than starting price", ex.getMessage());
+        assertEquals("Bid must be higher than current highest bid", ex.getMessage());
+        verify(maxBidRepository, times(0)).save(any(MaxBidEntity.class));
     }
 
     @Test
@@ -626,90 +912,208 @@ public class AuctionsServiceTest {
         UserEntity user1 = new UserEntity("11", "user 1", "username1", "password1");
         UserEntity user2 = new UserEntity("12", "user 2", "username2", "password2");
         ItemEntity item1 = new ItemEntity("21", "Item 1", "description 1", user1);
-        AuctionEntity auctionEntity = new AuctionEntity(auctionId, "Auction 1", "Description 1", 5, true, item1, user1);
-        BidEntity highestBid = new BidEntity("31", 10, user1, auctionEntity);
-        ItemEntity updatedItem = new ItemEntity("21", "Item 1", "description 1", user2);
-        AuctionEntity updatedAuction = new AuctionEntity(auctionId, "Auction 1", "Description 1", 5, false, item1, user1);
+        AuctionEntity closedAuction = new AuctionEntity(auctionId, "Auction 1", "Description 1", 5, false, item1, user1);
+        BidEntity highestBid = new BidEntity("31", 10, user2, closedAuction);
 
-        when(auctionRepository.findById(auctionId)).thenReturn(Optional.of(auctionEntity));
-        doReturn(Optional.of(highestBid)).when(auctionsService).getAuctionHighestBid(auctionEntity);
-        when(itemRepository.save(any(ItemEntity.class))).thenReturn(updatedItem);
-        when(auctionRepository.save(any(AuctionEntity.class))).thenReturn(updatedAuction);
+        when(biddingEngine.close(auctionId)).thenReturn(CloseOutcome.CLOSED);
+        when(auctionRepository.closeIfOpen(auctionId)).thenReturn(closedAuction);
+        doReturn(Optional.of(highestBid)).when(auctionsService).getAuctionHighestBid(closedAuction);
 
         // Act
         auctionsService.closeAuction(auctionId);
 
         // Assert
+        verify(auctionRepository, times(1)).closeIfOpen(auctionId);
         verify(itemRepository, times(1)).save(item1);
-        verify(auctionRepository, times(1)).save(auctionEntity);
+        assertEquals(user2, item1.getOwner());
+        verify(liveBids, times(1)).publishClose(eq(auctionId), any(BidWithBidder.class));
+        verify(responseCache, times(1)).invalidate(CacheTags.ITEMS, CacheTags.item("21"));
+        verify(responseCache, times(1)).invalidate(CacheTags.userItems("11"));
+        verify(responseCache, times(1)).invalidate(CacheTags.userItems("12"));
+        verify(responseCache, times(1)).invalidate(CacheTags.AUCTIONS, CacheTags.auction(auctionId), CacheTags.userAuctions("11"));
+        verify(businessMetrics, times(1)).auctionClosed(CloseReason.MANUAL);
+        verify(auctionRepository, times(1)).markSettled(auctionId);
     }
 
     @Test
-    void testCloseAuction_AuctionNotFound() {
+    void testCloseAuction_FailedSettlementIsRetried() {
         // Arrange
         String auctionId = "1";
         UserEntity user1 = new UserEntity("11", "user 1", "username1", "password1");
-        UserEntity user2 = new UserEntity("12", "user 2", "username2", "password2");
         ItemEntity item1 = new ItemEntity("21", "Item 1", "description 1", user1);
-        AuctionEntity auctionEntity = new AuctionEntity(auctionId, "Auction 1", "Description 1", 5, true, item1, user1);
-        BidEntity highestBid = new BidEntity("31", 10, user1, auctionEntity);
-        ItemEntity updatedItem = new ItemEntity("21", "Item 1", "description 1", user2);
-        AuctionEntity updatedAuction = new AuctionEntity(auctionId, "Auction 1", "Description 1", 5, false, item1, user1);
+        AuctionEntity closedAuction = new AuctionEntity(auctionId, "Auction 1", "Description 1", 5, false, item1, user1);
 
-        when(auctionRepository.findById(auctionId)).thenReturn(Optional.empty());
-        doReturn(Optional.of(highestBid)).when(auctionsService).getAuctionHighestBid(auctionEntity);
-        when(itemRepository.save(any(ItemEntity.class))).thenReturn(updatedItem);
-        when(auctionRepository.save(any(AuctionEntity.class))).thenReturn(updatedAuction);
+        when(biddingEngine.close(auctionId)).thenReturn(CloseOutcome.CLOSED);
+        when(auctionRepository.closeIfOpen(auctionId)).thenReturn(closedAuction);
+        doReturn(Optional.empty()).when(auctionsService).getAuctionHighestBid(closedAuction);
+        doThrow(new IllegalStateException("Mongo down")).when(maxBidRepository).deleteByAuctionId(auctionId);
 
-        // Act & Assert
-        assertThrows(EntityNotFoundException.class, () -> auctionsService.closeAuction(auctionId));
+        // Act
+        assertThrows(IllegalStateException.class, () -> auctionsService.closeAuction(auctionId));
+
+        // Assert
+        verify(auctionDeadlines, times(1)).retry(auctionId);
+        verify(auctionRepository, times(0)).markSettled(auctionId);
     }
 
     @Test
-    void testCloseAuction_AuctionAlreadyClosed() {
+    void testStreamAuctionBids_OpenAuction() {
         // Arrange
         String auctionId = "1";
         UserEntity user1 = new UserEntity("11", "user 1", "username1", "password1");
-        UserEntity user2 = new UserEntity("12", "user 2", "username2", "password2");
         ItemEntity item1 = new ItemEntity("21", "Item 1", "description 1", user1);
-        AuctionEntity auctionEntity = new AuctionEntity(auctionId, "Auction 1", "Description 1", 5, false, item1, user1);
-        BidEntity highestBid = new BidEntity("31", 10, user1, auctionEntity);
-        ItemEntity updatedItem = new ItemEntity("21", "Item 1", "description 1", user2);
-        AuctionEntity updatedAuction = new AuctionEntity(auctionId, "Auction 1", "Description 1", 5, false, item1, user1);
+        AuctionEntity auction = new AuctionEntity(auctionId, "Auction 1", "Description 1", 5, true, item1, user1);
+        Flux<ServerSentEvent<BidWithBidder>> live = Flux.empty();
+
+        when(auctionRepository.findById(auctionId)).thenReturn(Optional.of(auction));
+        when(liveBids.subscribe(eq(auctionId), any())).thenReturn(live);
+
+        // Act
+        Flux<ServerSentEvent<BidWithBidder>> stream = auctionsService.streamAuctionBids(auctionId);
+
+        // Assert
+        assertEquals(live, stream);
+    }
+
+    @Test
+    void testStreamAuctionBids_ClosedAuctionSendsResult() {
+        // Arrange
+        String auctionId = "1";
+        UserEntity user1 = new UserEntity("11", "user 1", "username1", "password1");
+        UserEntity user2 = new UserEntity("12", "user 2", "username2", "password2");
+        ItemEntity item1 = new ItemEntity("21", "Item 1", "description 1", user2);
+        AuctionEntity auction = new AuctionEntity(auctionId, "Auction 1", "Description 1", 5, false, item1, user1);
+        BidEntity highestBid = new BidEntity("31", 10, user2, auction);
+
+        when(auctionRepository.findById(auctionId)).thenReturn(Optional.of(auction));
+        doReturn(Optional.of(highestBid)).when(auctionsService).getAuctionHighestBid(auction);
+
+        // Act
+        List<ServerSentEvent<BidWithBidder>> events = auctionsService.streamAuctionBids(auctionId).collectList().block();
+
+        // Assert
+        assertEquals(1, events.size());
+        assertEquals(LiveBids.CLOSED_EVENT, events.get(0).event());
+        assertEquals("31", events.get(0).data().getId());
+        verify(liveBids, times(0)).subscribe(eq(auctionId), any());
+    }
+
+    @Test
+    void testCloseAuction_ClosedConcurrently() {
+        // Arrange
+        String auctionId = "1";
+
+        when(biddingEngine.close(auctionId)).thenReturn(CloseOutcome.CLOSED);
+        when(auctionRepository.closeIfOpen(auctionId)).thenReturn(null);
+
+        // Act
+        InvalidDataException ex = assertThrows(InvalidDataException.class, () -> auctionsService.closeAuction(auctionId));
+
+        // Assert
+        assertEquals("Can't close an already closed auction", ex.getMessage());
+        verify(itemRepository, times(0)).save(any(ItemEntity.class));
+    }
+
+    @Test
+    void testCloseAuction_AuctionNotFound() {
+        // Arrange
+        String auctionId = "1";
+        when(biddingEngine.close(auctionId)).thenReturn(CloseOutcome.AUCTION_NOT_FOUND);
 
-        when(auctionRepository.findById(auctionId)).thenReturn(Optional.of(auctionEntity));
-        doReturn(Optional.of(highestBid)).when(auctionsService).getAuctionHighestBid(auctionEntity);
-        when(itemRepository.save(any(ItemEntity.class))).thenReturn(updatedItem);
-        when(auctionRepository.save(any(AuctionEntity.class))).thenReturn(updatedAuction);
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> auctionsService.closeAuction(auctionId));
+        verify(auctionRepository, times(0)).closeIfOpen(auctionId);
+    }
+
+    @Test
+    void testCloseAuction_AuctionAlreadyClosed() {
+        // Arrange
+        String auctionId = "1";
+        when(biddingEngine.close(auctionId)).thenReturn(CloseOutcome.ALREADY_CLOSED);
 
         // Act
         InvalidDataException ex = assertThrows(InvalidDataException.class, () -> auctionsService.closeAuction(auctionId));
 
         // Assert
         assertEquals("Can't close an already closed auction", ex.getMessage());
+        verify(auctionRepository, times(0)).closeIfOpen(auctionId);
     }
 
     @Test
     void testCloseAuction_NoBids() {
+        // Arrange
+        String auctionId = "1";
+        when(biddingEngine.close(auctionId)).thenReturn(CloseOutcome.NO_BIDS);
+
+        /// Act
+        InvalidDataException ex = assertThrows(InvalidDataException.class, () -> auctionsService.closeAuction(auctionId));
+
+        // Assert
+        assertEquals("Can't close auction with no bids", ex.getMessage());
+        verify(auctionRepository, times(0)).closeIfOpen(auctionId);
+    }
+
+    @Test
+    void testExpireAuction_WithoutBids() {
+        // Arrange
+        String auctionId = "1";
+        UserEntity user1 = new UserEntity("11", "user 1", "username1", "password1");
+        ItemEntity item1 = new ItemEntity("21", "Item 1", "description 1", user1);
+        AuctionEntity closedAuction = new AuctionEntity(auctionId, "Auction 1", "Description 1", 5, false, item1, user1);
+
+        when(auctionRepository.closeIfOpen(auctionId)).thenReturn(closedAuction);
+        doReturn(Optional.empty()).when(auctionsService).getAuctionHighestBid(closedAuction);
+
+        // Act
+        auctionsService.expireAuction(auctionId);
+
+        // Assert
+        verify(biddingEngine, times(1)).evict(auctionId);
+        verify(itemRepository, times(0)).save(any(ItemEntity.class));
+        verify(liveBids, times(1)).publishClose(auctionId, null);
+        verify(businessMetrics, times(1)).auctionClosed(CloseReason.EXPIRED);
+        verify(auctionRepository, times(1)).markSettled(auctionId);
+    }
+
+    @Test
+    void testExpireAuction_AlreadySettled() {
+        // Arrange
+        String auctionId = "1";
+        when(auctionRepository.closeIfOpen(auctionId)).thenReturn(null);
+        when(auctionRepository.findClosedUnsettled(auctionId)).thenReturn(null);
+
+        // Act
+        auctionsService.expireAuction(auctionId);
+
+        // Assert
+        verify(itemRepository, times(0)).save(any(ItemEntity.class));
+        verify(liveBids, times(0)).publishClose(anyString(), any());
+        verify(auctionRepository, times(0)).markSettled(anyString());
+    }
+
+    @Test
+    void testExpireAuction_FinishesFailedSettlement() {
         // Arrange
         String auctionId = "1";
         UserEntity user1 = new UserEntity("11", "user 1", "username1", "password1");
         UserEntity user2 = new UserEntity("12", "user 2", "username2", "password2");
         ItemEntity item1 = new ItemEntity("21", "Item 1", "description 1", user1);
-        AuctionEntity auctionEntity = new AuctionEntity(auctionId, "Auction 1", "Description 1", 5, true, item1, user1);
-        ItemEntity updatedItem = new ItemEntity("21", "Item 1", "description 1", user2);
-        AuctionEntity updatedAuction = new AuctionEntity(auctionId, "Auction 1", "Description 1", 5, false, item1, user1);
+        AuctionEntity closedAuction = new AuctionEntity(auctionId, "Auction 1", "Description 1", 5, false, item1, user1);
+        BidEntity highestBid = new BidEntity("31", 10, user2, closedAuction);
 
-        when(auctionRepository.findById(auctionId)).thenReturn(Optional.of(auctionEntity));
-        doReturn(Optional.empty()).when(auctionsService).getAuctionHighestBid(auctionEntity);
-        when(itemRepository.save(any(ItemEntity.class))).thenReturn(updatedItem);
-        when(auctionRepository.save(any(AuctionEntity.class))).thenReturn(updatedAuction);
+        when(auctionRepository.closeIfOpen(auctionId)).thenReturn(null);
+        when(auctionRepository.findClosedUnsettled(auctionId)).thenReturn(closedAuction);
+        doReturn(Optional.of(highestBid)).when(auctionsService).getAuctionHighestBid(closedAuction);
 
-        /// Act
-        InvalidDataException ex = assertThrows(InvalidDataException.class, () -> auctionsService.closeAuction(auctionId));
+        // Act
+        auctionsService.expireAuction(auctionId);
 
         // Assert
-        assertEquals("Can't close auction with no bids", ex.getMessage());
+        assertEquals(user2, item1.getOwner());
+        verify(maxBidRepository, times(1)).deleteByAuctionId(auctionId);
+        verify(liveBids, times(1)).publishClose(eq(auctionId), any(BidWithBidder.class));
+        verify(auctionRepository, times(1)).markSettled(auctionId);
+        verify(businessMetrics, times(0)).auctionClosed(any(CloseReason.class));
     }
 
     @Test
@@ -727,6 +1131,7 @@ public class AuctionsServiceTest {
 
         // Assert
         verify(auctionRepository, times(1)).delete(auctionEntity);
+        verify(biddingEngine, times(1)).evict(id);
     }
 
     @Test
@@ -745,16 +1150,12 @@ public class AuctionsServiceTest {
         // Arrange
         UserEntity user1 = new UserEntity("11", "user 1", "username1", "password1");
         UserEntity user2 = new UserEntity("12", "user 2", "username2", "password2");
-        UserEntity user3 = new UserEntity("13", "user 3", "username3", "password3");
         ItemEntity item1 = new ItemEntity("21", "Item 1", "description 1", user1);
         AuctionEntity entity = new AuctionEntity("1", "Auction 1", "Description 1", 5, true, item1, user1);
 
-        BidEntity bid1 = new BidEntity("31", 100, user2, entity);
         BidEntity bid2 = new BidEntity("32", 130, user2, entity);
-        BidEntity bid3 = new BidEntity("32", 110, user3, entity);
-        List<BidEntity> bidEntities = Arrays.asList(bid1, bid2, bid3);
 
-        when(bidRepository.findByAuction(entity)).thenReturn(bidEntities);
+        when(bidRepository.findFirstByAuctionOrderByPriceDesc(entity)).thenReturn(Optional.of(bid2));
 
         // Act
         Optional<BidEntity> highestBid = auctionsService.getAuctionHighestBid(entity);
@@ -774,7 +1175,7 @@ public class AuctionsServiceTest {
         ItemEntity item1 = new ItemEntity("21", "Item 1", "description 1", user1);
         AuctionEntity entity = new AuctionEntity("1", "Auction 1", "Description 1", 5, true, item1, user1);
 
-        when(bidRepository.findByAuction(entity)).thenReturn(Arrays.asList());
+        when(bidRepository.findFirstByAuctionOrderByPriceDesc(entity)).thenReturn(Optional.empty());
 
         // Act
         Optional<BidEntity> highestBid = auctionsService.getAuctionHighestBid(entity);
@@ -782,4 +1183,47 @@ public class AuctionsServiceTest {
         // Assert
         assertEquals(false, highestBid.isPresent());
     }
+
+    @Test
+    void testGetAuctionHighestBid_TrackedOnAuction() {
+        // Arrange
+        UserEntity user1 = new UserEntity("11", "user 1", "username1", "password1");
+        UserEntity user2 = new UserEntity("12", "user 2", "username2", "password2");
+        ItemEntity item1 = new ItemEntity("21", "Item 1", "description 1", user1);
+        AuctionEntity entity = new AuctionEntity("1", "Auction 1", "Description 1", 5, true, item1, user1);
+        entity.setHighestBidId("32");
+        entity.setHighestBidPrice(130);
+        entity.setHighestBidder(user2);
+        entity.setBidCount(3);
+
+        // Act
+        Optional<BidEntity> highestBid = auctionsService.getAuctionHighestBid(entity);
+
+        // Assert
+        assertEquals(true, highestBid.isPresent());
+        assertEquals("32", highestBid.get().getId());
+        assertEquals(130, highestBid.get().getPrice());
+        assertEquals("12", highestBid.get().getBidder().getId());
+        verify(bidRepository, times(0)).findFirstByAuctionOrderByPriceDesc(any(AuctionEntity.class));
+    }
+
+    private void assertBidRejected(BidOutcome outcome, String message) {
+        // Arrange
+        String auctionId = "1";
+        String userId = "12";
+        AuctionPlaceBidRequest placeBid = new AuctionPlaceBidRequest(20);
+        UserEntity user2 = new UserEntity("12", "user 2", "username2", "password2");
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user2));
+        when(biddingEngine.placeBid(auctionId, userId, 20)).thenReturn(outcome);
+
+        // Act
+        InvalidDataException ex = assertThrows(InvalidDataException.class, () -> auctionsService.placeBid(auctionId, userId, placeBid));
+
+        // Assert
+        assertEquals(message, ex.getMessage());
+        verify(auctionRepository, times(0)).recordHighestBid(anyString(), anyString(), anyInt(), any(UserEntity.class));
+        verify(bidWriteBehind, times(0)).insert(any(BidEntity.class));
+        verify(businessMetrics, times(1)).bid(BidSource.BID, outcome);
+    }
 }
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -13,21 +14,32 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import ro.unibuc.hello.cache.CacheTags;
+import ro.unibuc.hello.cache.ResponseCache;
 import ro.unibuc.hello.data.ItemEntity;
 import ro.unibuc.hello.data.ItemRepository;
+import ro.unibuc.hello.data.PageReadRepository;
+import ro.unibuc.hello.data.ReferenceLoader;
 import ro.unibuc.hello.data.UserEntity;
 import ro.unibuc.hello.data.UserRepository;
 import ro.unibuc.hello.dto.ItemPostRequest;
 import ro.unibuc.hello.dto.ItemWithOwner;
 import ro.unibuc.hello.exception.EntityNotFoundException;
+import ro.unibuc.hello.exception.PreconditionFailedException;
 
 @ExtendWith(SpringExtension.class)
 class ItemsServiceTest {
@@ -41,6 +53,15 @@ class ItemsServiceTest {
     @Mock
     private SessionsService sessionsService;
 
+    @Mock
+    private PageReadRepository pageReadRepository;
+
+    @Mock
+    private ReferenceLoader referenceLoader;
+
+    @Mock
+    private ResponseCache responseCache;
+
     @InjectMocks
     private ItemsService itemsService = new ItemsService();
 
@@ -51,18 +72,21 @@ class ItemsServiceTest {
 
     @Test
     void testGetAllItems() {
-        UserEntity user = new UserEntity("testUser", "password", "username");
-        List<ItemEntity> items = Arrays.asList(
-                new ItemEntity("Item1", "Description1", user),
-                new ItemEntity("Item2", "Description2", user)
+        Document owner = new Document("_id", "11").append("name", "testUser");
+        List<Document> items = Arrays.asList(
+                new Document("_id", "21").append("name", "Item1").append("description", "Description1").append("owner", owner),
+                new Document("_id", "22").append("name", "Item2").append("description", "Description2").append("owner", owner)
         );
-        when(itemRepository.findAll()).thenReturn(items);
+        Window<Document> page = Window.from(items, ScrollPosition::offset);
+        when(pageReadRepository.findItems(any(Criteria.class), isNull(), any(Limit.class))).thenReturn(page);
+        when(referenceLoader.withUsers(page, "owner")).thenReturn(page);
         
-        List<ItemWithOwner> result = itemsService.getAllItems();
+        List<ItemWithOwner> result = itemsService.getAllItems(null, null).getContent();
         
         assertEquals(2, result.size());
         assertEquals("Item1", result.get(0).getName());
         assertEquals("Item2", result.get(1).getName());
+        assertEquals("testUser", result.get(1).getOwner().getName());
     }
 
     @Test
@@ -108,6 +132,7 @@ class ItemsServiceTest {
         assertEquals(itemDescription, savedItem.getDescription()); 
         assertEquals(user.getName(), savedItem.getOwner().getName()); 
         verify(itemRepository, times(1)).save(any(ItemEntity.class));  
+        verify(responseCache, times(1)).invalidate(CacheTags.ITEMS, CacheTags.userItems(ownerId));
     }
 
     @Test
@@ -229,7 +254,7 @@ class ItemsServiceTest {
         when(itemRepository.save(any(ItemEntity.class))).thenReturn(existingItemEntity);
         
         // Act
-        ItemWithOwner updatedItem = itemsService.updateItem(itemId, itemToUpdate);
+        ItemWithOwner updatedItem = itemsService.updateItem(itemId, itemToUpdate, null);
         
         // Assert
         assertNotNull(updatedItem);
@@ -238,6 +263,39 @@ class ItemsServiceTest {
         assertEquals(existingOwnerName, updatedItem.getOwner().getName());  // Ensure owner remains the same
     }
 
+    @Test
+    void testUpdateItem_RetriesAfterConcurrentEdit() {
+        // Arrange
+        UserEntity owner = new UserEntity("11", "user 1", "password", "username1");
+        ItemEntity stale = new ItemEntity("item123", "Old Item", "Old Description", owner);
+        ItemEntity fresh = new ItemEntity("item123", "Other Item", "Other Description", owner);
+        ItemPostRequest itemToUpdate = new ItemPostRequest("Updated Item", "Updated Description");
+
+        when(itemRepository.findById("item123")).thenReturn(Optional.of(stale), Optional.of(fresh));
+        when(itemRepository.save(stale)).thenThrow(new OptimisticLockingFailureException("version changed"));
+        when(itemRepository.save(fresh)).thenReturn(fresh);
+
+        // Act
+        ItemWithOwner updatedItem = itemsService.updateItem("item123", itemToUpdate, null);
+
+        // Assert
+        assertEquals("Updated Item", updatedItem.getName());
+        verify(itemRepository, times(2)).findById("item123");
+    }
+
+    @Test
+    void testUpdateItem_IfMatchOutdated() {
+        // Arrange
+        ItemEntity current = new ItemEntity("item123", "Old Item", "Old Description", new UserEntity("11", "user 1", "password", "username1"));
+        current.setVersion(5L);
+        when(itemRepository.findById("item123")).thenReturn(Optional.of(current));
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class,
+            () -> itemsService.updateItem("item123", new ItemPostRequest("Updated Item", "Updated Description"), 4L));
+        verify(itemRepository, times(0)).save(any(ItemEntity.class));
+    }
+
     @Test
     void testUpdateItem_NonExistingEntity() {
         // Arrange
@@ -253,7 +311,7 @@ class ItemsServiceTest {
         
         // Act & Assert
         assertThrows(EntityNotFoundException.class, () -> {
-            itemsService.updateItem(itemId, itemToUpdate);  // This should throw EntityNotFoundException
+            itemsService.updateItem(itemId, itemToUpdate, null);  // This should throw EntityNotFoundException
         });
     }
 
@@ -0,0 +1,25 @@
+package ro.unibuc.hello.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import ro.unibuc.hello.exception.InvalidDataException;
+
+public class PaginationTest {
+
+    @Test
+    void testLimit_DefaultAndMaximum() {
+        assertEquals(Pagination.DEFAULT_LIMIT, Pagination.limit(null).max());
+        assertEquals(10, Pagination.limit(10).max());
+        assertEquals(Pagination.MAX_LIMIT, Pagination.limit(100000).max());
+    }
+
+    @Test
+    void testLimit_RejectsNonPositive() {
+        // Act & Assert
+        InvalidDataException ex = assertThrows(InvalidDataException.class, () -> Pagination.limit(0));
+        assertEquals("Limit must be at least 1", ex.getMessage());
+    }
+}
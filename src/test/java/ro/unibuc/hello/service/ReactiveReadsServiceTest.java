@@ -0,0 +1,180 @@
+package ro.unibuc.hello.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ro.unibuc.hello.data.Lookups;
+import ro.unibuc.hello.data.ReactiveReadRepository;
+import ro.unibuc.hello.dto.AuctionWithAuctioneerAndItem;
+import ro.unibuc.hello.dto.BidWithBidder;
+import ro.unibuc.hello.dto.Item;
+import ro.unibuc.hello.dto.ItemWithOwner;
+import ro.unibuc.hello.dto.User;
+import ro.unibuc.hello.exception.EntityNotFoundException;
+
+public class ReactiveReadsServiceTest {
+
+    @Mock
+    private ReactiveReadRepository reactiveReadRepository;
+
+    @InjectMocks
+    private ReactiveReadsService reactiveReadsService = new ReactiveReadsService();
+
+    private Document user1 = new Document("_id", "11").append("name", "user 1");
+    private Document item1 = new Document("_id", "21").append("name", "Item 1").append("description", "description 1");
+    private Document auction1 = new Document("_id", "1")
+        .append("title", "Auction 1")
+        .append("description", "Description 1")
+        .append("startPrice", 100)
+        .append("open", true)
+        .append("auctioneer", user1)
+        .append("item", item1);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testStreamAllAuctions() {
+        // Arrange
+        Document auction2 = new Document(auction1).append("_id", "2").append("open", false);
+        when(reactiveReadRepository.findAuctionsWithAuctioneerAndItem(any(Criteria.class))).thenReturn(Flux.just(auction1, auction2));
+
+        // Act
+        List<AuctionWithAuctioneerAndItem> auctions = reactiveReadsService.streamAllAuctions().collectList().block();
+
+        // Assert
+        assertEquals(2, auctions.size());
+        assertEquals("1", auctions.get(0).getId());
+        assertEquals("open", auctions.get(0).getStatus());
+        assertEquals("user 1", auctions.get(0).getAuctioneer().getName());
+        assertEquals("Item 1", auctions.get(0).getItem().getName());
+        assertEquals("closed", auctions.get(1).getStatus());
+    }
+
+    @Test
+    void testStreamAllItems() {
+        // Arrange
+        Document item2 = new Document("_id", "22").append("name", "Item 2").append("description", "description 2").append("owner", user1);
+        when(reactiveReadRepository.findItemsWithOwner(any(Criteria.class))).thenReturn(Flux.just(new Document(item1).append("owner", user1), item2));
+
+        // Act
+        List<ItemWithOwner> items = reactiveReadsService.streamAllItems().collectList().block();
+
+        // Assert
+        assertEquals(2, items.size());
+        assertEquals("Item 2", items.get(1).getName());
+        assertEquals("11", items.get(0).getOwner().getId());
+    }
+
+    @Test
+    void testStreamAllUsers() {
+        // Arrange
+        when(reactiveReadRepository.findUsers()).thenReturn(Flux.just(user1, new Document("_id", "12").append("name", "user 2")));
+
+        // Act
+        List<User> users = reactiveReadsService.streamAllUsers().collectList().block();
+
+        // Assert
+        assertEquals(2, users.size());
+        assertEquals("11", users.get(0).getId());
+        assertEquals("user 2", users.get(1).getName());
+    }
+
+    @Test
+    void testGetAuctionById() {
+        // Arrange
+        String id = new ObjectId().toHexString();
+        when(reactiveReadRepository.findAuctionsWithAuctioneerAndItem(any(Criteria.class))).thenReturn(Flux.just(auction1));
+
+        // Act
+        AuctionWithAuctioneerAndItem auction = reactiveReadsService.getAuctionById(id).block();
+
+        // Assert
+        ArgumentCaptor<Criteria> criteria = ArgumentCaptor.forClass(Criteria.class);
+        verify(reactiveReadRepository).findAuctionsWithAuctioneerAndItem(criteria.capture());
+        assertEquals(new ObjectId(id), criteria.getValue().getCriteriaObject().get("_id"));
+        assertEquals("Auction 1", auction.getTitle());
+    }
+
+    @Test
+    void testGetAuctionById_NotFound() {
+        // Arrange
+        when(reactiveReadRepository.findAuctionsWithAuctioneerAndItem(any(Criteria.class))).thenReturn(Flux.empty());
+
+        // Act & Assert
+        EntityNotFoundException ex = assertThrows(EntityNotFoundException.class, () -> reactiveReadsService.getAuctionById("1").block());
+        assertEquals("Auction not found", ex.getMessage());
+    }
+
+    @Test
+    void testStreamAuctionBids() {
+        // Arrange
+        Document bid = new Document("_id", "31").append("price", 120).append("bidder", user1);
+        when(reactiveReadRepository.exists(Lookups.AUCTIONS, "1")).thenReturn(Mono.just(true));
+        when(reactiveReadRepository.findBidsWithBidder(any(Criteria.class))).thenReturn(Flux.just(bid));
+
+        // Act
+        List<BidWithBidder> bids = reactiveReadsService.streamAuctionBids("1").collectList().block();
+
+        // Assert
+        assertEquals(1, bids.size());
+        assertEquals(120, bids.get(0).getPrice());
+        assertEquals("11", bids.get(0).getBidder().getId());
+    }
+
+    @Test
+    void testStreamAuctionBids_AuctionNotFound() {
+        // Arrange
+        when(reactiveReadRepository.exists(Lookups.AUCTIONS, "1")).thenReturn(Mono.just(false));
+        when(reactiveReadRepository.findBidsWithBidder(any(Criteria.class))).thenReturn(Flux.empty());
+
+        // Act & Assert
+        EntityNotFoundException ex = assertThrows(EntityNotFoundException.class, () -> reactiveReadsService.streamAuctionBids("1").blockLast());
+        assertEquals("Auction not found", ex.getMessage());
+    }
+
+    @Test
+    void testStreamUserItems() {
+        // Arrange
+        when(reactiveReadRepository.exists(Lookups.USERS, "11")).thenReturn(Mono.just(true));
+        when(reactiveReadRepository.findItems(any(Criteria.class))).thenReturn(Flux.just(item1));
+
+        // Act
+        List<Item> items = reactiveReadsService.streamUserItems("11").collectList().block();
+
+        // Assert
+        assertEquals(1, items.size());
+        assertEquals("description 1", items.get(0).getDescription());
+    }
+
+    @Test
+    void testStreamUserBids_UserNotFound() {
+        // Arrange
+        when(reactiveReadRepository.exists(Lookups.USERS, "11")).thenReturn(Mono.just(false));
+
+        // Act & Assert
+        EntityNotFoundException ex = assertThrows(EntityNotFoundException.class, () -> reactiveReadsService.streamUserBids("11").blockLast());
+        assertEquals("User not found", ex.getMessage());
+        verify(reactiveReadRepository, never()).findBidsWithAuction(any(Criteria.class));
+    }
+}
@@ -0,0 +1,61 @@
+package ro.unibuc.hello.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class SessionCacheTest {
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private SessionCache sessionCache = new SessionCache();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sessionCache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(sessionCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(sessionCache, "maxTtlSeconds", 60L);
+        sessionCache.start();
+    }
+
+    @Test
+    void testGetUserId_HitAndMiss() {
+        // Arrange
+        sessionCache.put("session1", "11", LocalDateTime.now().plusMinutes(30));
+
+        // Act & Assert
+        assertEquals("11", sessionCache.getUserId("session1"));
+        assertNull(sessionCache.getUserId("session2"));
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count(), 0.0);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count(), 0.0);
+    }
+
+    @Test
+    void testGetUserId_ExpiredSessionIsNotCached() {
+        // Arrange
+        sessionCache.put("session1", "11", LocalDateTime.now().minusSeconds(1));
+
+        // Act & Assert
+        assertNull(sessionCache.getUserId("session1"));
+    }
+
+    @Test
+    void testEvict() {
+        // Arrange
+        sessionCache.put("session1", "11", LocalDateTime.now().plusMinutes(30));
+
+        // Act
+        sessionCache.evict("session1");
+
+        // Assert
+        assertNull(sessionCache.getUserId("session1"));
+    }
+}
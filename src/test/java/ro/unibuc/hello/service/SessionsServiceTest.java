@@ -5,10 +5,12 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
@@ -17,7 +19,10 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import ro.unibuc.hello.auth.SessionMode;
+import ro.unibuc.hello.auth.SessionTokens;
 import ro.unibuc.hello.data.SessionEntity;
 import ro.unibuc.hello.data.SessionRepository;
 import ro.unibuc.hello.data.UserEntity;
@@ -26,6 +31,7 @@ import ro.unibuc.hello.dto.LoginRequest;
 import ro.unibuc.hello.dto.Session;
 import ro.unibuc.hello.exception.InvalidSessionException;
 import ro.unibuc.hello.exception.LoginFailedException;
+import ro.unibuc.hello.monitoring.BusinessMetrics;
 
 class SessionsServiceTest {
 
@@ -35,6 +41,15 @@ class SessionsServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private SessionCache sessionCache;
+
+    @Mock
+    private SessionTokens sessionTokens;
+
+    @Mock
+    private BusinessMetrics businessMetrics;
+
     @InjectMocks
     private SessionsService sessionsService = new SessionsService();
 
@@ -62,6 +77,7 @@ class SessionsServiceTest {
         assertEquals("session1", session.getSessionId());
         assertEquals("11", session.getUser().getId());
         assertEquals("user 1", session.getUser().getName());
+        verify(businessMetrics, times(1)).loginSucceeded();
     }
 
     @Test
@@ -78,6 +94,7 @@ class SessionsServiceTest {
 
         // Act & Assert
         assertThrows(LoginFailedException.class, () -> sessionsService.login(loignReq));
+        verify(businessMetrics, times(1)).loginFailed();
     }
 
     @Test
@@ -94,6 +111,7 @@ class SessionsServiceTest {
 
         // Act & Assert
         assertThrows(LoginFailedException.class, () -> sessionsService.login(loignReq));
+        verify(businessMetrics, times(1)).loginFailed();
     }
 
     @Test
@@ -174,4 +192,88 @@ class SessionsServiceTest {
         // Assert
         assertEquals("Expired session", ex.getMessage());
     }
+
+    @Test
+    void testAuthenticate_CachedSession() {
+        // Arrange
+        when(sessionCache.getUserId("session1")).thenReturn("11");
+
+        // Act
+        String userId = sessionsService.authenticate("session1");
+
+        // Assert
+        assertEquals("11", userId);
+        verify(sessionRepository, times(0)).findBySessionId(any());
+    }
+
+    @Test
+    void testAuthenticate_LoadsAndCachesSession() {
+        // Arrange
+        String sessionId = "session1";
+        UserEntity user = new UserEntity("11", "user 1", "password1", "username1");
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(100);
+        when(sessionRepository.findBySessionId(sessionId)).thenReturn(Optional.of(new SessionEntity("41", sessionId, user, expiresAt)));
+
+        // Act
+        String userId = sessionsService.authenticate(sessionId);
+
+        // Assert
+        assertEquals("11", userId);
+        verify(sessionCache, times(1)).put(sessionId, "11", expiresAt);
+    }
+
+    @Test
+    void testLogout_EvictsCachedSession() {
+        // Arrange
+        when(sessionRepository.findBySessionId("session1")).thenReturn(Optional.empty());
+
+        // Act
+        sessionsService.logout("session1");
+
+        // Assert
+        verify(sessionCache, times(1)).evict("session1");
+    }
+
+    @Test
+    void testLogin_TokenMode() {
+        // Arrange
+        ReflectionTestUtils.setField(sessionsService, "sessionMode", SessionMode.TOKEN);
+        UserEntity user = new UserEntity("11", "user 1", "password1", "username");
+        when(userRepository.findByUsername("username")).thenReturn(Optional.of(user));
+        when(sessionTokens.issue(eq("11"), any(Instant.class))).thenReturn("token");
+
+        // Act
+        Session session = sessionsService.login(new LoginRequest("username", "password1"));
+
+        // Assert
+        assertEquals("token", session.getSessionId());
+        assertEquals("11", session.getUser().getId());
+        verify(sessionRepository, times(0)).save(any(SessionEntity.class));
+    }
+
+    @Test
+    void testAuthenticate_TokenMode() {
+        // Arrange
+        ReflectionTestUtils.setField(sessionsService, "sessionMode", SessionMode.TOKEN);
+        when(sessionTokens.verify("token")).thenReturn("11");
+
+        // Act
+        String userId = sessionsService.authenticate("token");
+
+        // Assert
+        assertEquals("11", userId);
+        verify(sessionCache, times(0)).getUserId(any());
+        verify(sessionRepository, times(0)).findBySessionId(any());
+    }
+
+    @Test
+    void testLogout_TokenMode() {
+        // Arrange
+        ReflectionTestUtils.setField(sessionsService, "sessionMode", SessionMode.TOKEN);
+        when(sessionTokens.revoke("token")).thenReturn(true);
+
+        // Act & Assert
+        assertTrue(sessionsService.logout("token"));
+        verify(sessionRepository, times(0)).findBySessionId(any());
+    }
 }
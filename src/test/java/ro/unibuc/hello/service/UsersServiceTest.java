@@ -5,6 +5,7 @@ import static org.junit.Assert.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -13,19 +14,21 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.dao.DuplicateKeyException;
-
-import ro.unibuc.hello.data.AuctionEntity;
-import ro.unibuc.hello.data.AuctionRepository;
-import ro.unibuc.hello.data.BidEntity;
-import ro.unibuc.hello.data.BidRepository;
-import ro.unibuc.hello.data.ItemEntity;
-import ro.unibuc.hello.data.ItemRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import ro.unibuc.hello.cache.ResponseCache;
+import ro.unibuc.hello.data.PageReadRepository;
+import ro.unibuc.hello.data.ReferenceLoader;
 import ro.unibuc.hello.data.UserEntity;
 import ro.unibuc.hello.data.UserRepository;
 import ro.unibuc.hello.dto.AuctionWithItem;
@@ -38,17 +41,20 @@ import ro.unibuc.hello.exception.InvalidDataException;
 
 public class UsersServiceTest {
 
+    private static final String DUPLICATE_USERNAME =
+        "E11000 duplicate key error collection: test.userEntity index: username dup key: { username: \"john\" }";
+
     @Mock
-    private BidRepository bidRepository;
+    private UserRepository userRepository;
 
     @Mock
-    private AuctionRepository auctionRepository;
+    private PageReadRepository pageReadRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private ReferenceLoader referenceLoader;
 
     @Mock
-    private ItemRepository itemRepository;
+    private ResponseCache responseCache;
 
     @InjectMocks
     private UsersService usersService = new UsersService();
@@ -60,15 +66,16 @@ public class UsersServiceTest {
 
     @Test
     void testGetAllUsers() {
-        // Arrange: Creăm o listă de UserEntity pentru a o returna din UserRepository
-        UserEntity user1 = new UserEntity("1", "Name1", "password123", "UserName1");
-        UserEntity user2 = new UserEntity("2", "Name2", "password456", "UserName2");
-        List<UserEntity> userEntities = Arrays.asList(user1, user2);
+        // Arrange: Creăm o pagină de documente pentru a o returna din PageReadRepository
+        List<Document> documents = Arrays.asList(
+            new Document("_id", "1").append("name", "Name1"),
+            new Document("_id", "2").append("name", "Name2")
+        );
 
-        when(userRepository.findAll()).thenReturn(userEntities);
+        when(pageReadRepository.findUsers(any(Criteria.class), isNull(), any(Limit.class))).thenReturn(Window.from(documents, ScrollPosition::offset));
 
         // Act
-        List<User> users = usersService.getAllUsers();
+        List<User> users = usersService.getAllUsers(null, null).getContent();
 
         //Assert
         assertNotNull(users);
@@ -78,7 +85,7 @@ public class UsersServiceTest {
         assertEquals("2", users.get(1).getId()); 
         assertEquals("Name2", users.get(1).getName()); 
 
-        verify(userRepository, times(1)).findAll();
+        verify(pageReadRepository, times(1)).findUsers(any(Criteria.class), isNull(), any(Limit.class));
     }
 
     @Test
@@ -104,14 +111,13 @@ public class UsersServiceTest {
     @Test
     void testGetUserItems_ExistingUser() {
         String userId = "1";
-        UserEntity userEntity = new UserEntity(userId, "name", "password", "username");
-        ItemEntity item1 = new ItemEntity("Item1", "Description1", userEntity);
-        ItemEntity item2 = new ItemEntity("Item2", "Description2", userEntity);
+        Document item1 = new Document("_id", "21").append("name", "Item1").append("description", "Description1");
+        Document item2 = new Document("_id", "22").append("name", "Item2").append("description", "Description2");
 
-        when(userRepository.findById(userId)).thenReturn(java.util.Optional.of(userEntity));
-        when(itemRepository.findByOwner(userEntity)).thenReturn(Arrays.asList(item1, item2));
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(pageReadRepository.findItems(any(Criteria.class), isNull(), any(Limit.class))).thenReturn(Window.from(Arrays.asList(item1, item2), ScrollPosition::offset));
 
-        List<Item> items = usersService.getUserItems(userId);
+        List<Item> items = usersService.getUserItems(userId, null, null).getContent();
 
         assertEquals(2, items.size());
         assertEquals("Item1", items.get(0).getName());
@@ -121,61 +127,66 @@ public class UsersServiceTest {
     @Test
     void testGetUserItems_UserNotFound() {
         String userId = "1";
-        when(userRepository.findById(userId)).thenReturn(java.util.Optional.empty());
+        when(userRepository.existsById(userId)).thenReturn(false);
 
-        assertThrows(EntityNotFoundException.class, () -> usersService.getUserItems(userId));
+        assertThrows(EntityNotFoundException.class, () -> usersService.getUserItems(userId, null, null));
     }
 
     @Test
     void testGetUserAuctions_ExistingUser() {
         String userId = "1";
-        UserEntity userEntity = new UserEntity(userId, "name", "password", "username");
-        ItemEntity item = new ItemEntity("Item1", "Description of Item1", userEntity);
-        AuctionEntity auction1 = new AuctionEntity("Auction1", "Description1", 50, true, item, userEntity);
-        AuctionEntity auction2 = new AuctionEntity("Auction2", "Description2", 100, true, item, userEntity);
+        Document item = new Document("_id", "21").append("name", "Item1").append("description", "Description of Item1");
+        Document auction1 = new Document("_id", "41").append("title", "Auction1").append("description", "Description1")
+            .append("startPrice", 50).append("open", true).append("item", item);
+        Document auction2 = new Document("_id", "42").append("title", "Auction2").append("description", "Description2")
+            .append("startPrice", 100).append("open", true).append("item", item);
 
-        when(userRepository.findById(userId)).thenReturn(java.util.Optional.of(userEntity));
-        when(auctionRepository.findByAuctioneer(userEntity)).thenReturn(Arrays.asList(auction1, auction2));
+        when(userRepository.existsById(userId)).thenReturn(true);
+        Window<Document> page = Window.from(Arrays.asList(auction1, auction2), ScrollPosition::offset);
+        when(pageReadRepository.findAuctions(any(Criteria.class), isNull(), any(Limit.class))).thenReturn(page);
+        when(referenceLoader.withItems(page, "item")).thenReturn(page);
 
-        List<AuctionWithItem> auctions = usersService.getUserAuctions(userId);
+        List<AuctionWithItem> auctions = usersService.getUserAuctions(userId, null, null).getContent();
 
         assertEquals(2, auctions.size());
         assertEquals("Auction1", auctions.get(0).getTitle());
         assertEquals("Auction2", auctions.get(1).getTitle());
+        assertEquals("Item1", auctions.get(0).getItem().getName());
     }
 
     @Test
     void testGetUserAuctions_UserNotFound() {
         String userId = "1";
-        when(userRepository.findById(userId)).thenReturn(java.util.Optional.empty());
+        when(userRepository.existsById(userId)).thenReturn(false);
 
-        assertThrows(EntityNotFoundException.class, () -> usersService.getUserAuctions(userId));
+        assertThrows(EntityNotFoundException.class, () -> usersService.getUserAuctions(userId, null, null));
     }
 
     @Test
     void testGetUserBids_ExistingUser() {
         String userId = "1";
-        UserEntity userEntity = new UserEntity(userId, "John Doe", "password", "john_doe");
-        ItemEntity item = new ItemEntity("Item1", "Description of Item1", userEntity);
-        BidEntity bid1 = new BidEntity(100, userEntity, new AuctionEntity("Auction1", "Description1", 50, true, item, userEntity));
-        BidEntity bid2 = new BidEntity(200, userEntity, new AuctionEntity("Auction2", "Description2", 100, true, item, userEntity));
+        Document bid1 = new Document("_id", "31").append("price", 100)
+            .append("auction", new Document("_id", "41").append("title", "Auction1").append("startPrice", 50).append("open", true));
+        Document bid2 = new Document("_id", "32").append("price", 200)
+            .append("auction", new Document("_id", "42").append("title", "Auction2").append("startPrice", 100).append("open", true));
 
-        when(userRepository.findById(userId)).thenReturn(java.util.Optional.of(userEntity));
-        when(bidRepository.findByBidder(userEntity)).thenReturn(Arrays.asList(bid1, bid2));
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(pageReadRepository.findBidsWithAuction(any(Criteria.class), isNull(), any(Limit.class))).thenReturn(Window.from(Arrays.asList(bid1, bid2), ScrollPosition::offset));
 
-        List<BidWithAuction> bids = usersService.getUserBids(userId);
+        List<BidWithAuction> bids = usersService.getUserBids(userId, null, null).getContent();
 
         assertEquals(2, bids.size());
         assertEquals(100, bids.get(0).getPrice());
         assertEquals(200, bids.get(1).getPrice());
+        assertEquals("Auction1", bids.get(0).getAuction().getTitle());
     }
 
     @Test
     void testGetUserBids_UserNotFound() {
         String userId = "1";
-        when(userRepository.findById(userId)).thenReturn(java.util.Optional.empty());
+        when(userRepository.existsById(userId)).thenReturn(false);
 
-        assertThrows(EntityNotFoundException.class, () -> usersService.getUserBids(userId));
+        assertThrows(EntityNotFoundException.class, () -> usersService.getUserBids(userId, null, null));
     }
 
     @Test
@@ -200,7 +211,7 @@ public class UsersServiceTest {
         String password = "password";
         UserPostRequest userPostRequest = new UserPostRequest(name, username, password);
 
-        when(userRepository.save(any(UserEntity.class))).thenThrow(new DuplicateKeyException(""));
+        when(userRepository.save(any(UserEntity.class))).thenThrow(new DuplicateKeyException(DUPLICATE_USERNAME));
 
         InvalidDataException ex = assertThrows(InvalidDataException.class, () -> usersService.saveUser(userPostRequest));
         assertEquals("Username already exists", ex.getMessage());
@@ -235,7 +246,7 @@ public class UsersServiceTest {
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUserEntity));
         when(userRepository.save(any(UserEntity.class))).thenReturn(new UserEntity(userId, "UpdatedName", "newPassword", "updatedUsername"));
 
-        User updatedUser = usersService.updateUser(userId, userPostRequest);
+        User updatedUser = usersService.updateUser(userId, userPostRequest, null);
 
         assertEquals("UpdatedName", updatedUser.getName());
     }
@@ -247,7 +258,7 @@ public class UsersServiceTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
-        assertThrows(EntityNotFoundException.class, () -> usersService.updateUser(userId, userPostRequest));
+        assertThrows(EntityNotFoundException.class, () -> usersService.updateUser(userId, userPostRequest, null));
     }
 
     @Test
@@ -258,12 +269,28 @@ public class UsersServiceTest {
         UserEntity existingUserEntity = new UserEntity("1", "OldName", "oldPassword", "oldUsername");
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUserEntity));
-        when(userRepository.save(any(UserEntity.class))).thenThrow(new DuplicateKeyException(""));
+        when(userRepository.save(any(UserEntity.class))).thenThrow(new DuplicateKeyException(DUPLICATE_USERNAME));
 
-        InvalidDataException ex = assertThrows(InvalidDataException.class, () -> usersService.updateUser(userId, userPostRequest));
+        InvalidDataException ex = assertThrows(InvalidDataException.class, () -> usersService.updateUser(userId, userPostRequest, null));
         assertEquals("Username already exists", ex.getMessage());
     }
 
+    @Test
+    void testUpdateUserDuplicateIdIsNotReportedAsUsername() {
+        String userId = "1";
+        UserPostRequest userPostRequest = new UserPostRequest("UpdatedName", "updatedUsername", "newPassword");
+
+        UserEntity existingUserEntity = new UserEntity("1", "OldName", "oldPassword", "oldUsername");
+        DuplicateKeyException duplicateId = new DuplicateKeyException(
+            "E11000 duplicate key error collection: test.userEntity index: _id_ dup key: { _id: ObjectId('67d06c34d4a81b711f91b537') }");
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUserEntity));
+        when(userRepository.save(any(UserEntity.class))).thenThrow(duplicateId);
+
+        DuplicateKeyException ex = assertThrows(DuplicateKeyException.class, () -> usersService.updateUser(userId, userPostRequest, null));
+        assertEquals(duplicateId, ex);
+    }
+
     @Test
     void testDeleteUser() {
         String userId = "1";